@@ -15,16 +15,35 @@ dependencies {
     implementation("com.google.code.gson:gson:2.11.0")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-webflux")
+    implementation("io.micrometer:micrometer-core")
     runtimeOnly("com.h2database:h2")
     compileOnly("org.projectlombok:lombok:1.18.34")
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation(platform("org.junit:junit-bom:5.9.1"))
     testImplementation("org.junit.jupiter:junit-jupiter")
-    compileOnly(project(":annotation"))
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    implementation(project(":annotation"))
     annotationProcessor(project(":annotation"))
+    testAnnotationProcessor(project(":annotation"))
 }
 
 tasks.test {
-    useJUnitPlatform()
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+tasks.register<Test>("benchmark") {
+    description = "Runs the SpREAD benchmarks."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    systemProperties(project.properties.filterKeys { it.startsWith("spread.load.") })
+    testLogging {
+        showStandardStreams = true
+    }
 }
\ No newline at end of file
@@ -113,6 +113,11 @@ public class SpREADEndpointTest {
                             responseSpec.expectBody().json(new Gson().toJson(expected));
                         }
                 );
+
+        webTestClient.delete()
+                .uri(uriBuilder -> uriBuilder.path("/test").queryParam("id",1).build())
+                .exchange()
+                .expectStatus().isNotFound();
     }
 
     @Test
@@ -135,6 +140,228 @@ public class SpREADEndpointTest {
 
     }
 
+    @Test
+    public void testGetAllNdjson(){
+        populate(t1,t2,t3);
+        webTestClient.get()
+                .uri("/test")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON);
+                            responseSpec.expectBody(String.class).value((body) -> {
+                                String[] lines = body.split("\n");
+                                assert(lines.length == 3);
+                                assert(new Gson().fromJson(lines[0], TestEntity.class).equals(expectedT1));
+                                assert(new Gson().fromJson(lines[2], TestEntity.class).equals(expectedT3));
+                            });
+                        }
+                );
+    }
+
+    @Test
+    public void testGetAllNdjsonWithParameters(){
+        populate(t1,t2,t3);
+        webTestClient.get()
+                .uri("/test")
+                .accept(MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"), MediaType.ALL)
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON);
+                        }
+                );
+        webTestClient.get()
+                .uri("/test")
+                .accept(MediaType.ALL)
+                .exchange()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    public void testGetAllEmpty(){
+        webTestClient.get()
+                .uri("/test")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectBody().json("[]");
+                        }
+                );
+    }
+
+    @Test
+    public void testGetPage(){
+        populate(t1,t2,t3);
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/test")
+                        .queryParam("page",0)
+                        .queryParam("size",2)
+                        .queryParam("sort","testString,desc")
+                        .build()
+                )
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectHeader().valueEquals("X-Total-Count","3");
+                            responseSpec.expectBodyList(TestEntity.class).value((list) -> {
+                                assert(list.size() == 2);
+                                assert(list.get(0).equals(expectedT3));
+                                assert(list.get(1).equals(expectedT2));
+                            });
+                        }
+                );
+    }
+
+    @Test
+    public void testGetPageRejectsOversizedAndUnknownSort(){
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/test").queryParam("size",1000).build())
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/test").queryParam("sort","notAField").build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testIdIsParsedAsTheEntityIdType(){
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/test").queryParam("id","12a").build())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/test").queryParam("id","9223372036854775808").build())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete()
+                .uri(uriBuilder -> uriBuilder.path("/test").queryParam("id","4294967296").build())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void testGetKeyset(){
+        populate(t1,t2,t3);
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/test")
+                        .queryParam("after",1)
+                        .queryParam("size",1)
+                        .build()
+                )
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectHeader().valueEquals("X-Next-After","2");
+                            responseSpec.expectBodyList(TestEntity.class).value((list) -> {
+                                assert(list.size() == 1);
+                                assert(list.get(0).equals(expectedT2));
+                            });
+                        }
+                );
+    }
+
+    @Test
+    public void testPutNonAscii(){
+        TestEntity unicode = new TestEntity(null,"caf\u00e9 \u2713 \ud83d\ude00",2,true);
+        webTestClient.put()
+                .uri("/test")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(unicode))
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectBody(TestEntity.class).value((entity) -> {
+                                assert(entity.getTestString().equals(unicode.getTestString()));
+                            });
+                        }
+                );
+    }
+
+    @Test
+    public void testPutBatch(){
+        webTestClient.put()
+                .uri("/test/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(new Gson().toJson(new TestEntity[]{t1, t2, t3})))
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectBodyList(TestEntity.class).value((list) -> {
+                                assert(list.size() == 3);
+                                assert(list.get(0).equals(expectedT1));
+                                assert(list.get(2).equals(expectedT3));
+                            });
+                        }
+                );
+    }
+
+    @Test
+    public void testPutBatchNdjson(){
+        Gson gson = new Gson();
+        webTestClient.put()
+                .uri("/test/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(BodyInserters.fromValue(gson.toJson(t1) + "\n" + gson.toJson(t2) + "\n"))
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON);
+                            responseSpec.expectBody(String.class).value((body) -> {
+                                String[] lines = body.split("\n");
+                                assert(lines.length == 2);
+                                assert(gson.fromJson(lines[1], TestEntity.class).equals(expectedT2));
+                            });
+                        }
+                );
+    }
+
+    @Test
+    public void testGetOneNotModified(){
+        populate(t1);
+
+        String etag = webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/test").queryParam("id",1).build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+        assert(etag != null);
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/test").queryParam("id",1).build())
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        populate(updatedT1);
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/test").queryParam("id",1).build())
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
     private void populate(TestEntity... entities){
         Arrays.stream(entities).forEach((entity) -> {
             webTestClient.put().uri("/test").contentType(MediaType.APPLICATION_JSON)
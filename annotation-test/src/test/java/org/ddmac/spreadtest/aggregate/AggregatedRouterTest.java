@@ -0,0 +1,94 @@
+package org.ddmac.spreadtest.aggregate;
+
+import org.ddmac.spread.route.SpREADRoutes;
+import org.ddmac.spreadtest.aggregate.spread.RootEntitySpREADHandlerImpl;
+import org.ddmac.spreadtest.aggregate.spread.RootEntitySpREADRouterImpl;
+import org.ddmac.spreadtest.spread.TestEntitySpREADRouterImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class AggregatedRouterTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private RootEntitySpREADHandlerImpl handler;
+
+    @LocalServerPort
+    int port;
+
+    @Test
+    public void testOneRouterDispatchesMainAndTestSources(){
+        assertEquals(1, context.getBeansOfType(RouterFunction.class).size());
+        assertTrue(context.containsBean("spreadRouter"));
+        assertTrue(context.getBeansOfType(SpREADRoutes.class).containsValue(context.getBean(TestEntitySpREADRouterImpl.class)));
+        assertTrue(context.getBeansOfType(SpREADRoutes.class).containsValue(context.getBean(RootEntitySpREADRouterImpl.class)));
+    }
+
+    @Test
+    public void testRoutesOfBothCompilationsAnswer(){
+        webTestClient.get().uri("/test").exchange().expectStatus().isOk();
+        webTestClient.get().uri("/cached").exchange().expectStatus().isOk();
+        webTestClient.get().uri("/unrouted").exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    public void testDefaultPathRoutesItsSubPaths() throws Exception {
+        webTestClient.put().uri("/").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RootEntity(null, "root")).exchange().expectStatus().isOk();
+        webTestClient.put().uri("/batch").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(new RootEntity(null, "first"), new RootEntity(null, "second")))
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/").queryParam("id",3).build())
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().isOk();
+                            responseSpec.expectBody().jsonPath("$.name").isEqualTo("second");
+                        }
+                );
+
+        CompletableFuture<List<Map<String, Object>>> changes = WebClient.create("http://localhost:" + port)
+                .get()
+                .uri("/changes")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<Map<String, Object>>() { })
+                .take(1)
+                .collectList()
+                .timeout(Duration.ofSeconds(10))
+                .toFuture();
+        Flux.interval(Duration.ofMillis(10))
+                .filter((tick) -> handler.changeSubscribers() > 0)
+                .blockFirst(Duration.ofSeconds(10));
+        webTestClient.put().uri("/").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RootEntity(null, "latest")).exchange().expectStatus().isOk();
+        assertEquals(4, changes.get().getFirst().get("id"));
+    }
+}
@@ -0,0 +1,34 @@
+package org.ddmac.spreadtest.aggregate;
+
+import jakarta.persistence.*;
+
+@Entity
+public class RootEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+    String name;
+
+    public RootEntity(){}
+
+    public RootEntity(Long id, String name){
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,7 @@
+package org.ddmac.spreadtest.aggregate;
+
+import org.ddmac.spread.SpREAD;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(changes = 16)
+public interface RootJpaInterface extends JpaRepository<RootEntity,Long> {}
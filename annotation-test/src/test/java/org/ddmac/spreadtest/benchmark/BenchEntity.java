@@ -0,0 +1,37 @@
+package org.ddmac.spreadtest.benchmark;
+
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import org.hibernate.annotations.Formula;
+
+@MappedSuperclass
+public abstract class BenchEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+    String payload;
+    @Formula("SPREAD_PAUSE(20)")
+    int pause;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public int getPause() {
+        return pause;
+    }
+}
@@ -0,0 +1,7 @@
+package org.ddmac.spreadtest.benchmark;
+
+import org.ddmac.spread.SpREAD;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/bench/elastic")
+public interface BoundedElasticJpaInterface extends JpaRepository<BoundedElasticEntity,Long> {}
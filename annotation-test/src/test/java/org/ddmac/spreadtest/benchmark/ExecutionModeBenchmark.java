@@ -0,0 +1,110 @@
+package org.ddmac.spreadtest.benchmark;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the bounded elastic and virtual thread execution modes under many concurrent slow reads.
+ * Every read sleeps inside H2 for 20ms, so the JDBC pool rather than the thread pool is the bottleneck.
+ * Run with {@code gradle :annotation-test:benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.hikari.maximum-pool-size=50"
+)
+public class ExecutionModeBenchmark {
+
+    private static final int ROWS = 100;
+    private static final int REQUESTS = 4000;
+    private static final int CONCURRENCY = 1000;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    BoundedElasticJpaInterface boundedElasticRepo;
+
+    @Autowired
+    VirtualThreadJpaInterface virtualThreadRepo;
+
+    @BeforeEach
+    void seed(){
+        jdbcTemplate.execute(SlowRead.ALIAS);
+        IntStream.range(0, ROWS).forEach((i) -> {
+            BoundedElasticEntity elastic = new BoundedElasticEntity();
+            elastic.setPayload("row" + i);
+            boundedElasticRepo.save(elastic);
+            VirtualThreadEntity virtual = new VirtualThreadEntity();
+            virtual.setPayload("row" + i);
+            virtualThreadRepo.save(virtual);
+        });
+    }
+
+    @Test
+    void compareExecutionModes(){
+        WebClient client = WebClient.create("http://localhost:" + port);
+        // warm up both paths so JIT and pool start-up do not skew the first mode measured
+        run(client, "/bench/elastic", REQUESTS / 10);
+        run(client, "/bench/virtual", REQUESTS / 10);
+
+        report("BOUNDED_ELASTIC", run(client, "/bench/elastic", REQUESTS));
+        report("VIRTUAL_THREADS", run(client, "/bench/virtual", REQUESTS));
+    }
+
+    private Result run(WebClient client, String path, int requests){
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long[] latencies = new long[requests];
+        long start = System.nanoTime();
+        Flux.range(0, requests)
+                .flatMap((i) -> {
+                    long sent = System.nanoTime();
+                    return client.get()
+                            .uri(path + "?id=" + (i % ROWS + 1))
+                            .retrieve()
+                            .toBodilessEntity()
+                            .doOnSuccess((response) -> latencies[i] = System.nanoTime() - sent)
+                            .onErrorResume((e) -> Mono.empty());
+                }, CONCURRENCY)
+                .blockLast();
+        long elapsed = System.nanoTime() - start;
+        return new Result(elapsed, latencies, threads.getPeakThreadCount());
+    }
+
+    private void report(String mode, Result result){
+        long[] sorted = Arrays.stream(result.latencies()).filter((l) -> l > 0).sorted().toArray();
+        System.out.printf(
+                "%-16s requests=%d throughput=%.1f req/s p50=%.1fms p99=%.1fms peakPlatformThreads=%d%n",
+                mode,
+                sorted.length,
+                sorted.length / (result.elapsedNanos() / 1e9),
+                percentile(sorted, 0.50) / 1e6,
+                percentile(sorted, 0.99) / 1e6,
+                result.peakThreads()
+        );
+    }
+
+    private long percentile(long[] sorted, double p){
+        if (sorted.length == 0) return 0;
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private record Result(long elapsedNanos, long[] latencies, int peakThreads) { }
+}
@@ -0,0 +1,195 @@
+package org.ddmac.spreadtest.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Macro benchmark of the generated routes: seeds H2, then drives a mix of GET, PUT and DELETE requests
+ * at TestJpaInterface (bounded elastic) and VirtualLoadJpaInterface (virtual threads) from a local WebClient,
+ * and reports throughput, latency percentiles, GC and heap per execution mode.
+ * The load generator runs in the same JVM as the server, so GC and allocation figures include the client.
+ * Run with {@code gradle :annotation-test:benchmark --tests '*LoadHarness*'}, sized with
+ * {@code -Pspread.load.rows=}, {@code -Pspread.load.requests=} and {@code -Pspread.load.concurrency=}.
+ */
+@Tag("benchmark")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.hikari.maximum-pool-size=50"
+)
+public class LoadHarness {
+
+    private static final int ROWS = Integer.getInteger("spread.load.rows", 10_000);
+    private static final int REQUESTS = Integer.getInteger("spread.load.requests", 20_000);
+    private static final int CONCURRENCY = Integer.getInteger("spread.load.concurrency", 256);
+    /**
+     * Out of every 20 requests, one deletes a row, three replace one and the rest read one.
+     */
+    private static final int MIX = 20;
+    private static final List<String> OPERATIONS = List.of("GET", "PUT", "DELETE");
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private record Target(String mode, String path, String table) { }
+
+    @Test
+    void runLoad(){
+        WebClient client = WebClient.create("http://localhost:" + port);
+        List<Target> targets = List.of(
+                new Target("BOUNDED_ELASTIC", "/test", "test"),
+                new Target("VIRTUAL_THREADS", "/load/virtual", "virtual_load")
+        );
+        System.out.printf("rows=%d requests=%d concurrency=%d%n", ROWS, REQUESTS, CONCURRENCY);
+        for (Target target : targets) {
+            // deletes take rows above ROWS, one per MIX requests of the warm-up and of the measured run
+            seed(target, ROWS + (REQUESTS + REQUESTS / 10) / MIX + 2);
+            AtomicInteger deleted = new AtomicInteger();
+            // warm up so JIT and pool start-up do not count against the first mode measured
+            run(client, target, REQUESTS / 10, deleted);
+            System.gc();
+            report(target.mode(), run(client, target, REQUESTS, deleted));
+        }
+    }
+
+    /**
+     * Replaces the target's rows with rows 1 to count, inserted in JDBC batches.
+     */
+    private void seed(Target target, int count){
+        jdbcTemplate.execute("truncate table " + target.table() + " restart identity");
+        List<Object[]> rows = new ArrayList<>(count);
+        IntStream.rangeClosed(1, count).forEach((i) -> rows.add(new Object[]{"row" + i, i, i % 2 == 0}));
+        jdbcTemplate.batchUpdate("insert into " + target.table() + " (test_string, test_int, test_bool) values (?, ?, ?)", rows);
+    }
+
+    private Result run(WebClient client, Target target, int requests, AtomicInteger deleted){
+        long[] latencies = new long[requests];
+        int[] operations = new int[requests];
+        LongAdder errors = new LongAdder();
+        Heap before = Heap.now();
+        long start = System.nanoTime();
+        Flux.range(0, requests)
+                .flatMap((i) -> Mono.defer(() -> {
+                    long sent = System.nanoTime();
+                    operations[i] = operation(i);
+                    return request(client, target, operations[i], i, deleted)
+                            .exchangeToMono((response) -> response.releaseBody()
+                                    .thenReturn(response.statusCode().is2xxSuccessful()))
+                            .onErrorReturn(false)
+                            .doOnNext((ok) -> {
+                                latencies[i] = System.nanoTime() - sent;
+                                if (!ok) {
+                                    errors.increment();
+                                }
+                            });
+                }), CONCURRENCY)
+                .blockLast();
+        long elapsed = System.nanoTime() - start;
+        return new Result(elapsed, latencies, operations, errors.sum(), Heap.now().since(before));
+    }
+
+    /**
+     * @return Index into OPERATIONS of the i-th request, in a fixed mix so runs are repeatable.
+     */
+    private int operation(int i){
+        int slot = i % MIX;
+        return slot == 0 ? 2 : slot <= 3 ? 1 : 0;
+    }
+
+    private WebClient.RequestHeadersSpec<?> request(WebClient client, Target target, int operation, int i, AtomicInteger deleted){
+        // a prime stride spreads reads and writes over the table instead of walking it in order
+        long id = (i * 7919L) % ROWS + 1;
+        return switch (operation) {
+            case 0 -> client.get().uri(target.path() + "?id=" + id);
+            case 1 -> client.put().uri(target.path())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue("{\"id\":" + id + ",\"testString\":\"put" + i + "\",\"testInt\":" + i + ",\"testBool\":true}");
+            default -> client.delete().uri(target.path() + "?id=" + (ROWS + deleted.incrementAndGet()));
+        };
+    }
+
+    private void report(String mode, Result result){
+        int requests = result.latencies().length;
+        System.out.printf(
+                "%-16s %-6s requests=%d errors=%d throughput=%.1f req/s %s%n",
+                mode, "ALL", requests, result.errors(), requests / (result.elapsedNanos() / 1e9),
+                percentiles(result.latencies())
+        );
+        for (int op = 0; op < OPERATIONS.size(); op++) {
+            int operation = op;
+            long[] latencies = IntStream.range(0, requests)
+                    .filter((i) -> result.operations()[i] == operation)
+                    .mapToLong((i) -> result.latencies()[i])
+                    .toArray();
+            System.out.printf("%-16s %-6s requests=%d %s%n", mode, OPERATIONS.get(op), latencies.length, percentiles(latencies));
+        }
+        Heap heap = result.heap();
+        System.out.printf(
+                "%-16s %-6s gcCount=%d gcTime=%dms peakHeap=%.1fMB allocated=%.1fKB/req%n",
+                mode, "HEAP", heap.gcCount(), heap.gcMillis(), heap.peakBytes() / 1e6, heap.allocatedBytes() / 1e3 / requests
+        );
+    }
+
+    private String percentiles(long[] latencies){
+        long[] sorted = Arrays.stream(latencies).filter((l) -> l > 0).sorted().toArray();
+        return String.format("p50=%.2fms p99=%.2fms p999=%.2fms",
+                percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6, percentile(sorted, 0.999) / 1e6);
+    }
+
+    private long percentile(long[] sorted, double p){
+        if (sorted.length == 0) return 0;
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private record Result(long elapsedNanos, long[] latencies, int[] operations, long errors, Heap heap) { }
+
+    /**
+     * Collector and heap counters of the JVM. Reading them resets the heap pools' peak usage,
+     * so the peak of a difference covers only the run between the two readings.
+     */
+    private record Heap(long gcCount, long gcMillis, long peakBytes, long allocatedBytes) {
+
+        static Heap now(){
+            long count = 0;
+            long millis = 0;
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, collector.getCollectionCount());
+                millis += Math.max(0, collector.getCollectionTime());
+            }
+            long peak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peak += pool.getPeakUsage().getUsed();
+                    pool.resetPeakUsage();
+                }
+            }
+            long allocated = ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getTotalThreadAllocatedBytes();
+            return new Heap(count, millis, peak, allocated);
+        }
+
+        Heap since(Heap before){
+            return new Heap(gcCount - before.gcCount, gcMillis - before.gcMillis, peakBytes, allocatedBytes - before.allocatedBytes);
+        }
+    }
+}
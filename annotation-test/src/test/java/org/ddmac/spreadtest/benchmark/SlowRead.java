@@ -0,0 +1,14 @@
+package org.ddmac.spreadtest.benchmark;
+
+/**
+ * H2 function used by the benchmark entities to stand in for a slow JDBC read.
+ */
+public class SlowRead {
+
+    public static final String ALIAS = "CREATE ALIAS IF NOT EXISTS SPREAD_PAUSE FOR \"org.ddmac.spreadtest.benchmark.SlowRead.pause\"";
+
+    public static int pause(int millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return millis;
+    }
+}
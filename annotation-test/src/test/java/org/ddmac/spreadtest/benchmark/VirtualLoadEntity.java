@@ -0,0 +1,50 @@
+package org.ddmac.spreadtest.benchmark;
+
+import jakarta.persistence.*;
+
+/**
+ * The columns of TestEntity, served on virtual threads so the load harness can compare execution modes
+ * on the same rows.
+ */
+@Entity
+@Table(name = "virtual_load")
+public class VirtualLoadEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+    String testString;
+    int testInt;
+    boolean testBool;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTestString() {
+        return testString;
+    }
+
+    public void setTestString(String testString) {
+        this.testString = testString;
+    }
+
+    public int getTestInt() {
+        return testInt;
+    }
+
+    public void setTestInt(int testInt) {
+        this.testInt = testInt;
+    }
+
+    public boolean isTestBool() {
+        return testBool;
+    }
+
+    public void setTestBool(boolean testBool) {
+        this.testBool = testBool;
+    }
+}
@@ -0,0 +1,9 @@
+package org.ddmac.spreadtest.benchmark;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Execution;
+import org.ddmac.spread.enums.Serializer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/load/virtual", serializer = Serializer.GSON, execution = Execution.VIRTUAL_THREADS, maxConcurrency = 50)
+public interface VirtualLoadJpaInterface extends JpaRepository<VirtualLoadEntity,Long> {}
@@ -0,0 +1,6 @@
+package org.ddmac.spreadtest.benchmark;
+
+import jakarta.persistence.Entity;
+
+@Entity
+public class VirtualThreadEntity extends BenchEntity {}
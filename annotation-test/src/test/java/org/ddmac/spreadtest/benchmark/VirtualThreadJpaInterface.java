@@ -0,0 +1,8 @@
+package org.ddmac.spreadtest.benchmark;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Execution;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/bench/virtual", execution = Execution.VIRTUAL_THREADS, maxConcurrency = 50)
+public interface VirtualThreadJpaInterface extends JpaRepository<VirtualThreadEntity,Long> {}
@@ -0,0 +1,107 @@
+package org.ddmac.spreadtest.cache;
+
+import org.ddmac.spreadtest.cache.spread.CachedEntitySpREADHandlerImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class CachedEndpointTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private CachedEntitySpREADHandlerImpl handler;
+
+    @Test
+    public void testSecondGetIsAHit(){
+        populate("first");
+        getOne(1, "first");
+        getOne(1, "first");
+        assert(handler.cacheMisses() == 1);
+        assert(handler.cacheHits() == 1);
+    }
+
+    @Test
+    public void testWritesInvalidate(){
+        populate("first");
+        getOne(1, "first");
+
+        webTestClient.post()
+                .uri(uriBuilder -> uriBuilder.path("/cached").queryParam("id",1).build())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CachedEntity(1L, "updated"))
+                .exchange()
+                .expectStatus().is2xxSuccessful();
+        getOne(1, "updated");
+
+        webTestClient.delete()
+                .uri(uriBuilder -> uriBuilder.path("/cached").queryParam("id",1).build())
+                .exchange()
+                .expectStatus().is2xxSuccessful();
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/cached").queryParam("id",1).build())
+                .exchange()
+                .expectStatus().is5xxServerError();
+        assert(handler.cacheHits() == 0);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted(){
+        populate("first");
+        populate("second");
+        populate("third");
+        getOne(1, "first");
+        getOne(2, "second");
+        getOne(1, "first");
+        getOne(3, "third");
+        assert(handler.cacheEvictions() == 1);
+        getOne(1, "first");
+        getOne(2, "second");
+        assert(handler.cacheHits() == 2);
+        assert(handler.cacheMisses() == 4);
+    }
+
+    @Test
+    public void testHitAnswersNotModified(){
+        populate("first");
+        String etag = webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/cached").queryParam("id",1).build())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/cached").queryParam("id",1).build())
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isNotModified();
+        assert(handler.cacheHits() == 1);
+    }
+
+    private void getOne(long id, String name){
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/cached").queryParam("id",id).build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON);
+                            responseSpec.expectBody().json("{\"id\":" + id + ",\"name\":\"" + name + "\"}", true);
+                        }
+                );
+    }
+
+    private void populate(String name){
+        webTestClient.put().uri("/cached").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CachedEntity(null, name)).exchange().expectStatus().is2xxSuccessful();
+    }
+}
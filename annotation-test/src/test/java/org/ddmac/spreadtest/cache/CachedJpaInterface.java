@@ -0,0 +1,8 @@
+package org.ddmac.spreadtest.cache;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Serializer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/cached", serializer = Serializer.JACKSON, cache = 2)
+public interface CachedJpaInterface extends JpaRepository<CachedEntity,Long> {}
@@ -0,0 +1,124 @@
+package org.ddmac.spreadtest.changes;
+
+import org.ddmac.spreadtest.changes.spread.ChangedEntitySpREADHandlerImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ChangeFeedEndpointTest {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ChangedEntitySpREADHandlerImpl handler;
+
+    @Test
+    public void testWritesAreStreamedAsEvents() throws Exception {
+        CompletableFuture<List<ServerSentEvent<Map<String, Object>>>> events = WebClient.create("http://localhost:" + port)
+                .get()
+                .uri("/changed/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<Map<String, Object>>>() { })
+                .filter((event) -> event.event() != null)
+                .take(3)
+                .collectList()
+                .timeout(Duration.ofSeconds(10))
+                .toFuture();
+        awaitSubscriber();
+
+        webTestClient.put().uri("/changed").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ChangedEntity(null, "first")).exchange().expectStatus().isOk();
+        webTestClient.patch()
+                .uri(uriBuilder -> uriBuilder.path("/changed").queryParam("id",1).build())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"patched\"}")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete()
+                .uri(uriBuilder -> uriBuilder.path("/changed").queryParam("id",1).build())
+                .exchange()
+                .expectStatus().isOk();
+
+        List<ServerSentEvent<Map<String, Object>>> received = events.get();
+        assertEquals(List.of("SAVED", "PATCHED", "DELETED"), received.stream().map(ServerSentEvent::event).toList());
+        assertEquals(List.of("1", "2", "3"), received.stream().map(ServerSentEvent::id).toList());
+        received.forEach((event) -> assertEquals(1, event.data().get("id")));
+    }
+
+    @Test
+    public void testNdjsonSkipsFailedWrites() throws Exception {
+        CompletableFuture<List<Map<String, Object>>> changes = WebClient.create("http://localhost:" + port)
+                .get()
+                .uri("/changed/changes")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<Map<String, Object>>() { })
+                .take(2)
+                .collectList()
+                .timeout(Duration.ofSeconds(10))
+                .toFuture();
+        awaitSubscriber();
+
+        webTestClient.delete()
+                .uri(uriBuilder -> uriBuilder.path("/changed").queryParam("id",404).build())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.put().uri("/changed/batch").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(new ChangedEntity(null, "first"), new ChangedEntity(null, "second")))
+                .exchange()
+                .expectStatus().isOk();
+
+        List<Map<String, Object>> received = changes.get();
+        assertEquals(List.of(1, 2), received.stream().map((change) -> change.get("id")).toList());
+        assertEquals(List.of(1, 2), received.stream().map((change) -> change.get("sequence")).toList());
+    }
+
+    /**
+     * The feed opens with a heartbeat, so a subscriber gets the status and headers before the first change.
+     */
+    @Test
+    public void testFeedAnswersBeforeTheFirstChange(){
+        for (MediaType type : List.of(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_NDJSON)) {
+            DataBuffer opening = WebClient.create("http://localhost:" + port)
+                    .get()
+                    .uri("/changed/changes")
+                    .accept(type)
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class)
+                    .blockFirst(Duration.ofSeconds(10));
+            assertNotNull(opening);
+            DataBufferUtils.release(opening);
+        }
+    }
+
+    private void awaitSubscriber(){
+        Flux.interval(Duration.ofMillis(10))
+                .filter((tick) -> handler.changeSubscribers() > 0)
+                .blockFirst(Duration.ofSeconds(10));
+    }
+}
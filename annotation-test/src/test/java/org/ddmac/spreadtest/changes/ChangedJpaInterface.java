@@ -0,0 +1,8 @@
+package org.ddmac.spreadtest.changes;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Serializer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/changed", serializer = Serializer.GSON, changes = 16)
+public interface ChangedJpaInterface extends JpaRepository<ChangedEntity,Long> {}
@@ -0,0 +1,74 @@
+package org.ddmac.spreadtest.coalesce;
+
+import org.ddmac.spreadtest.benchmark.SlowRead;
+import org.ddmac.spreadtest.coalesce.spread.CoalescedEntitySpREADHandlerImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class CoalescedEndpointTest {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CoalescedEntitySpREADHandlerImpl handler;
+
+    @Test
+    public void testConcurrentGetsShareOneLookup(){
+        jdbcTemplate.execute(SlowRead.ALIAS);
+        webTestClient.put().uri("/coalesced").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CoalescedEntity(null, "hot")).exchange().expectStatus().isOk();
+
+        WebClient client = WebClient.create("http://localhost:" + port);
+        List<String> bodies = Flux.range(0, 20)
+                .flatMap((i) -> client.get().uri("/coalesced?id=1").retrieve().bodyToMono(String.class), 20)
+                .collectList()
+                .block();
+
+        assertEquals(20, bodies.size());
+        assertTrue(bodies.stream().allMatch((body) -> body.equals(bodies.get(0)) && body.contains("\"hot\"")));
+        assertTrue(handler.coalescedJoins() > 0);
+    }
+
+    @Test
+    public void testFailedLookupLeavesTheTable(){
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/coalesced").queryParam("id",404).build())
+                .exchange()
+                .expectStatus().is5xxServerError();
+
+        jdbcTemplate.execute(SlowRead.ALIAS);
+        webTestClient.put().uri("/coalesced").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CoalescedEntity(null, "later")).exchange().expectStatus().isOk();
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/coalesced").queryParam("id",1).build())
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().isOk();
+                            responseSpec.expectBody().jsonPath("$.name").isEqualTo("later");
+                        }
+                );
+    }
+}
@@ -0,0 +1,8 @@
+package org.ddmac.spreadtest.coalesce;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Serializer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/coalesced", serializer = Serializer.JACKSON, coalesce = true)
+public interface CoalescedJpaInterface extends JpaRepository<CoalescedEntity,Long> {}
@@ -0,0 +1,8 @@
+package org.ddmac.spreadtest.codec;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Serializer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/codec", serializer = Serializer.GENERATED, cache = 16)
+public interface CodecJpaInterface extends JpaRepository<CodecEntity,Long> {}
@@ -0,0 +1,219 @@
+package org.ddmac.spreadtest.codec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+
+import java.util.List;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class GeneratedCodecEndpointTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    String body = """
+            {"name":"caf\\u00e9 \\"quoted\\" ✓ 😀","count":-42,"active":true,"score":1.5,
+             "color":"GREEN","reference":"0b6c2d8e-8a43-4c5e-9d0e-0c1c2f8a7a11","created":"2024-02-29",
+             "price":12.50,"small":null,"ratio":1.1,"secret":"hidden","unknown":{"nested":[1,2,{"x":null}]}}
+            """;
+
+    String expected = """
+            {"id":1,"name":"café \\"quoted\\" ✓ 😀","count":-42,"active":true,"score":1.5,
+             "color":"GREEN","reference":"0b6c2d8e-8a43-4c5e-9d0e-0c1c2f8a7a11","created":"2024-02-29",
+             "price":12.50,"small":null,"ratio":1.1}
+            """;
+
+    @Test
+    public void testPutAndGetOne(){
+        webTestClient.put()
+                .uri("/codec")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectBody().json(expected, true);
+                        }
+                );
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/codec").queryParam("id",1).build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectBody().json(expected, true);
+                        }
+                );
+    }
+
+    @Test
+    public void testGetAllArrayAndNdjson(){
+        populate(2);
+        webTestClient.get()
+                .uri("/codec")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectBody().json("[" + expected + "," + expected.replace("\"id\":1", "\"id\":2") + "]", true);
+                        }
+                );
+        webTestClient.get()
+                .uri("/codec")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectBody(String.class).value((lines) -> {
+                                assert(lines.split("\n").length == 2);
+                            });
+                        }
+                );
+    }
+
+    @Test
+    public void testPageUsesCodec(){
+        populate(3);
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/codec").queryParam("size",2).build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectBody().jsonPath("$.length()").isEqualTo(2);
+                        }
+                );
+    }
+
+    /**
+     * Jackson would coerce the quoted number, the generated codec is strict about it.
+     */
+    @Test
+    public void testFieldWithoutGetterIsLeftOut(){
+        webTestClient.put()
+                .uri("/codec")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectBody().jsonPath("$.secret").doesNotExist();
+                        }
+                );
+    }
+
+    @Test
+    public void testMalformedBodyIsRejected(){
+        for (String malformed : List.of(
+                "{\"count\":\"5\"}",
+                "{\"small\":70000}",
+                "{\"reference\":\"not-a-uuid\"}",
+                "{\"created\":\"2024-02-30\"}",
+                "{\"color\":\"BLUE\"}",
+                "{\"price\":1e}"
+        )) {
+            webTestClient.put()
+                    .uri("/codec")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(BodyInserters.fromValue(malformed))
+                    .exchange()
+                    .expectStatus().isBadRequest();
+        }
+    }
+
+    @Test
+    public void testPutBatchArrayAndNdjson(){
+        webTestClient.put()
+                .uri("/codec/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue("[" + body + ", " + body + "]")
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectBody().json("[" + expected + "," + expected.replace("\"id\":1", "\"id\":2") + "]", true);
+                        }
+                );
+        webTestClient.put()
+                .uri("/codec/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body.replace("\n", "") + "\n" + body.replace("\n", "") + "\n")
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().is2xxSuccessful();
+                            responseSpec.expectBody(String.class).value((lines) -> {
+                                assert(lines.split("\n").length == 2);
+                                assert(lines.contains("\"id\":4"));
+                            });
+                        }
+                );
+    }
+
+    /**
+     * The response is already streaming when the body turns out to be truncated, so the
+     * connection is closed instead of answering 400 and the unfinished chunk is never saved.
+     */
+    @Test
+    public void testTruncatedBatchIsNotSaved(){
+        webTestClient.put()
+                .uri("/codec/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[" + body + ", {\"name\":\"cut")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get()
+                .uri("/codec")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectBody().json("[]");
+    }
+
+    /**
+     * A body over the default 256KB in-memory limit is refused, whole for a single entity and per object in a batch.
+     */
+    @Test
+    public void testOversizedBodyIsNotSaved(){
+        String oversized = "{\"name\":\"" + "x".repeat(300 * 1024) + "\"}";
+        webTestClient.put()
+                .uri("/codec")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(oversized)
+                .exchange()
+                .expectStatus().value((status) -> {
+                    assert(status >= 400);
+                });
+        webTestClient.put()
+                .uri("/codec/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[" + oversized + "]")
+                .exchange();
+        webTestClient.get()
+                .uri("/codec")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectBody().json("[]");
+    }
+
+    private void populate(int count){
+        for (int i = 0; i < count; i++) {
+            webTestClient.put().uri("/codec").contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(body).exchange().expectStatus().is2xxSuccessful();
+        }
+    }
+}
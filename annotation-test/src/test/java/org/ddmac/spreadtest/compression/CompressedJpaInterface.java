@@ -0,0 +1,8 @@
+package org.ddmac.spreadtest.compression;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Serializer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/compressed", serializer = Serializer.GSON, compressionThreshold = 512)
+public interface CompressedJpaInterface extends JpaRepository<CompressedEntity,Long> {}
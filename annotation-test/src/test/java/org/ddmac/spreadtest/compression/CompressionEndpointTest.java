@@ -0,0 +1,128 @@
+package org.ddmac.spreadtest.compression;
+
+import com.google.gson.Gson;
+import org.ddmac.spreadtest.etag.VersionedEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class CompressionEndpointTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    public void testLargeGetAllIsGzipped(){
+        populate(50);
+        HttpResponse<byte[]> response = get("/compressed", "application/json", "br;q=1.0, gzip;q=0.8");
+        assert(response.statusCode() == 200);
+        assert(response.headers().firstValue("Content-Encoding").orElseThrow().equals("gzip"));
+        assert(response.headers().firstValue("Content-Length").isEmpty());
+        CompressedEntity[] entities = new Gson().fromJson(gunzip(response.body()), CompressedEntity[].class);
+        assert(entities.length == 50);
+        assert(entities[49].getName().equals("entity-49"));
+    }
+
+    @Test
+    public void testNdjsonIsDeflated(){
+        populate(50);
+        HttpResponse<byte[]> response = get("/compressed", "application/x-ndjson", "gzip;q=0, deflate");
+        assert(response.statusCode() == 200);
+        assert(response.headers().firstValue("Content-Encoding").orElseThrow().equals("deflate"));
+        assert(inflate(response.body()).split("\n").length == 50);
+    }
+
+    /**
+     * Jackson writes NDJSON as flushed elements, which are compressed whatever their size.
+     */
+    @Test
+    public void testFlushedNdjsonIsGzippedPerElement(){
+        for (int i = 0; i < 3; i++) {
+            webTestClient.put().uri("/versioned").contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new VersionedEntity(null, "entity-" + i, null)).exchange().expectStatus().is2xxSuccessful();
+        }
+        HttpResponse<byte[]> response = get("/versioned", "application/x-ndjson", "gzip");
+        assert(response.statusCode() == 200);
+        assert(response.headers().firstValue("Content-Encoding").orElseThrow().equals("gzip"));
+        assert(gunzip(response.body()).split("\n").length == 3);
+    }
+
+    @Test
+    public void testSmallOrUnacceptedResponsesAreNotCompressed(){
+        populate(1);
+        HttpResponse<byte[]> small = get("/compressed?id=1", "application/json", "gzip");
+        assert(small.statusCode() == 200);
+        assert(small.headers().firstValue("Content-Encoding").isEmpty());
+        assert(new String(small.body(), StandardCharsets.UTF_8).contains("entity-0"));
+
+        populate(49);
+        HttpResponse<byte[]> identity = get("/compressed", "application/json", "identity");
+        assert(identity.statusCode() == 200);
+        assert(identity.headers().firstValue("Content-Encoding").isEmpty());
+        assert(new Gson().fromJson(new String(identity.body(), StandardCharsets.UTF_8), CompressedEntity[].class).length == 50);
+    }
+
+    /**
+     * WebTestClient's connector negotiates and undoes compression itself, so the raw exchange goes through the JDK client.
+     */
+    private HttpResponse<byte[]> get(String path, String accept, String acceptEncoding){
+        try {
+            return HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                            .header("Accept", accept)
+                            .header("Accept-Encoding", acceptEncoding)
+                            .build(),
+                    HttpResponse.BodyHandlers.ofByteArray()
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String gunzip(byte[] body){
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String inflate(byte[] body){
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void populate(int count){
+        for (int i = 0; i < count; i++) {
+            webTestClient.put().uri("/compressed").contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new CompressedEntity(null, "entity-" + i)).exchange().expectStatus().is2xxSuccessful();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.ddmac.spreadtest.etag;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ETagEndpointTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    public void testGetOneUsesVersion(){
+        populate("first");
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/versioned").queryParam("id",1).build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().isOk();
+                            responseSpec.expectHeader().valueEquals("ETag", "W/\"0\"");
+                        }
+                );
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/versioned").queryParam("id",1).build())
+                .header("If-None-Match", "W/\"0\"")
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().isNotModified();
+                            responseSpec.expectBody().isEmpty();
+                        }
+                );
+
+        webTestClient.post()
+                .uri(uriBuilder -> uriBuilder.path("/versioned").queryParam("id",1).build())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new VersionedEntity(1L, "updated", 0L))
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/versioned").queryParam("id",1).build())
+                .header("If-None-Match", "W/\"0\"")
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().isOk();
+                            responseSpec.expectHeader().valueEquals("ETag", "W/\"1\"");
+                            responseSpec.expectBody().jsonPath("$.name").isEqualTo("updated");
+                        }
+                );
+    }
+
+    @Test
+    public void testGetAllIsNotModifiedUntilTheTableChanges(){
+        populate("first");
+        populate("second");
+
+        String etag = webTestClient.get()
+                .uri("/versioned")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+        assert(etag != null);
+
+        webTestClient.get()
+                .uri("/versioned")
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        populate("third");
+        webTestClient.get()
+                .uri("/versioned")
+                .header("If-None-Match", etag)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().isOk();
+                            responseSpec.expectBody().jsonPath("$.length()").isEqualTo(3);
+                        }
+                );
+    }
+
+    @Test
+    public void testGetAllETagFollowsUpdates(){
+        populate("first");
+        populate("second");
+
+        String etag = webTestClient.get()
+                .uri("/versioned")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+        assert(etag != null && etag.startsWith("W/"));
+
+        webTestClient.post()
+                .uri(uriBuilder -> uriBuilder.path("/versioned").queryParam("id",1).build())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new VersionedEntity(1L, "updated", 0L))
+                .exchange()
+                .expectStatus().isOk();
+        String updated = webTestClient.get()
+                .uri("/versioned")
+                .header("If-None-Match", etag)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+        assert(updated != null && !updated.equals(etag));
+
+        webTestClient.get()
+                .uri("/versioned")
+                .header("If-None-Match", updated)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    private void populate(String name){
+        webTestClient.put().uri("/versioned").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new VersionedEntity(null, name, null)).exchange().expectStatus().is2xxSuccessful();
+    }
+}
@@ -0,0 +1,45 @@
+package org.ddmac.spreadtest.etag;
+
+import jakarta.persistence.*;
+
+@Entity
+public class VersionedEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+    String name;
+    @Version
+    Long version;
+
+    public VersionedEntity(){}
+
+    public VersionedEntity(Long id, String name, Long version){
+        this.id = id;
+        this.name = name;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,8 @@
+package org.ddmac.spreadtest.etag;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Serializer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/versioned", serializer = Serializer.JACKSON, compressionThreshold = 512)
+public interface VersionedJpaInterface extends JpaRepository<VersionedEntity,Long> {}
@@ -0,0 +1,106 @@
+package org.ddmac.spreadtest.filter;
+
+import org.ddmac.spreadtest.etag.VersionedEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class FilterEndpointTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    public void populate(){
+        put(new FilteredEntity(null, "lamp", "lights", 30, "L-1"));
+        put(new FilteredEntity(null, "spot", "lights", 120, "L-2"));
+        put(new FilteredEntity(null, "desk", "tables", 120, "T-1"));
+    }
+
+    @Test
+    public void testFilterAll(){
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/filtered").queryParam("category", "lights").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("lamp")
+                .jsonPath("$[1].name").isEqualTo("spot");
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/filtered").queryParam("category", "lights").queryParam("price", 120).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("spot");
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/filtered").queryParam("sku", "L-1", "T-1").queryParam("fields", "name").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[{\"name\":\"lamp\"},{\"name\":\"desk\"}]", true);
+    }
+
+    @Test
+    public void testFilterPages(){
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/filtered").queryParam("price", 120).queryParam("size", 1).queryParam("sort", "name").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Total-Count", "2")
+                .expectBody().jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("desk");
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/filtered").queryParam("price", 120).queryParam("fields", "sku").queryParam("size", 5).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Total-Count", "2")
+                .expectBody().json("[{\"sku\":\"L-2\"},{\"sku\":\"T-1\"}]", true);
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/filtered").queryParam("category", "lights").queryParam("after", 1).queryParam("size", 5).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("spot");
+    }
+
+    @Test
+    public void testMalformedAndUnknownFilters(){
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/filtered").queryParam("price", "cheap").build())
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/filtered").queryParam("price", "cheap").queryParam("page", 0).build())
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/filtered").queryParam("name", "lamp").build())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void testUnindexedEntityIsNotFiltered(){
+        webTestClient.put().uri("/versioned").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new VersionedEntity(null, "first", null)).exchange().expectStatus().is2xxSuccessful();
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/versioned").queryParam("name", "first").build())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private void put(FilteredEntity entity){
+        webTestClient.put()
+                .uri("/filtered")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(entity)
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
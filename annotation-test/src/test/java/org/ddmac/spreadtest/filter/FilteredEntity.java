@@ -0,0 +1,69 @@
+package org.ddmac.spreadtest.filter;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(indexes = {
+        @Index(columnList = "category, price"),
+        @Index(columnList = "price")
+})
+public class FilteredEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+    String name;
+    String category;
+    int price;
+    @Column(unique = true)
+    String sku;
+
+    public FilteredEntity(){}
+
+    public FilteredEntity(Long id, String name, String category, int price, String sku){
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.price = price;
+        this.sku = sku;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public int getPrice() {
+        return price;
+    }
+
+    public void setPrice(int price) {
+        this.price = price;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+}
@@ -0,0 +1,8 @@
+package org.ddmac.spreadtest.filter;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Serializer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/filtered", serializer = Serializer.GSON)
+public interface FilteredJpaInterface extends JpaRepository<FilteredEntity,Long> {}
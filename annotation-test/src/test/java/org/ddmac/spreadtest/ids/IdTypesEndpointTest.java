@@ -0,0 +1,93 @@
+package org.ddmac.spreadtest.ids;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.UUID;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class IdTypesEndpointTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    public void testUuidId(){
+        UUID id = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+        put("/uuid", new UuidEntity(id, "first"));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/uuid").queryParam("id", id.toString()).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo("first");
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/uuid").queryParam("id", "0f8fad5b-d9cb-469f-a165-70867728950g").build())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete()
+                .uri(uriBuilder -> uriBuilder.path("/uuid").queryParam("id", id.toString()).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.Deleted").isEqualTo(id.toString());
+    }
+
+    @Test
+    public void testEmbeddedId(){
+        put("/orderlines", new OrderLineEntity(new OrderLineId(7L, 2), "lamp"));
+        put("/orderlines", new OrderLineEntity(new OrderLineId(7L, 3), "desk"));
+
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder.path("/orderlines").queryParam("id", "7,3").build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody().jsonPath("$.product").isEqualTo("desk");
+        }
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/orderlines").queryParam("id", "7").build())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete()
+                .uri(uriBuilder -> uriBuilder.path("/orderlines").queryParam("id", "7,3").build())
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/orderlines").queryParam("id", "7,3").build())
+                .exchange()
+                .expectStatus().is5xxServerError();
+    }
+
+    @Test
+    public void testIdClass(){
+        put("/shipments", new ShipmentEntity("dhl", 42L, "Oslo"));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/shipments").queryParam("id", "dhl,42").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.destination").isEqualTo("Oslo");
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/shipments").queryParam("id", "dhl,4x").build())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/shipments").queryParam("after", "dhl,42").build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private void put(String path, Object entity){
+        webTestClient.put()
+                .uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(entity)
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
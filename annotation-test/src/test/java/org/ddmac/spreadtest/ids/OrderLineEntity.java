@@ -0,0 +1,33 @@
+package org.ddmac.spreadtest.ids;
+
+import jakarta.persistence.*;
+
+@Entity
+public class OrderLineEntity {
+    @EmbeddedId
+    OrderLineId id;
+    String product;
+
+    public OrderLineEntity(){}
+
+    public OrderLineEntity(OrderLineId id, String product){
+        this.id = id;
+        this.product = product;
+    }
+
+    public OrderLineId getId() {
+        return id;
+    }
+
+    public void setId(OrderLineId id) {
+        this.id = id;
+    }
+
+    public String getProduct() {
+        return product;
+    }
+
+    public void setProduct(String product) {
+        this.product = product;
+    }
+}
@@ -0,0 +1,46 @@
+package org.ddmac.spreadtest.ids;
+
+import jakarta.persistence.Embeddable;
+
+import java.util.Objects;
+
+@Embeddable
+public class OrderLineId {
+    Long orderId;
+    Integer line;
+
+    public OrderLineId(){}
+
+    public OrderLineId(Long orderId, Integer line){
+        this.orderId = orderId;
+        this.line = line;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Integer getLine() {
+        return line;
+    }
+
+    public void setLine(Integer line) {
+        this.line = line;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof OrderLineId other
+                && Objects.equals(orderId, other.orderId)
+                && Objects.equals(line, other.line);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(orderId, line);
+    }
+}
@@ -0,0 +1,8 @@
+package org.ddmac.spreadtest.ids;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Serializer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/orderlines", serializer = Serializer.JACKSON, cache = 16)
+public interface OrderLineJpaInterface extends JpaRepository<OrderLineEntity, OrderLineId> {}
@@ -0,0 +1,45 @@
+package org.ddmac.spreadtest.ids;
+
+import jakarta.persistence.*;
+
+@Entity
+@IdClass(ShipmentId.class)
+public class ShipmentEntity {
+    @Id
+    String carrier;
+    @Id
+    Long number;
+    String destination;
+
+    public ShipmentEntity(){}
+
+    public ShipmentEntity(String carrier, Long number, String destination){
+        this.carrier = carrier;
+        this.number = number;
+        this.destination = destination;
+    }
+
+    public String getCarrier() {
+        return carrier;
+    }
+
+    public void setCarrier(String carrier) {
+        this.carrier = carrier;
+    }
+
+    public Long getNumber() {
+        return number;
+    }
+
+    public void setNumber(Long number) {
+        this.number = number;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+}
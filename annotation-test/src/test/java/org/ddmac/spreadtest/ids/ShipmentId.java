@@ -0,0 +1,43 @@
+package org.ddmac.spreadtest.ids;
+
+import java.util.Objects;
+
+public class ShipmentId {
+    String carrier;
+    Long number;
+
+    public ShipmentId(){}
+
+    public ShipmentId(String carrier, Long number){
+        this.carrier = carrier;
+        this.number = number;
+    }
+
+    public String getCarrier() {
+        return carrier;
+    }
+
+    public void setCarrier(String carrier) {
+        this.carrier = carrier;
+    }
+
+    public Long getNumber() {
+        return number;
+    }
+
+    public void setNumber(Long number) {
+        this.number = number;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ShipmentId other
+                && Objects.equals(carrier, other.carrier)
+                && Objects.equals(number, other.number);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(carrier, number);
+    }
+}
@@ -0,0 +1,8 @@
+package org.ddmac.spreadtest.ids;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Serializer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/shipments", serializer = Serializer.GSON)
+public interface ShipmentJpaInterface extends JpaRepository<ShipmentEntity, ShipmentId> {}
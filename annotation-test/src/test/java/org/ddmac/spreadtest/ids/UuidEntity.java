@@ -0,0 +1,35 @@
+package org.ddmac.spreadtest.ids;
+
+import jakarta.persistence.*;
+
+import java.util.UUID;
+
+@Entity
+public class UuidEntity {
+    @Id
+    UUID id;
+    String name;
+
+    public UuidEntity(){}
+
+    public UuidEntity(UUID id, String name){
+        this.id = id;
+        this.name = name;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,10 @@
+package org.ddmac.spreadtest.ids;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Serializer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+@SpREAD(path = "/uuid", serializer = Serializer.JACKSON)
+public interface UuidJpaInterface extends JpaRepository<UuidEntity, UUID> {}
@@ -0,0 +1,69 @@
+package org.ddmac.spreadtest.limit;
+
+import org.ddmac.spreadtest.benchmark.SlowRead;
+import org.ddmac.spreadtest.limit.spread.LimitedEntitySpREADHandlerImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class LimitedEndpointTest {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LimitedEntitySpREADHandlerImpl handler;
+
+    @Test
+    public void testExcessRequestsAreShed(){
+        jdbcTemplate.execute(SlowRead.ALIAS);
+        webTestClient.put().uri("/limited").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new LimitedEntity(null, "hot")).exchange().expectStatus().isOk();
+
+        WebClient client = WebClient.create("http://localhost:" + port);
+        List<Integer> statuses = Flux.range(0, 20)
+                .flatMap((i) -> client.get().uri("/limited?id=1").exchangeToMono((response) -> response.releaseBody()
+                        .thenReturn(response.statusCode().value())), 20)
+                .collectList()
+                .block();
+
+        assertEquals(20, statuses.size());
+        assertTrue(statuses.contains(200));
+        assertTrue(statuses.contains(429));
+        assertTrue(statuses.contains(503));
+        assertEquals(2, handler.routeLimit("getOneById"));
+    }
+
+    @Test
+    public void testUnlimitedRoutesAreNotShed(){
+        WebClient client = WebClient.create("http://localhost:" + port);
+        List<Integer> statuses = Flux.range(0, 20)
+                .flatMap((i) -> client.put().uri("/limited").contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new LimitedEntity(null, "cold"))
+                        .exchangeToMono((response) -> response.releaseBody().thenReturn(response.statusCode().value())), 20)
+                .collectList()
+                .block();
+
+        assertTrue(statuses.stream().allMatch((status) -> status == 200));
+    }
+}
@@ -0,0 +1,41 @@
+package org.ddmac.spreadtest.limit;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Formula;
+
+@Entity
+public class LimitedEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+    String name;
+    @Formula("SPREAD_PAUSE(200)")
+    int pause;
+
+    public LimitedEntity(){}
+
+    public LimitedEntity(Long id, String name){
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getPause() {
+        return pause;
+    }
+}
@@ -0,0 +1,9 @@
+package org.ddmac.spreadtest.limit;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Serializer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/limited", serializer = Serializer.JACKSON, concurrencyLimit = 2, limitQueueSize = 2,
+        limitTimeoutMillis = 100, limited = {"getOneById"})
+public interface LimitedJpaInterface extends JpaRepository<LimitedEntity,Long> {}
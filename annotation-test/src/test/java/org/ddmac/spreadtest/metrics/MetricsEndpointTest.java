@@ -0,0 +1,75 @@
+package org.ddmac.spreadtest.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.ddmac.spreadtest.filter.FilteredEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class MetricsEndpointTest {
+
+    @TestConfiguration
+    static class Registry {
+        @Bean
+        MeterRegistry meterRegistry(){
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testRoutesAreTimed(){
+        webTestClient.put()
+                .uri("/filtered")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new FilteredEntity(null, "lamp", "lights", 30, "L-1"))
+                .exchange()
+                .expectStatus().isOk();
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get()
+                    .uri("/filtered")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody().jsonPath("$[0].name").isEqualTo("lamp");
+        }
+
+        Timer requests = meterRegistry.get("spread.requests")
+                .tags("entity", "FilteredEntity", "path", "/filtered", "route", "getAll").timer();
+        assertEquals(2, requests.count());
+        assertTrue(requests.totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertEquals(1, meterRegistry.get("spread.repository").tags("path", "/filtered", "route", "put").timer().count());
+        assertTrue(meterRegistry.get("spread.response.bytes").tags("path", "/filtered", "route", "getAll").summary().totalAmount() > 0);
+        assertEquals(2, meterRegistry.get("spread.response.write").tags("path", "/filtered", "route", "getAll").timer().count());
+        assertEquals(0, meterRegistry.get("spread.errors").tags("path", "/filtered", "route", "getAll").counter().count());
+    }
+
+    @Test
+    public void testErrorsAreCounted(){
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/filtered").queryParam("id", 404).build())
+                .exchange()
+                .expectStatus().is5xxServerError();
+
+        assertEquals(1, meterRegistry.get("spread.errors").tags("path", "/filtered", "route", "getOneById").counter().count());
+        assertEquals(1, meterRegistry.get("spread.requests").tags("path", "/filtered", "route", "getOneById").timer().count());
+    }
+}
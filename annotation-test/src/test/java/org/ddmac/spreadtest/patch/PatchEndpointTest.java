@@ -0,0 +1,148 @@
+package org.ddmac.spreadtest.patch;
+
+import org.ddmac.spreadtest.TestEntity;
+import org.ddmac.spreadtest.etag.VersionedEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class PatchEndpointTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    public void testPatchChangesOnlyTheGivenFields(){
+        webTestClient.put().uri("/test").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TestEntity(null, "test", 7, true)).exchange().expectStatus().isOk();
+
+        webTestClient.patch()
+                .uri(uriBuilder -> uriBuilder.path("/test").queryParam("id",1).build())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"testString\":\"patched\"}")
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().isOk();
+                            responseSpec.expectBody().jsonPath("$.Patched").isEqualTo(1);
+                        }
+                );
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/test").queryParam("id",1).build())
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().isOk();
+                            responseSpec.expectBody()
+                                    .jsonPath("$.testString").isEqualTo("patched")
+                                    .jsonPath("$.testInt").isEqualTo(7)
+                                    .jsonPath("$.testBool").isEqualTo(true);
+                        }
+                );
+    }
+
+    @Test
+    public void testPatchRejectsBadBodies(){
+        webTestClient.put().uri("/test").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TestEntity(null, "test", 7, true)).exchange().expectStatus().isOk();
+
+        for (String body : new String[]{"{\"unknown\":1}", "{\"testInt\":null}", "{\"testInt\":\"seven\"}", "{\"id\":2,\"testInt\":1}", "{}", "[]"}) {
+            webTestClient.patch()
+                    .uri(uriBuilder -> uriBuilder.path("/test").queryParam("id",1).build())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(body)
+                    .exchange()
+                    .expectStatus().isBadRequest();
+        }
+        webTestClient.patch()
+                .uri(uriBuilder -> uriBuilder.path("/test").queryParam("id",404).build())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"testInt\":1}")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void testPatchDecodesWithTheGeneratedCodec(){
+        webTestClient.put().uri("/codec").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"lamp\",\"count\":1,\"color\":\"RED\"}").exchange().expectStatus().isOk();
+
+        webTestClient.patch()
+                .uri(uriBuilder -> uriBuilder.path("/codec").queryParam("id",1).build())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"count\":9,\"color\":\"GREEN\",\"price\":3.25}")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/codec").queryParam("id",1).build())
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().isOk();
+                            responseSpec.expectBody()
+                                    .jsonPath("$.name").isEqualTo("lamp")
+                                    .jsonPath("$.count").isEqualTo(9)
+                                    .jsonPath("$.color").isEqualTo("GREEN")
+                                    .jsonPath("$.price").isEqualTo(3.25);
+                        }
+                );
+
+        for (String body : new String[]{"{\"unknown\":1}", "{\"count\":null}", "{\"count\":\"nine\"}", "{\"small\":70000}", "{\"color\":\"BLUE\"}", "{}", "[]"}) {
+            webTestClient.patch()
+                    .uri(uriBuilder -> uriBuilder.path("/codec").queryParam("id",1).build())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(body)
+                    .exchange()
+                    .expectStatus().isBadRequest();
+        }
+    }
+
+    @Test
+    public void testPatchChecksTheVersion(){
+        webTestClient.put().uri("/versioned").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new VersionedEntity(null, "first", null)).exchange().expectStatus().isOk();
+
+        webTestClient.patch()
+                .uri(uriBuilder -> uriBuilder.path("/versioned").queryParam("id",1).build())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("If-Match", "W/\"0\"")
+                .bodyValue("{\"name\":\"second\"}")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.patch()
+                .uri(uriBuilder -> uriBuilder.path("/versioned").queryParam("id",1).build())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("If-Match", "W/\"0\"")
+                .bodyValue("{\"name\":\"stale\"}")
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        webTestClient.patch()
+                .uri(uriBuilder -> uriBuilder.path("/versioned").queryParam("id",1).build())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"stale\",\"version\":0}")
+                .exchange()
+                .expectStatus().isEqualTo(409);
+        webTestClient.patch()
+                .uri(uriBuilder -> uriBuilder.path("/versioned").queryParam("id",1).build())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"third\",\"version\":1}")
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/versioned").queryParam("id",1).build())
+                .exchange()
+                .expectAll(
+                        responseSpec -> {
+                            responseSpec.expectStatus().isOk();
+                            responseSpec.expectHeader().valueEquals("ETag", "W/\"2\"");
+                            responseSpec.expectBody().jsonPath("$.name").isEqualTo("third");
+                        }
+                );
+    }
+}
@@ -0,0 +1,54 @@
+package org.ddmac.spreadtest.projection;
+
+import jakarta.persistence.*;
+
+@Entity
+public class ProjectedEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+    String name;
+    int price;
+    String secret;
+
+    public ProjectedEntity(){}
+
+    public ProjectedEntity(Long id, String name, int price, String secret){
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.secret = secret;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getPrice() {
+        return price;
+    }
+
+    public void setPrice(int price) {
+        this.price = price;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+}
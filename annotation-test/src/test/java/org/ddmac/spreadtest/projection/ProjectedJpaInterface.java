@@ -0,0 +1,8 @@
+package org.ddmac.spreadtest.projection;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Serializer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/projected", serializer = Serializer.GENERATED, projectable = {"id", "name", "price"})
+public interface ProjectedJpaInterface extends JpaRepository<ProjectedEntity,Long> {}
@@ -0,0 +1,121 @@
+package org.ddmac.spreadtest.projection;
+
+import org.ddmac.spreadtest.TestEntity;
+import org.ddmac.spreadtest.etag.VersionedEntity;
+import org.ddmac.spreadtest.ids.ShipmentEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ProjectionEndpointTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    public void testFieldsOfAll(){
+        put("/projected", new ProjectedEntity(null, "lamp", 30, "supplier"));
+        put("/projected", new ProjectedEntity(null, "desk", 120, "supplier"));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/projected").queryParam("fields", "price,name").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .json("[{\"price\":30,\"name\":\"lamp\"},{\"price\":120,\"name\":\"desk\"}]", true);
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/projected").queryParam("fields", "name,name").build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("{\"name\":\"lamp\"}\n{\"name\":\"desk\"}\n");
+    }
+
+    @Test
+    public void testFieldsOfOne(){
+        put("/projected", new ProjectedEntity(null, "lamp", 30, "supplier"));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/projected").queryParam("id", 1).queryParam("fields", "name").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"name\":\"lamp\"}", true);
+        put("/shipments", new ShipmentEntity("dhl", 42L, "Oslo"));
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/shipments").queryParam("id", "dhl,42").queryParam("fields", "destination").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"destination\":\"Oslo\"}", true);
+    }
+
+    @Test
+    public void testUnknownFieldsAreRejected(){
+        put("/projected", new ProjectedEntity(null, "lamp", 30, "supplier"));
+
+        for (String fields : new String[]{"secret", "name,,price", "", "name,notAField"}) {
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder.path("/projected").queryParam("fields", fields).build())
+                    .exchange()
+                    .expectStatus().isBadRequest();
+        }
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/projected").queryParam("id", 1).queryParam("fields", "secret").build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testFieldsOfPages(){
+        put("/test", new TestEntity(null, "test", 0, true));
+        put("/test", new TestEntity(null, "test1", 0, false));
+        put("/test", new TestEntity(null, "test2", 1, false));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/test")
+                        .queryParam("fields", "testString")
+                        .queryParam("size", 2)
+                        .queryParam("sort", "id,desc")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Total-Count", "3")
+                .expectBody().json("[{\"testString\":\"test2\"},{\"testString\":\"test1\"}]", true);
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/test")
+                        .queryParam("fields", "testInt")
+                        .queryParam("after", 1)
+                        .queryParam("size", 1)
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Next-After", "2")
+                .expectBody().json("[{\"testInt\":0}]", true);
+    }
+
+    @Test
+    public void testFieldsWithJackson(){
+        put("/versioned", new VersionedEntity(null, "first", null));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/versioned").queryParam("fields", "name").build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("ETag")
+                .expectBody(String.class).isEqualTo("{\"name\":\"first\"}\n");
+    }
+
+    private void put(String path, Object entity){
+        webTestClient.put()
+                .uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(entity)
+                .exchange()
+                .expectStatus().is2xxSuccessful();
+    }
+}
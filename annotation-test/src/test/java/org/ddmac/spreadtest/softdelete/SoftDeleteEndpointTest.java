@@ -0,0 +1,39 @@
+package org.ddmac.spreadtest.softdelete;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class SoftDeleteEndpointTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testDeleteRunsTheMappedDelete(){
+        webTestClient.put().uri("/softdeleted").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new SoftDeletedEntity(null, "first")).exchange().expectStatus().is2xxSuccessful();
+
+        webTestClient.delete()
+                .uri(uriBuilder -> uriBuilder.path("/softdeleted").queryParam("id",1).build())
+                .exchange()
+                .expectStatus().is2xxSuccessful();
+        Integer kept = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM soft_deleted_entity WHERE id = 1 AND deleted = true", Integer.class);
+        assert(kept != null && kept == 1);
+
+        webTestClient.delete()
+                .uri(uriBuilder -> uriBuilder.path("/softdeleted").queryParam("id",1).build())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,8 @@
+package org.ddmac.spreadtest.softdelete;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Serializer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/softdeleted", serializer = Serializer.JACKSON)
+public interface SoftDeletedJpaInterface extends JpaRepository<SoftDeletedEntity,Long> {}
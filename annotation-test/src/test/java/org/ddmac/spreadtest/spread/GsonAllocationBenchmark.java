@@ -0,0 +1,76 @@
+package org.ddmac.spreadtest.spread;
+
+import com.google.gson.Gson;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.ddmac.spreadtest.TestEntity;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * Compares the bytes allocated per response by the old GSON write path,
+ * a new Gson and an intermediate String per call, with the generated handler's
+ * shared adapters writing into a pooled DataBuffer.
+ * Run with {@code gradle :annotation-test:benchmark}.
+ */
+@Tag("benchmark")
+public class GsonAllocationBenchmark {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    private final DataBufferFactory factory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private final TestEntity entity = new TestEntity(1L,"test",0,true);
+    private final List<TestEntity> entities = LongStream.range(0, 100)
+            .mapToObj((id) -> new TestEntity(id,"test" + id,(int) id,id % 2 == 0))
+            .toList();
+
+    @Test
+    void compareSingleEntity(){
+        report(
+                "single entity",
+                () -> factory.wrap(new Gson().toJson(entity).getBytes(StandardCharsets.UTF_8)),
+                () -> TestEntitySpREADHandlerImpl.encode(factory, TestEntitySpREADHandlerImpl.ENTITY_ADAPTER, entity, "", "")
+        );
+    }
+
+    @Test
+    void compareEntityList(){
+        report(
+                "100 entity list",
+                () -> factory.wrap(new Gson().toJson(entities).getBytes(StandardCharsets.UTF_8)),
+                () -> TestEntitySpREADHandlerImpl.encode(factory, TestEntitySpREADHandlerImpl.LIST_ADAPTER, entities, "", "")
+        );
+    }
+
+    private void report(String name, Supplier<DataBuffer> before, Supplier<DataBuffer> after){
+        System.out.printf(
+                "%-16s before=%d B/op after=%d B/op%n",
+                name,
+                allocatedPerOp(before),
+                allocatedPerOp(after)
+        );
+    }
+
+    private long allocatedPerOp(Supplier<DataBuffer> write){
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        for (int i = 0; i < WARMUP; i++) {
+            DataBufferUtils.release(write.get());
+        }
+        long start = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ITERATIONS; i++) {
+            DataBufferUtils.release(write.get());
+        }
+        return (threads.getThreadAllocatedBytes(thread) - start) / ITERATIONS;
+    }
+}
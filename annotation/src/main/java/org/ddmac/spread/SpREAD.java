@@ -1,5 +1,8 @@
 package org.ddmac.spread;
 
+import org.ddmac.spread.enums.Execution;
+import org.ddmac.spread.enums.Limit;
+import org.ddmac.spread.enums.Overflow;
 import org.ddmac.spread.enums.Serializer;
 
 import java.lang.annotation.*;
@@ -37,4 +40,174 @@ import java.lang.annotation.*;
      * @return Serializer
      */
     Serializer serializer() default Serializer.JACKSON;
+
+    /**
+     * Optional element used to cap the number of threads that run the blocking repository calls.
+     * Values below 1 fall back to Reactor's bounded elastic default (ten times the available processors).
+     *
+     * @return int
+     */
+    int schedulerThreads() default 0;
+
+    /**
+     * Optional element used to cap the number of repository calls allowed to wait for each scheduler thread,
+     * so up to schedulerThreads × schedulerQueueSize calls wait in total.
+     * Calls beyond the cap are rejected with 503 Service Unavailable.
+     * Values below 1 fall back to Reactor's bounded elastic default (100000 per thread).
+     *
+     * @return int
+     */
+    int schedulerQueueSize() default 0;
+
+    /**
+     * Optional element used to choose where blocking repository calls run.
+     *
+     * @return Execution
+     */
+    Execution execution() default Execution.BOUNDED_ELASTIC;
+
+    /**
+     * Optional element used to cap the number of repository calls in flight at once
+     * when running on virtual threads, protecting the JDBC connection pool.
+     * Values below 1 fall back to Reactor's bounded elastic default (ten times the available processors).
+     *
+     * @return int
+     */
+    int maxConcurrency() default 0;
+
+    /**
+     * Optional element used to set how many rows the streamed GET-all fetches per JDBC round-trip.
+     * Demand from the HTTP connection is requested upstream in batches of the same size.
+     *
+     * @return int
+     */
+    int fetchSize() default 256;
+
+    /**
+     * Optional element used to cap the page size clients may ask for with the size query parameter.
+     *
+     * @return int
+     */
+    int maxPageSize() default 100;
+
+    /**
+     * Optional element used to set how many entities of a batch PUT are saved per transaction.
+     *
+     * @return int
+     */
+    int chunkSize() default 500;
+
+    /**
+     * Optional element used to set how many statements of a batch PUT chunk are sent per JDBC batch.
+     *
+     * @return int
+     */
+    int batchSize() default 50;
+
+    /**
+     * Optional element used to set how many entities GET-by-id keeps, already serialized, in memory.
+     * Writes through the generated routes invalidate their entries. 0 disables the cache.
+     *
+     * @return int
+     */
+    int cache() default 0;
+
+    /**
+     * Optional element used to set how many seconds a cached GET-by-id response stays fresh.
+     *
+     * @return long
+     */
+    long cacheTtlSeconds() default 60;
+
+    /**
+     * Optional element used to make concurrent GET-by-id requests for the same id share one repository call and
+     * one serialized body. A request joins a lookup already in flight, so it can answer the row as it was when that
+     * lookup started.
+     *
+     * @return boolean
+     */
+    boolean coalesce() default false;
+
+    /**
+     * Optional element used to set how many changes each subscriber of the {@code {path}/changes} feed may fall
+     * behind by. The feed streams the ids saved, patched and deleted through the generated routes, as server-sent
+     * events or NDJSON. 0 disables the feed.
+     *
+     * @return int
+     */
+    int changes() default 0;
+
+    /**
+     * Optional element used to choose which changes a subscriber misses once it falls behind by a full buffer.
+     *
+     * @return Overflow
+     */
+    Overflow changesOverflow() default Overflow.LATEST;
+
+    /**
+     * Optional element used to cap the number of requests each limited route handles at once, from the moment it
+     * is admitted to the last byte of its response. 0 leaves every route unlimited.
+     *
+     * @return int
+     */
+    int concurrencyLimit() default 0;
+
+    /**
+     * Optional element used to choose whether limited routes keep the concurrency limit or adapt to it,
+     * based on how long their requests take.
+     *
+     * @return Limit
+     */
+    Limit limit() default Limit.FIXED;
+
+    /**
+     * Optional element used to cap the number of requests each limited route keeps waiting for a slot.
+     * Requests beyond the cap are rejected with 429 Too Many Requests.
+     *
+     * @return int
+     */
+    int limitQueueSize() default 0;
+
+    /**
+     * Optional element used to set how many milliseconds a request waits for a slot before it is rejected
+     * with 503 Service Unavailable. 0 waits until a slot frees.
+     *
+     * @return long
+     */
+    long limitTimeoutMillis() default 1000;
+
+    /**
+     * Optional element used to name the handler methods of the routes to limit, such as getAll or put, which is
+     * checked at compile time. Empty limits every route but the change feed, whose requests stay open.
+     *
+     * @return String[]
+     */
+    String[] limited() default {};
+
+    /**
+     * Optional element used to set the size in bytes from which responses are gzip or deflate compressed,
+     * when the client accepts it. 0 disables compression.
+     *
+     * @return int
+     */
+    int compressionThreshold() default 0;
+
+    /**
+     * Optional element used to name the fields clients may select with the fields query parameter of the GET routes.
+     * Each name must be a persistent field of the entity that is not an association, which is checked at compile time.
+     * Empty allows every such field.
+     *
+     * @return String[]
+     */
+    String[] projectable() default {};
+
+    /**
+     * Optional element used to name the fields the GET-all and paged GET routes filter on, each given as a
+     * query parameter equal to one of the field's values. Each name must be a persistent field of the entity
+     * that starts an @Index of its @Table or is a unique column, which is checked at compile time.
+     * Empty filters on every such field.
+     *
+     * @return String[]
+     */
+    String[] filterable() default {};
 }
\ No newline at end of file
@@ -1,19 +1,40 @@
 package org.ddmac.spread;
 
+import org.ddmac.spread.enums.Execution;
+import org.ddmac.spread.enums.Limit;
+import org.ddmac.spread.enums.Overflow;
+import org.ddmac.spread.codec.CodecGenerator;
 import org.ddmac.spread.enums.Serializer;
+import org.ddmac.spread.repositorydata.FieldData;
 import org.ddmac.spread.repositorydata.RepositoryData;
+import org.ddmac.spread.template.Fragment;
+import org.ddmac.spread.template.Route;
+import org.ddmac.spread.template.SourceFile;
 
 import javax.annotation.processing.*;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
 import java.io.IOException;
-import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 
 /**
@@ -26,9 +47,150 @@ import java.util.Set;
 public class SpREADProcessor extends AbstractProcessor {
 
     private final String JPA_FQN = "org.springframework.data.jpa.repository.JpaRepository";
+    private final String METER_REGISTRY_FQN = "io.micrometer.core.instrument.MeterRegistry";
     private final String ROUTER_SUFFIX = "SpREADRouterImpl";
     private final String HANDLER_SUFFIX = "SpREADHandlerImpl";
     private final String PACKAGE_SUFFIX = ".spread";
+    private final Set<String> ID_ANNOTATIONS = Set.of(
+            "jakarta.persistence.Id",
+            "jakarta.persistence.EmbeddedId",
+            "javax.persistence.Id",
+            "javax.persistence.EmbeddedId"
+    );
+    private final Set<String> EMBEDDED_ID_ANNOTATIONS = Set.of(
+            "jakarta.persistence.EmbeddedId",
+            "javax.persistence.EmbeddedId"
+    );
+    private final Set<String> ID_CLASS_ANNOTATIONS = Set.of(
+            "jakarta.persistence.IdClass",
+            "javax.persistence.IdClass"
+    );
+    private final Set<String> VERSION_ANNOTATIONS = Set.of(
+            "jakarta.persistence.Version",
+            "javax.persistence.Version"
+    );
+    private final Set<String> TRANSIENT_ANNOTATIONS = Set.of(
+            "jakarta.persistence.Transient",
+            "javax.persistence.Transient"
+    );
+    private final Set<String> REMOVAL_ANNOTATIONS = Set.of(
+            "jakarta.persistence.PreRemove",
+            "jakarta.persistence.PostRemove",
+            "jakarta.persistence.EntityListeners",
+            "javax.persistence.PreRemove",
+            "javax.persistence.PostRemove",
+            "javax.persistence.EntityListeners",
+            "org.hibernate.annotations.SQLDelete",
+            "org.hibernate.annotations.SoftDelete",
+            "org.hibernate.annotations.SQLRestriction",
+            "org.hibernate.annotations.Where"
+    );
+    private final Set<String> UPDATE_ANNOTATIONS = Set.of(
+            "jakarta.persistence.PreUpdate",
+            "jakarta.persistence.PostUpdate",
+            "jakarta.persistence.EntityListeners",
+            "javax.persistence.PreUpdate",
+            "javax.persistence.PostUpdate",
+            "javax.persistence.EntityListeners"
+    );
+    private final Set<String> ASSOCIATION_ANNOTATIONS = Set.of(
+            "jakarta.persistence.OneToOne",
+            "jakarta.persistence.OneToMany",
+            "jakarta.persistence.ManyToOne",
+            "jakarta.persistence.ManyToMany",
+            "jakarta.persistence.ElementCollection",
+            "javax.persistence.OneToOne",
+            "javax.persistence.OneToMany",
+            "javax.persistence.ManyToOne",
+            "javax.persistence.ManyToMany",
+            "javax.persistence.ElementCollection"
+    );
+    private final Set<String> TABLE_ANNOTATIONS = Set.of(
+            "jakarta.persistence.Table",
+            "javax.persistence.Table"
+    );
+    private final Set<String> COLUMN_ANNOTATIONS = Set.of(
+            "jakarta.persistence.Column",
+            "javax.persistence.Column"
+    );
+    private final Set<String> RESERVED_PARAMS = Set.of("id", "fields", "page", "size", "sort", "after");
+    private final List<String> ROUTE_IMPORTS = List.of(
+            "org.springframework.http.MediaType",
+            "org.springframework.web.reactive.function.BodyInserters",
+            "org.springframework.web.reactive.function.server.ServerRequest",
+            "org.springframework.web.reactive.function.server.ServerResponse",
+            "reactor.core.publisher.Flux",
+            "reactor.core.publisher.Mono",
+            "java.util.concurrent.RejectedExecutionException"
+    );
+    private final List<String> METRICS_IMPORTS = List.of(
+            "io.micrometer.core.instrument.Counter",
+            "io.micrometer.core.instrument.DistributionSummary",
+            "io.micrometer.core.instrument.MeterRegistry",
+            "io.micrometer.core.instrument.Tags",
+            "io.micrometer.core.instrument.Timer",
+            "org.reactivestreams.Publisher",
+            "org.springframework.beans.factory.ObjectProvider",
+            "org.springframework.beans.factory.annotation.Autowired",
+            "org.springframework.core.io.buffer.DataBuffer",
+            "org.springframework.http.HttpHeaders",
+            "org.springframework.http.HttpStatusCode",
+            "org.springframework.http.ResponseCookie",
+            "org.springframework.http.server.reactive.ServerHttpResponse",
+            "org.springframework.http.server.reactive.ServerHttpResponseDecorator",
+            "org.springframework.util.MultiValueMap",
+            "org.springframework.web.reactive.function.server.HandlerFunction",
+            "org.springframework.web.reactive.function.server.ServerResponse",
+            "org.springframework.web.server.ServerWebExchange",
+            "reactor.core.publisher.Flux",
+            "reactor.core.publisher.Mono",
+            "reactor.core.publisher.SignalType",
+            "java.util.concurrent.TimeUnit"
+    );
+    private final List<String> LIMITER_IMPORTS = List.of(
+            "org.springframework.http.HttpHeaders",
+            "org.springframework.http.HttpStatus",
+            "org.springframework.http.HttpStatusCode",
+            "org.springframework.http.ResponseCookie",
+            "org.springframework.util.MultiValueMap",
+            "org.springframework.web.reactive.function.server.HandlerFunction",
+            "org.springframework.web.reactive.function.server.ServerResponse",
+            "org.springframework.web.server.ServerWebExchange",
+            "reactor.core.publisher.Mono",
+            "reactor.core.publisher.MonoSink",
+            "reactor.core.publisher.SignalType",
+            "java.time.Duration",
+            "java.util.ArrayDeque",
+            "java.util.ArrayList",
+            "java.util.HashMap",
+            "java.util.List",
+            "java.util.Map",
+            "java.util.concurrent.atomic.AtomicBoolean"
+    );
+    private final List<String> COMPRESSION_IMPORTS = List.of(
+            "org.reactivestreams.Publisher",
+            "org.springframework.core.io.buffer.DataBuffer",
+            "org.springframework.core.io.buffer.DataBufferFactory",
+            "org.springframework.core.io.buffer.DataBufferUtils",
+            "org.springframework.http.HttpHeaders",
+            "org.springframework.http.HttpStatusCode",
+            "org.springframework.http.ResponseCookie",
+            "org.springframework.http.server.reactive.ServerHttpResponse",
+            "org.springframework.http.server.reactive.ServerHttpResponseDecorator",
+            "org.springframework.util.MultiValueMap",
+            "org.springframework.web.reactive.function.server.HandlerFunction",
+            "org.springframework.web.reactive.function.server.ServerRequest",
+            "org.springframework.web.reactive.function.server.ServerResponse",
+            "org.springframework.web.server.ServerWebExchange",
+            "reactor.core.publisher.Flux",
+            "reactor.core.publisher.Mono",
+            "java.nio.ByteBuffer",
+            "java.util.ArrayList",
+            "java.util.List",
+            "java.util.Locale",
+            "java.util.zip.CRC32",
+            "java.util.zip.Deflater"
+    );
 
     @Override
     public synchronized void init(ProcessingEnvironment processingEnv) {
@@ -37,223 +199,3462 @@ public class SpREADProcessor extends AbstractProcessor {
 
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
-        Set<Element> elements = new HashSet<>();
-        annotations.forEach((annotation) -> {
-            elements.addAll(roundEnv.getElementsAnnotatedWith(annotation));
-        });
+        for (Element element : roundEnv.getElementsAnnotatedWith(SpREAD.class)) {
+            if (element.getKind().isInterface()) {
+                    if (doesAnnotatedClassInheritJpaRepo(element)) {
+                        RepositoryData data = repositoryDataFromElement(element);
+                        if (!isIdValid(data, element) || !isProjectionValid(data, element)
+                                || !isFilterValid(data, element) || !isLimitValid(data, element)) {
+                            continue;
+                        }
+                        generateRouter(data, element);
+                        generateHandler(data, element);
+                        if (data.serializer() == Serializer.GENERATED) {
+                            new CodecGenerator(processingEnv).generate(data, element);
+                        }
+                    }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the router file, a component holding the repository's path and routes.
+     * It imports SpREADRouterConfiguration, whose one router bean dispatches to the routes of every repository,
+     * so no generated file depends on more than its own repository.
+     *
+     * @param rd RepositoryData: Record containing metadata needed to generate the Router.
+     * @param element The annotated interface, recorded as the file's only originating element.
+     */
+    private void generateRouter(RepositoryData rd, Element element) {
+        String routerClassName = rd.entityName() + ROUTER_SUFFIX;
+        SourceFile file = new SourceFile(
+                rd.interfacePackage() + PACKAGE_SUFFIX,
+                routerClassName,
+                "@Component\n@Import(SpREADRouterConfiguration.class)\npublic class " + routerClassName + " implements SpREADRoutes",
+                "org.ddmac.spread.route.SpREADRouterConfiguration",
+                "org.ddmac.spread.route.SpREADRoutes",
+                "org.springframework.context.annotation.Import",
+                "org.springframework.stereotype.Component"
+        )
+                .addStaticImport("org.springframework.web.reactive.function.server.RequestPredicates.*")
+                .add(Fragment.of(getRouter(rd),
+                        "org.springframework.web.reactive.function.server.RouterFunction",
+                        "org.springframework.web.reactive.function.server.RouterFunctions",
+                        "org.springframework.web.reactive.function.server.ServerResponse"))
+                .add(Fragment.of(getPredicates(rd),
+                        "org.springframework.web.reactive.function.server.RequestPredicate",
+                        "java.util.List",
+                        "java.util.Map",
+                        "java.util.Set"));
+        write(file, element);
+    }
+
+    /**
+     * Helper function to generate the router's path and routes.
+     * Registers every route of getRoutes, so the router always matches the handler generated beside it.
+     *
+     * @param rd RepositoryData: Record containing metadata needed to generate the Router.
+     * @return String to write to the generated classes.
+     */
+    private String getRouter(RepositoryData rd){
+        String routerClassName = rd.entityName() + ROUTER_SUFFIX;
+        String handlerClassName = rd.entityName() + HANDLER_SUFFIX;
+        List<Route> routes = getRoutes(rd);
+        StringBuilder body = new StringBuilder()
+                .append("   private String path =\"").append(rd.reqPath()).append("\";\n\n")
+                .append("   private final ").append(handlerClassName).append(" handler;\n\n")
+                .append("   public ").append(routerClassName).append("(").append(handlerClassName).append(" handler){\n")
+                .append("       this.handler = handler;\n")
+                .append("   }\n\n")
+                .append("   @Override\n")
+                .append("   public String path(){\n")
+                .append("       return path;\n")
+                .append("   }\n\n")
+                .append("   @Override\n")
+                .append("   public RouterFunction<ServerResponse> routes(){\n")
+                .append("       return RouterFunctions");
+        for (int i = 0; i < routes.size(); i++) {
+            body.append("\n           ").append(routes.get(i).registration(i == 0, rd.metrics(), isLimited(rd, routes.get(i))));
+        }
+        return body.append(rd.compressionThreshold() > 0 ? "\n           .filter(handler::compress)" : "")
+                .append(";\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the predicates for the router.
+     * The id is parsed once, by the handler's parser and without exceptions, and left as an exchange attribute
+     * for the handler. Path predicates hand the next predicate a copy of the request attributes, so the id goes
+     * on the exchange itself. The query map is parsed once per request by the exchange, so the other checks only read it.
+     * GET-all takes no query parameter but fields, which every GET route accepts, and the filterable fields.
+     * Routes below the path join it with one slash, so the default "/" path gives "/batch" rather than "//batch".
+     *
+     * @param rd RepositoryData: Record containing the entity name.
+     * @return String to write to the generated classes.
+     */
+    private String getPredicates(RepositoryData rd){
+        String handlerClassName = rd.entityName() + HANDLER_SUFFIX;
+        List<String> listParams = new ArrayList<>(List.of("fields"));
+        listParams.addAll(rd.filterable());
+        return new StringBuilder()
+                .append("   private static final Set<String> LIST_PARAMS = Set.of(")
+                .append(listParams.stream().map((param) -> "\"" + param + "\"").collect(Collectors.joining(", ")))
+                .append(");\n\n")
+                .append("   private String subPath(String segment){\n")
+                .append("       return this.path.endsWith(\"/\") ? this.path + segment : this.path + \"/\" + segment;\n")
+                .append("   }\n\n")
+                .append("   private RequestPredicate validId(){\n")
+                .append("       return (request) -> {\n")
+                .append("           String value = request.queryParams().getFirst(\"id\");\n")
+                .append("           Object id = value == null ? null : ").append(handlerClassName).append(".parseId(value);\n")
+                .append("           if (id == null) {\n")
+                .append("               return false;\n")
+                .append("           }\n")
+                .append("           request.exchange().getAttributes().put(").append(handlerClassName).append(".ID_ATTRIBUTE, id);\n")
+                .append("           return true;\n")
+                .append("       };\n")
+                .append("   }\n\n")
+                .append("   private RequestPredicate listQuery(){\n")
+                .append("       return (request) -> LIST_PARAMS.containsAll(request.queryParams().keySet());\n")
+                .append("   }\n\n")
+                .append("   private RequestPredicate pageQuery(){\n")
+                .append("       return (request) -> {\n")
+                .append("           Map<String, List<String>> queryParams = request.queryParams();\n")
+                .append("           return queryParams.containsKey(\"page\")\n")
+                .append("               || queryParams.containsKey(\"size\")\n")
+                .append("               || queryParams.containsKey(\"sort\")\n")
+                .append("               || queryParams.containsKey(\"after\");\n")
+                .append("       };\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Creates the handler file.
+     * Shared members come first, then the members of each route, then the helpers the routes share.
+     *
+     * @param rd RepositoryData: Record containing metadata needed to generate the Router.
+     * @param element The annotated interface, recorded as the file's only originating element.
+     */
+    private void generateHandler(RepositoryData rd, Element element) {
+        String handlerClassName = rd.entityName() + HANDLER_SUFFIX;
+        SourceFile file = new SourceFile(
+                rd.interfacePackage() + PACKAGE_SUFFIX,
+                handlerClassName,
+                "@Component\npublic class " + handlerClassName + " implements DisposableBean",
+                "org.springframework.stereotype.Component",
+                "org.springframework.beans.factory.DisposableBean"
+        )
+                .add(Fragment.of(getHandlerFields(rd),
+                        rd.interfacePackage() + "." + rd.repoSimpleName(),
+                        "org.springframework.beans.factory.annotation.Autowired",
+                        "jakarta.persistence.EntityManagerFactory",
+                        "org.springframework.transaction.PlatformTransactionManager"))
+                .add(Fragment.of(getIdParser(rd), "org.springframework.web.reactive.function.server.ServerRequest"))
+                .add(Fragment.of(getPageConstants(rd), "java.util.Set"))
+                .add(Fragment.of(getProjection(rd), getProjectionImports(rd,
+                        "jakarta.persistence.criteria.CriteriaQuery",
+                        "jakarta.persistence.criteria.Root",
+                        "jakarta.persistence.criteria.Selection",
+                        "org.springframework.core.ParameterizedTypeReference",
+                        rd.interfacePackage() + "." + rd.entityName(),
+                        "java.util.ArrayList",
+                        "java.util.LinkedHashMap")))
+                .add(Fragment.of(getFilters(rd),
+                        "jakarta.persistence.EntityManager",
+                        "jakarta.persistence.criteria.CriteriaBuilder",
+                        "jakarta.persistence.criteria.CriteriaQuery",
+                        "jakarta.persistence.criteria.Predicate",
+                        "jakarta.persistence.criteria.Root",
+                        "org.springframework.data.domain.Page",
+                        "org.springframework.data.domain.PageImpl",
+                        "org.springframework.data.domain.PageRequest",
+                        "org.springframework.data.jpa.repository.query.QueryUtils",
+                        "org.springframework.util.MultiValueMap",
+                        "org.springframework.web.reactive.function.server.ServerRequest",
+                        rd.interfacePackage() + "." + rd.entityName(),
+                        "java.util.ArrayList",
+                        "java.util.LinkedHashMap",
+                        "java.util.List",
+                        "java.util.Map",
+                        "java.util.function.Function"))
+                .add(Fragment.of(getScheduler(rd),
+                        "reactor.core.scheduler.Scheduler",
+                        "reactor.core.scheduler.Schedulers",
+                        "java.util.concurrent.Executors",
+                        "java.util.concurrent.Semaphore"))
+                .add(Fragment.of(getSerializerMembers(rd), getSerializerImports(rd.serializer())))
+                .add(Fragment.of(getToBytes(rd), getRouteImports(rd,
+                        "org.springframework.core.io.buffer.DataBuffer",
+                        "org.springframework.core.io.buffer.DataBufferUtils",
+                        "org.springframework.core.io.buffer.DefaultDataBufferFactory")))
+                .add(Fragment.of(getETag(rd), getRouteImports(rd,
+                        "org.springframework.core.io.buffer.DataBuffer",
+                        "java.util.zip.CRC32C")))
+                .add(Fragment.of(getCacheMembers(rd),
+                        "java.util.LinkedHashMap",
+                        "java.util.Map",
+                        "java.util.concurrent.atomic.LongAdder"))
+                .add(Fragment.of(getChangeFeed(rd), getRouteImports(rd,
+                        "reactor.core.publisher.Sinks")))
+                .add(Fragment.of(getCoalescing(rd),
+                        "reactor.core.publisher.Mono",
+                        "java.util.concurrent.Callable",
+                        "java.util.concurrent.CompletableFuture",
+                        "java.util.concurrent.ConcurrentHashMap",
+                        "java.util.concurrent.atomic.LongAdder"))
+                .add(Fragment.of(getCompression(rd), COMPRESSION_IMPORTS))
+                .add(Fragment.of(getMetrics(rd), METRICS_IMPORTS))
+                .add(Fragment.of(getLimiter(rd), LIMITER_IMPORTS));
+
+        for (Route route : getRoutes(rd)) {
+            file.add(route.body());
+        }
+
+        file.add(Fragment.of(getBlocking(rd.execution(), rd.metrics()),
+                        "reactor.core.publisher.Mono",
+                        "java.util.concurrent.Callable"))
+                .add(Fragment.of(getStreaming(rd.execution()),
+                        "jakarta.persistence.EntityManager",
+                        "reactor.core.publisher.Flux",
+                        "java.util.function.Function",
+                        "java.util.stream.Stream"))
+                .add(Fragment.of(getPageParams(),
+                        "org.springframework.data.domain.Sort",
+                        "org.springframework.web.reactive.function.server.ServerRequest",
+                        "java.util.List",
+                        "java.util.Optional"))
+                .add(Fragment.of(getNegotiation(),
+                        "org.springframework.http.MediaType",
+                        "org.springframework.web.reactive.function.server.ServerRequest"))
+                .add(Fragment.of(getErrorResponses(rd), getRouteImports(rd,
+                        "org.springframework.http.HttpStatus",
+                        "java.util.Map")))
+                .add(Fragment.of("   @Override\n"
+                        + "   public void destroy(){\n"
+                        + (rd.changes() > 0 ? "       changeFeed.tryEmitComplete();\n" : "")
+                        + "       scheduler.dispose();\n"
+                        + "   }\n\n"));
+        write(file, element);
+    }
+
+    /**
+     * Writes a generated file.
+     *
+     * @param file SourceFile to write.
+     * @param element The annotated interface, recorded as the file's only originating element.
+     */
+    private void write(SourceFile file, Element element) {
+        try {
+            file.writeTo(processingEnv.getFiler(), element);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Lists the routes of a repository, in the order the router tries them.
+     * Each route carries the handler members implementing it, so adding a route touches this list only.
+     *
+     * @param rd RepositoryData: Record containing metadata needed to generate the routes.
+     * @return The repository's routes.
+     */
+    private List<Route> getRoutes(RepositoryData rd) {
+        List<Route> routes = new ArrayList<>(List.of(
+                new Route("GET(this.path).and(listQuery())", "getAll",
+                        Fragment.of(getAll(rd) + getAllFields(rd), getRouteImports(rd, getProjectionImports(rd,
+                                "jakarta.persistence.EntityManager",
+                                "jakarta.persistence.EntityTransaction",
+                                "jakarta.persistence.criteria.CriteriaBuilder",
+                                "jakarta.persistence.criteria.CriteriaQuery",
+                                "jakarta.persistence.criteria.Root",
+                                "org.springframework.http.server.reactive.ServerHttpResponse",
+                                "org.springframework.web.reactive.function.BodyInserter",
+                                "java.nio.charset.StandardCharsets",
+                                "java.util.Arrays",
+                                "java.util.Iterator",
+                                "java.util.concurrent.atomic.AtomicReference",
+                                "java.util.function.Function",
+                                "java.util.stream.Stream",
+                                "java.util.zip.CRC32C")))),
+                new Route("GET(this.path).and(validId())", "getOneById",
+                        Fragment.of(getOneById(rd) + getOneFields(rd), getRouteImports(rd,
+                                "jakarta.persistence.EntityManager",
+                                "jakarta.persistence.Tuple",
+                                "jakarta.persistence.criteria.CriteriaBuilder",
+                                "jakarta.persistence.criteria.CriteriaQuery",
+                                "jakarta.persistence.criteria.Root",
+                                "org.springframework.core.io.buffer.DataBuffer",
+                                "org.springframework.core.io.buffer.DataBufferUtils",
+                                "java.util.List",
+                                "java.util.Map"))),
+                new Route("GET(this.path).and(pageQuery())", "getPage",
+                        Fragment.of(getPage(rd) + getPageFields(rd) + getKeyset(rd) + getKeysetFields(rd),
+                                getRouteImports(rd, getProjectionImports(rd,
+                                        "jakarta.persistence.EntityManager",
+                                        "jakarta.persistence.criteria.CriteriaBuilder",
+                                        "jakarta.persistence.criteria.CriteriaQuery",
+                                        "jakarta.persistence.criteria.Root",
+                                        "org.springframework.data.domain.PageImpl",
+                                        "org.springframework.data.domain.PageRequest",
+                                        "org.springframework.data.domain.Sort",
+                                        "org.springframework.data.jpa.repository.query.QueryUtils",
+                                        "java.util.ArrayList",
+                                        "java.util.Optional")))),
+                new Route("POST(this.path).and(validId())", "postById",
+                        Fragment.of(getSave(rd, "postById"), getRouteImports(rd))),
+                new Route("PUT(this.path)", "put",
+                        Fragment.of(getSave(rd, "put"), getRouteImports(rd))),
+                new Route("PUT(subPath(\"batch\"))", "putBatch",
+                        Fragment.of(getPutBatch(rd) + getSaveChunk(rd), getRouteImports(rd,
+                                "org.hibernate.Session",
+                                "org.springframework.orm.jpa.EntityManagerFactoryUtils",
+                                "org.springframework.transaction.support.TransactionTemplate",
+                                "java.util.List"))),
+                new Route("DELETE(this.path).and(validId())", "deleteById",
+                        Fragment.of(getDeleteById(rd) + getDelete(rd), getRouteImports(rd,
+                                "jakarta.persistence.EntityManager",
+                                "jakarta.persistence.criteria.CriteriaBuilder",
+                                "jakarta.persistence.criteria.CriteriaDelete",
+                                "jakarta.persistence.criteria.Root",
+                                "org.springframework.orm.jpa.EntityManagerFactoryUtils",
+                                "org.springframework.transaction.support.TransactionTemplate",
+                                "java.util.Map")))
+        ));
+        if (rd.changes() > 0) {
+            routes.add(new Route("GET(subPath(\"changes\"))", "changes",
+                    Fragment.of(getChanges(rd), getRouteImports(rd,
+                            "org.springframework.core.ResolvableType",
+                            "org.springframework.core.codec.Encoder",
+                            "org.springframework.core.io.buffer.DataBufferFactory",
+                            "org.springframework.http.codec.EncoderHttpMessageWriter",
+                            "org.springframework.http.codec.ServerSentEvent",
+                            "org.springframework.web.reactive.function.BodyInserter",
+                            "reactor.core.publisher.BufferOverflowStrategy",
+                            "java.time.Duration",
+                            "java.util.List",
+                            "java.util.Map"))));
+        }
+        if (!rd.patchable().isEmpty()) {
+            routes.add(new Route("PATCH(this.path).and(validId())", "patchById",
+                    Fragment.of(getPatch(rd), getRouteImports(rd, getPatchImports(rd)))));
+        }
+        return routes;
+    }
+
+    /**
+     * Lists the types a handler method refers to: the entity, the reactive and functional web types
+     * every route uses, and the given ones.
+     *
+     * @param rd RepositoryData: Record containing the entity.
+     * @param types Further fully qualified types the method refers to.
+     * @return Fully qualified names to import.
+     */
+    private List<String> getRouteImports(RepositoryData rd, String... types) {
+        List<String> imports = new ArrayList<>(ROUTE_IMPORTS);
+        imports.add(rd.interfacePackage() + "." + rd.entityName());
+        imports.addAll(List.of(types));
+        return imports;
+    }
+
+    /**
+     * Whether the router registers a route through the handler's limiter.
+     * Without named routes every route is limited but the change feed, whose requests would hold a slot for as
+     * long as the client listens.
+     *
+     * @param rd RepositoryData: Record containing the user's concurrency limit and limited routes.
+     * @param route Route to register.
+     * @return Whether the route is limited.
+     */
+    private boolean isLimited(RepositoryData rd, Route route) {
+        if (rd.concurrencyLimit() <= 0) {
+            return false;
+        }
+        return rd.limited().isEmpty() ? !route.handler().equals("changes") : rd.limited().contains(route.handler());
+    }
+
+    /**
+     * Helper function to generate the handler's injected collaborators and its fixed sizes.
+     *
+     * @param rd RepositoryData: Record containing the repository and the user's sizes.
+     * @return String to write to the generated classes.
+     */
+    private String getHandlerFields(RepositoryData rd){
+        return new StringBuilder()
+                .append("   @Autowired\n")
+                .append("   ").append(rd.repoSimpleName()).append(" repo;\n\n")
+                .append("   @Autowired\n")
+                .append("   EntityManagerFactory entityManagerFactory;\n\n")
+                .append("   @Autowired\n")
+                .append("   PlatformTransactionManager transactionManager;\n\n")
+                .append("   private static final int FETCH_SIZE = ").append(rd.fetchSize() > 0 ? rd.fetchSize() : 256).append(";\n\n")
+                .append("   private static final int CHUNK_SIZE = ").append(rd.chunkSize() > 0 ? rd.chunkSize() : 500).append(";\n\n")
+                .append("   private static final int BATCH_SIZE = ").append(rd.batchSize() > 0 ? rd.batchSize() : 50).append(";\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the paged GET, which hands cursor requests to the keyset GET.
+     *
+     * @param rd RepositoryData: Record containing the entity and the user's serializer.
+     * @return String to write to the generated classes.
+     */
+    private String getPage(RepositoryData rd){
+        return new StringBuilder()
+                .append("   Mono<ServerResponse> getPage(ServerRequest request){\n")
+                .append(getFiltersParse())
+                .append("       int size = intParam(request, \"size\", DEFAULT_PAGE_SIZE);\n")
+                .append("       if (size < 1 || size > MAX_PAGE_SIZE) {\n")
+                .append("           return badRequest(request, \"size must be between 1 and \" + MAX_PAGE_SIZE);\n")
+                .append("       }\n")
+                .append("       Optional<String> after = request.queryParam(\"after\");\n")
+                .append("       if (after.isPresent()) {\n")
+                .append("           return getKeyset(request, after.get(), size, filters);\n")
+                .append("       }\n")
+                .append("       int page = intParam(request, \"page\", 0);\n")
+                .append("       Sort sort = sortParam(request);\n")
+                .append("       if (page < 0 || sort == null) {\n")
+                .append("           return badRequest(request, \"page must be a positive number and sort must name a field of ").append(rd.entityName()).append("\");\n")
+                .append("       }\n")
+                .append(getFieldsDispatch("getPageFields(request, fields, filters, page, size, sort)"))
+                .append("       PageRequest pageRequest = PageRequest.of(page, size, sort);\n\n")
+                .append("       return blocking(() -> filters.isEmpty() ? repo.findAll(pageRequest) : findPage(filters, pageRequest))\n")
+                .append("           .flatMap((result) -> ServerResponse\n")
+                .append("               .ok()\n")
+                .append("               .contentType(MediaType.APPLICATION_JSON)\n")
+                .append("               .header(\"X-Total-Count\", String.valueOf(result.getTotalElements()))\n")
+                .append("               .body(\n")
+                .append("                   ").append(String.format(getSerializerStatement(rd.serializer()),"result.getContent()")).append("\n")
+                .append("               )\n")
+                .append("           )\n")
+                .append("           .onErrorResume(RejectedExecutionException.class, this::rejected);\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the keyset GET, which reads the rows after an id instead of skipping an offset.
+     * Composite ids have no single column to order by, so their keyset GET answers 400 Bad Request.
+     *
+     * @param rd RepositoryData: Record containing the entity, its id field and the user's serializer.
+     * @return String to write to the generated classes.
+     */
+    private String getKeyset(RepositoryData rd){
+        if (!rd.idFields().isEmpty()) {
+            return new StringBuilder()
+                    .append("   private Mono<ServerResponse> getKeyset(ServerRequest request, String after, int size, Map<String, List<Object>> filters){\n")
+                    .append("       return badRequest(request, \"after is not supported for the composite id of ").append(rd.entityName()).append("\");\n")
+                    .append("   }\n\n")
+                    .toString();
+        }
+        return new StringBuilder()
+                .append("   private Mono<ServerResponse> getKeyset(ServerRequest request, String after, int size, Map<String, List<Object>> filters){\n")
+                .append("       if (request.queryParam(\"page\").isPresent() || request.queryParam(\"sort\").isPresent()) {\n")
+                .append("           return badRequest(request, \"after cannot be combined with page or sort\");\n")
+                .append("       }\n")
+                .append("       ").append(getIdType(rd)).append(" cursor = parseId(after);\n")
+                .append("       if (cursor == null) {\n")
+                .append("           return badRequest(request, \"after must be an id\");\n")
+                .append("       }\n")
+                .append(getFieldsDispatch("getKeysetFields(request, fields, filters, cursor, size)"))
+                .append("\n")
+                .append("       return blocking(() -> {\n")
+                .append("               try (EntityManager em = entityManagerFactory.createEntityManager()) {\n")
+                .append("                   CriteriaBuilder cb = em.getCriteriaBuilder();\n")
+                .append("                   CriteriaQuery<").append(rd.entityName()).append("> query = cb.createQuery(").append(rd.entityName()).append(".class);\n")
+                .append("                   Root<").append(rd.entityName()).append("> root = query.from(").append(rd.entityName()).append(".class);\n")
+                .append("                   query.select(root)\n")
+                .append("                       .where(where(cb, root, filters, cb.greaterThan(root.<").append(getIdType(rd)).append(">get(\"").append(rd.idField()).append("\"), cursor)))\n")
+                .append("                       .orderBy(cb.asc(root.get(\"").append(rd.idField()).append("\")));\n")
+                .append("                   return em.createQuery(query).setMaxResults(size).getResultList();\n")
+                .append("               }\n")
+                .append("           })\n")
+                .append("           .flatMap((result) -> {\n")
+                .append("               ServerResponse.BodyBuilder response = ServerResponse\n")
+                .append("                   .ok()\n")
+                .append("                   .contentType(MediaType.APPLICATION_JSON);\n")
+                .append("               if (result.size() == size) {\n")
+                .append("                   Object last = entityManagerFactory.getPersistenceUnitUtil().getIdentifier(result.get(size - 1));\n")
+                .append("                   response.header(\"X-Next-After\", String.valueOf(last));\n")
+                .append("               }\n")
+                .append("               return response.body(\n")
+                .append("                   ").append(String.format(getSerializerStatement(rd.serializer()),"result")).append("\n")
+                .append("               );\n")
+                .append("           })\n")
+                .append("           .onErrorResume(RejectedExecutionException.class, this::rejected);\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the lines that hand a GET carrying the fields parameter to its projecting variant.
+     *
+     * @param call Call of the projecting variant, which can use the local fields.
+     * @return String to write to the generated classes.
+     */
+    private String getFieldsDispatch(String call){
+        return new StringBuilder()
+                .append("       String fields = request.queryParams().getFirst(\"fields\");\n")
+                .append("       if (fields != null) {\n")
+                .append("           return ").append(call).append(";\n")
+                .append("       }\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the lookup table of the fields clients may select, and the helpers every
+     * projecting GET shares. The allowed names are known at compile time, so the lookup is a string switch,
+     * which the compiler turns into a hash code switch, and the parameter is split in place without a regex.
+     * Selected fields are read as a tuple, so only their columns are fetched and serialized.
+     *
+     * @param rd RepositoryData: Record containing the entity, its projectable fields and the user's serializer.
+     * @return String to write to the generated classes.
+     */
+    private String getProjection(RepositoryData rd){
+        String entity = rd.entityName();
+        List<String> projectable = rd.projectable();
+        StringBuilder sb = new StringBuilder()
+                .append("   private static final String[] PROJECTABLE = {")
+                .append(projectable.stream().map((field) -> "\"" + field + "\"").collect(Collectors.joining(", ")))
+                .append("};\n\n")
+                .append("   private static final String FIELDS_ERROR = \"fields must be a comma separated list of ")
+                .append(String.join(", ", projectable)).append("\";\n\n");
+        if (rd.serializer() == null || rd.serializer() == Serializer.JACKSON) {
+            sb.append("   private static final ParameterizedTypeReference<Map<String, Object>> ROW_TYPE = new ParameterizedTypeReference<>(){};\n\n");
+        }
+        sb.append("   private static int projectable(String name){\n")
+                .append("       return switch (name) {\n");
+        for (int i = 0; i < projectable.size(); i++) {
+            sb.append("           case \"").append(projectable.get(i)).append("\" -> ").append(i).append(";\n");
+        }
+        return sb.append("           default -> -1;\n")
+                .append("       };\n")
+                .append("   }\n\n")
+                .append("   private static List<String> fieldsParam(String value){\n")
+                .append("       List<String> fields = new ArrayList<>();\n")
+                .append("       boolean[] selected = new boolean[PROJECTABLE.length];\n")
+                .append("       int start = 0;\n")
+                .append("       while (start <= value.length()) {\n")
+                .append("           int end = value.indexOf(',', start);\n")
+                .append("           if (end < 0) {\n")
+                .append("               end = value.length();\n")
+                .append("           }\n")
+                .append("           int index = projectable(value.substring(start, end));\n")
+                .append("           if (index < 0) {\n")
+                .append("               return null;\n")
+                .append("           }\n")
+                .append("           if (!selected[index]) {\n")
+                .append("               selected[index] = true;\n")
+                .append("               fields.add(PROJECTABLE[index]);\n")
+                .append("           }\n")
+                .append("           start = end + 1;\n")
+                .append("       }\n")
+                .append("       return fields;\n")
+                .append("   }\n\n")
+                .append("   private static void selectFields(CriteriaQuery<Tuple> query, Root<").append(entity).append("> root, List<String> fields){\n")
+                .append("       List<Selection<?>> selections = new ArrayList<>(fields.size());\n")
+                .append("       for (String field : fields) {\n")
+                .append("           selections.add(root.get(field).alias(field));\n")
+                .append("       }\n")
+                .append("       query.multiselect(selections);\n")
+                .append("   }\n\n")
+                .append("   private static Map<String, Object> row(Tuple tuple, List<String> fields){\n")
+                .append("       Map<String, Object> row = LinkedHashMap.newLinkedHashMap(fields.size());\n")
+                .append("       for (String field : fields) {\n")
+                .append("           row.put(field, tuple.get(field));\n")
+                .append("       }\n")
+                .append("       return row;\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Lists the types the projecting members refer to, next to the given ones.
+     *
+     * @param rd RepositoryData: Record containing the user's serializer.
+     * @param types Further fully qualified types the members refer to.
+     * @return Fully qualified names to import.
+     */
+    private String[] getProjectionImports(RepositoryData rd, String... types) {
+        List<String> imports = new ArrayList<>(List.of(
+                "jakarta.persistence.Tuple",
+                "java.util.List",
+                "java.util.Map"
+        ));
+        for (String type : types) {
+            if (!type.equals("org.springframework.core.ParameterizedTypeReference")
+                    || rd.serializer() == null || rd.serializer() == Serializer.JACKSON) {
+                imports.add(type);
+            }
+        }
+        return imports.toArray(String[]::new);
+    }
+
+    /**
+     * Helper function to generate the lines that read the filter parameters of a GET, or answer 400 Bad Request.
+     *
+     * @return String to write to the generated classes.
+     */
+    private String getFiltersParse(){
+        return new StringBuilder()
+                .append("       Map<String, List<Object>> filters = filtersParam(request);\n")
+                .append("       if (filters == null) {\n")
+                .append("           return badRequest(request, FILTERS_ERROR);\n")
+                .append("       }\n")
+                .toString();
+    }
+
+    /**
+     * Gets the type a filter parameter is parsed to: the field's type, boxed and without the java.lang package.
+     *
+     * @param rd RepositoryData: Record containing the entity's fields.
+     * @param field Name of the filterable field.
+     * @return Type name to write to the generated classes.
+     */
+    private String getFilterType(RepositoryData rd, String field){
+        return rd.entityFields().stream()
+                .filter((data) -> data.name().equals(field))
+                .map((data) -> simpleLang(boxed(data.type())))
+                .findFirst()
+                .orElse("String");
+    }
+
+    /**
+     * Helper function to generate the filter parameters shared by GET-all and the paged GETs.
+     * Each filterable field is read with the typed parser the id uses, so a malformed value answers 400 instead of
+     * reaching the database, and the filters become equality, or IN for a repeated parameter, restrictions of the
+     * criteria query. Every filterable field leads an index, so the database can answer them from it.
+     * Filtered pages are read with criteria too, and counted with the same restrictions.
+     *
+     * @param rd RepositoryData: Record containing the entity and its filterable fields.
+     * @return String to write to the generated classes.
+     */
+    private String getFilters(RepositoryData rd){
+        String entity = rd.entityName();
+        StringBuilder sb = new StringBuilder()
+                .append("   private static final String FILTERS_ERROR = \"")
+                .append(rd.filterable().isEmpty()
+                        ? "no field of " + entity + " can be filtered on"
+                        : "filters must be values of " + String.join(", ", rd.filterable()))
+                .append("\";\n\n")
+                .append("   private static Map<String, List<Object>> filtersParam(ServerRequest request){\n")
+                .append("       MultiValueMap<String, String> params = request.queryParams();\n")
+                .append("       Map<String, List<Object>> filters = new LinkedHashMap<>();\n")
+                .append("       boolean valid = ");
+        List<String> reads = new ArrayList<>();
+        for (String field : rd.filterable()) {
+            reads.add("filter(filters, \"" + field + "\", params.get(\"" + field + "\"), (value) -> "
+                    + getIdComponentParse(getFilterType(rd, field), "0", "value.length()") + ")");
+        }
+        return sb.append(reads.isEmpty() ? "true" : String.join("\n           && ", reads)).append(";\n")
+                .append("       return valid ? filters : null;\n")
+                .append("   }\n\n")
+                .append("   private static boolean filter(Map<String, List<Object>> filters, String field, List<String> values, Function<String, Object> parse){\n")
+                .append("       if (values == null) {\n")
+                .append("           return true;\n")
+                .append("       }\n")
+                .append("       List<Object> parsed = new ArrayList<>(values.size());\n")
+                .append("       for (String value : values) {\n")
+                .append("           Object result = parse.apply(value);\n")
+                .append("           if (result == null) {\n")
+                .append("               return false;\n")
+                .append("           }\n")
+                .append("           parsed.add(result);\n")
+                .append("       }\n")
+                .append("       filters.put(field, parsed);\n")
+                .append("       return true;\n")
+                .append("   }\n\n")
+                .append("   private static Predicate[] where(CriteriaBuilder cb, Root<").append(entity).append("> root, Map<String, List<Object>> filters, Predicate... restrictions){\n")
+                .append("       List<Predicate> predicates = new ArrayList<>(List.of(restrictions));\n")
+                .append("       for (Map.Entry<String, List<Object>> filter : filters.entrySet()) {\n")
+                .append("           List<Object> values = filter.getValue();\n")
+                .append("           predicates.add(values.size() == 1\n")
+                .append("               ? cb.equal(root.get(filter.getKey()), values.get(0))\n")
+                .append("               : root.get(filter.getKey()).in(values));\n")
+                .append("       }\n")
+                .append("       return predicates.toArray(Predicate[]::new);\n")
+                .append("   }\n\n")
+                .append("   private static long count(EntityManager em, Map<String, List<Object>> filters){\n")
+                .append("       CriteriaBuilder cb = em.getCriteriaBuilder();\n")
+                .append("       CriteriaQuery<Long> query = cb.createQuery(Long.class);\n")
+                .append("       Root<").append(entity).append("> root = query.from(").append(entity).append(".class);\n")
+                .append("       query.select(cb.count(root)).where(where(cb, root, filters));\n")
+                .append("       return em.createQuery(query).getSingleResult();\n")
+                .append("   }\n\n")
+                .append("   private Page<").append(entity).append("> findPage(Map<String, List<Object>> filters, PageRequest pageRequest){\n")
+                .append("       try (EntityManager em = entityManagerFactory.createEntityManager()) {\n")
+                .append("           CriteriaBuilder cb = em.getCriteriaBuilder();\n")
+                .append("           CriteriaQuery<").append(entity).append("> query = cb.createQuery(").append(entity).append(".class);\n")
+                .append("           Root<").append(entity).append("> root = query.from(").append(entity).append(".class);\n")
+                .append("           query.select(root)\n")
+                .append("               .where(where(cb, root, filters))\n")
+                .append("               .orderBy(QueryUtils.toOrders(pageRequest.getSort(), root, cb));\n")
+                .append("           List<").append(entity).append("> rows = em.createQuery(query)\n")
+                .append("               .setFirstResult((int) Math.min(pageRequest.getOffset(), Integer.MAX_VALUE))\n")
+                .append("               .setMaxResults(pageRequest.getPageSize())\n")
+                .append("               .getResultList();\n")
+                .append("           return new PageImpl<>(rows, pageRequest, count(em, filters));\n")
+                .append("       }\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the streamed GET-all of the selected fields.
+     * Projections are not ETagged, as the collection's aggregate does not depend on the fields selected.
+     *
+     * @param rd RepositoryData: Record containing the entity and the user's serializer.
+     * @return String to write to the generated classes.
+     */
+    private String getAllFields(RepositoryData rd){
+        return new StringBuilder()
+                .append("   private Mono<ServerResponse> getAllFields(ServerRequest request, String param, Map<String, List<Object>> filters){\n")
+                .append("       List<String> fields = fieldsParam(param);\n")
+                .append("       if (fields == null) {\n")
+                .append("           return badRequest(request, FIELDS_ERROR);\n")
+                .append("       }\n")
+                .append("       Flux<Map<String, Object>> rows = streaming((em) -> {\n")
+                .append("           CriteriaBuilder cb = em.getCriteriaBuilder();\n")
+                .append("           CriteriaQuery<Tuple> query = cb.createTupleQuery();\n")
+                .append("           Root<").append(rd.entityName()).append("> root = query.from(").append(rd.entityName()).append(".class);\n")
+                .append("           selectFields(query, root, fields);\n")
+                .append("           query.where(where(cb, root, filters));\n")
+                .append("           return em.createQuery(query)\n")
+                .append("               .setHint(\"org.hibernate.fetchSize\", FETCH_SIZE)\n")
+                .append("               .getResultStream()\n")
+                .append("               .map((tuple) -> row(tuple, fields));\n")
+                .append("       });\n\n")
+                .append("       if (ndjson(request)) {\n")
+                .append("           return ServerResponse\n")
+                .append("               .ok()\n")
+                .append("               .contentType(MediaType.APPLICATION_NDJSON)\n")
+                .append("               .body(").append(String.format(getRowsSerializerStatement(rd, true), "rows")).append(");\n")
+                .append("       }\n")
+                .append("       return ServerResponse\n")
+                .append("           .ok()\n")
+                .append("           .contentType(MediaType.APPLICATION_JSON)\n")
+                .append("           .body(").append(String.format(getRowsSerializerStatement(rd, false), "rows")).append(");\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate GET-by-id of the selected fields. It reads the row with a tuple query,
+     * around the cache and without an ETag, as both are kept for the whole entity.
+     *
+     * @param rd RepositoryData: Record containing the entity, its id and the user's serializer.
+     * @return String to write to the generated classes.
+     */
+    private String getOneFields(RepositoryData rd){
+        String entity = rd.entityName();
+        return new StringBuilder()
+                .append("   private Mono<ServerResponse> getOneFields(ServerRequest request, ").append(getIdType(rd)).append(" id, String param){\n")
+                .append("       List<String> fields = fieldsParam(param);\n")
+                .append("       if (fields == null) {\n")
+                .append("           return badRequest(request, FIELDS_ERROR);\n")
+                .append("       }\n\n")
+                .append("       return blocking(() -> {\n")
+                .append("               try (EntityManager em = entityManagerFactory.createEntityManager()) {\n")
+                .append("                   CriteriaBuilder cb = em.getCriteriaBuilder();\n")
+                .append("                   CriteriaQuery<Tuple> query = cb.createTupleQuery();\n")
+                .append("                   Root<").append(entity).append("> root = query.from(").append(entity).append(".class);\n")
+                .append("                   selectFields(query, root, fields);\n")
+                .append("                   query.where(").append(getIdPredicate(rd)).append(");\n")
+                .append("                   return row(em.createQuery(query).getSingleResult(), fields);\n")
+                .append("               }\n")
+                .append("           })\n")
+                .append("           .flatMap((result) -> ServerResponse\n")
+                .append("               .ok()\n")
+                .append("               .contentType(MediaType.APPLICATION_JSON)\n")
+                .append("               .body(\n")
+                .append("                   ").append(String.format(getSerializerStatement(rd.serializer()), "result")).append("\n")
+                .append("               )\n")
+                .append("           )\n")
+                .append("           .onErrorResume(RejectedExecutionException.class, this::rejected);\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Builds the paths to the id's columns: the id itself, each field of an @IdClass, or each field of an @EmbeddedId.
+     *
+     * @param rd RepositoryData: Record containing the entity's id.
+     * @return Expressions to write to the generated classes.
+     */
+    private List<String> getIdPaths(RepositoryData rd){
+        if (rd.idFields().isEmpty()) {
+            return List.of("root.get(\"" + rd.idField() + "\")");
+        }
+        String parent = getId(rd).type().equals(rd.idType()) ? "root.get(\"" + rd.idField() + "\")" : "root";
+        return rd.idFields().stream()
+                .map((field) -> parent + ".get(\"" + field.name() + "\")")
+                .toList();
+    }
+
+    /**
+     * Builds the criteria restricting a query of the entity to the row of the local id.
+     * An @IdClass is matched field by field, any other id as a whole.
+     *
+     * @param rd RepositoryData: Record containing the entity's id.
+     * @return Expression to write to the generated classes.
+     */
+    private String getIdPredicate(RepositoryData rd){
+        if (rd.idFields().isEmpty() || getId(rd).type().equals(rd.idType())) {
+            return "cb.equal(root.get(\"" + rd.idField() + "\"), id)";
+        }
+        return "cb.and(" + rd.idFields().stream()
+                .map((field) -> "cb.equal(root.get(\"" + field.name() + "\"), id." + field.getter() + "())")
+                .collect(Collectors.joining(", ")) + ")";
+    }
+
+    /**
+     * Helper function to generate the paged GET of the selected fields, ordered and counted like the paged GET.
+     *
+     * @param rd RepositoryData: Record containing the entity and the user's serializer.
+     * @return String to write to the generated classes.
+     */
+    private String getPageFields(RepositoryData rd){
+        String entity = rd.entityName();
+        return new StringBuilder()
+                .append("   private Mono<ServerResponse> getPageFields(ServerRequest request, String param, Map<String, List<Object>> filters, int page, int size, Sort sort){\n")
+                .append("       List<String> fields = fieldsParam(param);\n")
+                .append("       if (fields == null) {\n")
+                .append("           return badRequest(request, FIELDS_ERROR);\n")
+                .append("       }\n")
+                .append("       PageRequest pageRequest = PageRequest.of(page, size, sort);\n\n")
+                .append("       return blocking(() -> {\n")
+                .append("               try (EntityManager em = entityManagerFactory.createEntityManager()) {\n")
+                .append("                   CriteriaBuilder cb = em.getCriteriaBuilder();\n")
+                .append("                   CriteriaQuery<Tuple> query = cb.createTupleQuery();\n")
+                .append("                   Root<").append(entity).append("> root = query.from(").append(entity).append(".class);\n")
+                .append("                   selectFields(query, root, fields);\n")
+                .append("                   query.where(where(cb, root, filters)).orderBy(QueryUtils.toOrders(sort, root, cb));\n")
+                .append("                   List<Map<String, Object>> rows = em.createQuery(query)\n")
+                .append("                       .setFirstResult((int) Math.min(pageRequest.getOffset(), Integer.MAX_VALUE))\n")
+                .append("                       .setMaxResults(size)\n")
+                .append("                       .getResultList()\n")
+                .append("                       .stream()\n")
+                .append("                       .map((tuple) -> row(tuple, fields))\n")
+                .append("                       .toList();\n")
+                .append("                   return new PageImpl<>(rows, pageRequest, count(em, filters));\n")
+                .append("               }\n")
+                .append("           })\n")
+                .append("           .flatMap((result) -> ServerResponse\n")
+                .append("               .ok()\n")
+                .append("               .contentType(MediaType.APPLICATION_JSON)\n")
+                .append("               .header(\"X-Total-Count\", String.valueOf(result.getTotalElements()))\n")
+                .append("               .body(").append(String.format(getRowsSerializerStatement(rd, false), "Flux.fromIterable(result.getContent())")).append(")\n")
+                .append("           )\n")
+                .append("           .onErrorResume(RejectedExecutionException.class, this::rejected);\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the keyset GET of the selected fields.
+     * The id is read along with them for the next cursor, even when it is not one of them.
+     * Composite ids have no keyset GET, so nothing is generated for them.
+     *
+     * @param rd RepositoryData: Record containing the entity, its id field and the user's serializer.
+     * @return String to write to the generated classes.
+     */
+    private String getKeysetFields(RepositoryData rd){
+        if (!rd.idFields().isEmpty()) {
+            return "";
+        }
+        String entity = rd.entityName();
+        return new StringBuilder()
+                .append("   private Mono<ServerResponse> getKeysetFields(ServerRequest request, String param, Map<String, List<Object>> filters, ").append(getIdType(rd)).append(" cursor, int size){\n")
+                .append("       List<String> fields = fieldsParam(param);\n")
+                .append("       if (fields == null) {\n")
+                .append("           return badRequest(request, FIELDS_ERROR);\n")
+                .append("       }\n")
+                .append("       List<String> selected = new ArrayList<>(fields);\n")
+                .append("       if (!selected.contains(\"").append(rd.idField()).append("\")) {\n")
+                .append("           selected.add(\"").append(rd.idField()).append("\");\n")
+                .append("       }\n\n")
+                .append("       return blocking(() -> {\n")
+                .append("               try (EntityManager em = entityManagerFactory.createEntityManager()) {\n")
+                .append("                   CriteriaBuilder cb = em.getCriteriaBuilder();\n")
+                .append("                   CriteriaQuery<Tuple> query = cb.createTupleQuery();\n")
+                .append("                   Root<").append(entity).append("> root = query.from(").append(entity).append(".class);\n")
+                .append("                   selectFields(query, root, selected);\n")
+                .append("                   query.where(where(cb, root, filters, cb.greaterThan(root.<").append(getIdType(rd)).append(">get(\"").append(rd.idField()).append("\"), cursor)))\n")
+                .append("                       .orderBy(cb.asc(root.get(\"").append(rd.idField()).append("\")));\n")
+                .append("                   return em.createQuery(query).setMaxResults(size).getResultList();\n")
+                .append("               }\n")
+                .append("           })\n")
+                .append("           .flatMap((result) -> {\n")
+                .append("               ServerResponse.BodyBuilder response = ServerResponse\n")
+                .append("                   .ok()\n")
+                .append("                   .contentType(MediaType.APPLICATION_JSON);\n")
+                .append("               if (result.size() == size) {\n")
+                .append("                   response.header(\"X-Next-After\", String.valueOf(result.get(size - 1).get(\"").append(rd.idField()).append("\")));\n")
+                .append("               }\n")
+                .append("               return response.body(")
+                .append(String.format(getRowsSerializerStatement(rd, false), "Flux.fromIterable(result).map((tuple) -> row(tuple, fields))")).append(");\n")
+                .append("           })\n")
+                .append("           .onErrorResume(RejectedExecutionException.class, this::rejected);\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate a route saving the request's entity.
+     *
+     * @param rd RepositoryData: Record containing the entity and the user's serializer.
+     * @param name Name of the handler method.
+     * @return String to write to the generated classes.
+     */
+    private String getSave(RepositoryData rd, String name){
+        return new StringBuilder()
+                .append("   Mono<ServerResponse> ").append(name).append("(ServerRequest request){\n")
+                .append("       return request.bodyToMono(").append(rd.entityName()).append(".class)\n")
+                .append("           .flatMap((entity) -> blocking(() -> ").append(String.format(getSaveStatement(rd), "repo.save(entity)")).append("))\n")
+                .append("           .flatMap((result) -> ServerResponse\n")
+                .append("               .ok()\n")
+                .append("               .contentType(MediaType.APPLICATION_JSON)\n")
+                .append("               .body(\n")
+                .append("                   ").append(String.format(getSerializerStatement(rd.serializer()),"result")).append("\n")
+                .append("               )\n")
+                .append("           )\n")
+                .append("           .onErrorResume(RejectedExecutionException.class, this::rejected);\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * How a PATCH body is decoded for each serializer, as generated code.
+     * The decode format takes the boxed type the value is decoded to.
+     */
+    private enum PatchDecoding {
+        JACKSON("JsonNode", "JsonNode", "objectMapper.treeToValue(value, %s.class)", "value.isNull()",
+                "JsonProcessingException | IllegalArgumentException"),
+        GSON("String", "JsonElement", "gsonValue(value, %s.class)", "value.isJsonNull()", "JsonParseException"),
+        GENERATED("DataBuffer", "Object", "(%s) value", "value == null", "DecodingException");
+
+        private final String body;
+        private final String value;
+        private final String decode;
+        private final String isNull;
+        private final String failure;
+
+        PatchDecoding(String body, String value, String decode, String isNull, String failure) {
+            this.body = body;
+            this.value = value;
+            this.decode = decode;
+            this.isNull = isNull;
+            this.failure = failure;
+        }
+
+        String body() {
+            return body;
+        }
+
+        String value() {
+            return value;
+        }
+
+        String decode() {
+            return decode;
+        }
+
+        String isNull() {
+            return isNull;
+        }
+
+        String failure() {
+            return failure;
+        }
+    }
+
+    /**
+     * Picks how the PATCH body is decoded. GSON and GENERATED decode with their own serializer, the rest with Jackson.
+     *
+     * @param rd RepositoryData: Record containing the user's serializer.
+     * @return The decoding for the repository.
+     */
+    private PatchDecoding getPatchDecoding(RepositoryData rd){
+        return switch (rd.serializer()) {
+            case GSON -> PatchDecoding.GSON;
+            case GENERATED -> PatchDecoding.GENERATED;
+            case null, default -> PatchDecoding.JACKSON;
+        };
+    }
+
+    /**
+     * Lists the types a PATCH route refers to, including those of the serializer its body is decoded with.
+     *
+     * @param rd RepositoryData: Record containing the user's serializer.
+     * @return Fully qualified names to import.
+     */
+    private String[] getPatchImports(RepositoryData rd){
+        List<String> imports = new ArrayList<>(List.of(
+                "jakarta.persistence.EntityManager",
+                "jakarta.persistence.criteria.CriteriaBuilder",
+                "jakarta.persistence.criteria.CriteriaUpdate",
+                "jakarta.persistence.criteria.Predicate",
+                "jakarta.persistence.criteria.Root",
+                "org.springframework.http.HttpHeaders",
+                "org.springframework.http.HttpStatus",
+                "org.springframework.orm.jpa.EntityManagerFactoryUtils",
+                "org.springframework.transaction.support.TransactionTemplate",
+                "java.util.LinkedHashMap",
+                "java.util.Map"));
+        switch (getPatchDecoding(rd)) {
+            case GSON -> imports.addAll(List.of(
+                    "com.google.gson.JsonElement",
+                    "com.google.gson.JsonParseException",
+                    "com.google.gson.JsonParser"));
+            case GENERATED -> imports.addAll(List.of(
+                    "org.springframework.core.codec.DecodingException",
+                    "org.springframework.core.io.buffer.DataBuffer",
+                    "org.springframework.core.io.buffer.DataBufferUtils"));
+            case JACKSON -> imports.addAll(List.of(
+                    "com.fasterxml.jackson.core.JsonProcessingException",
+                    "com.fasterxml.jackson.databind.JsonNode",
+                    "com.fasterxml.jackson.databind.ObjectMapper",
+                    "org.springframework.beans.factory.annotation.Autowired"));
+        }
+        return imports.toArray(String[]::new);
+    }
+
+    /**
+     * Helper function to generate the PATCH by id, which changes only the fields present in the body with one
+     * UPDATE statement instead of the SELECT and full-row UPDATE of a save.
+     * Versioned entities take the expected version from If-Match or from the body's version field, answer 412 or 409
+     * when the row has moved on, and get their version incremented by the UPDATE. A missing row answers 404.
+     * Values are decoded with the repository's serializer: the GSON instance for GSON, the codec's readFields for
+     * GENERATED, and Jackson, which Spring reads their other bodies with, for the rest.
+     * Fields with generic types cannot be decoded by their class alone, so they are left out and PATCH_ERROR says so.
+     *
+     * @param rd RepositoryData: Record containing the entity, its id, its version and the fields a PATCH may change.
+     * @return String to write to the generated classes.
+     */
+    private String getPatch(RepositoryData rd){
+        String entity = rd.entityName();
+        String idType = getIdType(rd);
+        FieldData version = rd.entityFields().stream()
+                .filter((field) -> field.name().equals(rd.versionField()))
+                .findFirst()
+                .orElse(null);
+        String versionType = version == null ? null : simpleLang(boxed(version.type()));
+        List<FieldData> fields = rd.entityFields().stream()
+                .filter((field) -> rd.patchable().contains(field.name()))
+                .toList();
+        List<FieldData> patchable = fields.stream()
+                .filter((field) -> !field.type().contains("<"))
+                .toList();
+        List<FieldData> generic = fields.stream()
+                .filter((field) -> field.type().contains("<"))
+                .toList();
+        PatchDecoding decoding = getPatchDecoding(rd);
+        StringBuilder sb = new StringBuilder();
+        if (decoding == PatchDecoding.JACKSON && rd.serializer() != Serializer.JACKSON) {
+            sb.append("   @Autowired\n")
+                    .append("   ObjectMapper objectMapper;\n\n");
+        }
+        if (decoding == PatchDecoding.GSON) {
+            sb.append("   private static <T> T gsonValue(JsonElement value, Class<T> type){\n")
+                    .append("       T decoded = GSON.fromJson(value, type);\n")
+                    .append("       if (decoded == null && !value.isJsonNull()) {\n")
+                    .append("           throw new JsonParseException(\"not a \" + type.getSimpleName());\n")
+                    .append("       }\n")
+                    .append("       return decoded;\n")
+                    .append("   }\n\n");
+        }
+        sb.append("   private static final String PATCH_ERROR = \"the body must be a JSON object of the fields of ").append(entity)
+                .append(" to change: ").append(patchable.stream().map(FieldData::name).collect(Collectors.joining(", ")))
+                .append(generic.isEmpty() ? "" : "; fields with generic types cannot be patched: "
+                        + generic.stream().map(FieldData::name).collect(Collectors.joining(", ")))
+                .append("\";\n\n");
+        if (version != null) {
+            sb.append("   record Patch(Map<String, Object> changes, ").append(versionType).append(" version, HttpStatus conflict) { }\n\n");
+        }
+        sb.append("   Mono<ServerResponse> patchById(ServerRequest request){\n")
+                .append("       ").append(idType).append(" id = id(request);\n");
+        if (version != null) {
+            sb.append("       String match = request.headers().firstHeader(HttpHeaders.IF_MATCH);\n")
+                    .append("       ").append(versionType).append(" matched = match == null || match.equals(\"*\") ? null : versionTag(match);\n")
+                    .append("       if (match != null && !match.equals(\"*\") && matched == null) {\n")
+                    .append("           return ServerResponse.status(HttpStatus.PRECONDITION_FAILED).build();\n")
+                    .append("       }\n");
+        }
+        String patchType = version != null ? "Patch" : "Map<String, Object>";
+        sb.append("\n")
+                .append("       return request.bodyToMono(").append(decoding.body()).append(".class)\n")
+                .append("           .flatMap((body) -> {\n")
+                .append("               ").append(patchType).append(" patch = patchParam(body, id").append(version != null ? ", matched" : "").append(");\n")
+                .append("               if (patch == null) {\n")
+                .append("                   return badRequest(request, PATCH_ERROR);\n")
+                .append("               }\n")
+                .append(rd.cache() > 0 || rd.changes() > 0
+                        ? "               return blocking(() -> {\n"
+                            + "                       HttpStatus status = patch(id, patch);\n"
+                            + "                       if (status == HttpStatus.OK) {\n"
+                            + (rd.cache() > 0 ? "                           cacheInvalidate(id);\n" : "")
+                            + (rd.changes() > 0 ? "                           publish(\"PATCHED\", id);\n" : "")
+                            + "                       }\n"
+                            + "                       return status;\n"
+                            + "                   })\n"
+                        : "               return blocking(() -> patch(id, patch))\n")
+                .append("                   .flatMap((status) -> status != HttpStatus.OK\n")
+                .append("                       ? ServerResponse.status(status).build()\n")
+                .append("                       : ServerResponse\n")
+                .append("                           .ok()\n")
+                .append("                           .contentType(MediaType.APPLICATION_JSON)\n")
+                .append("                           .body(\n")
+                .append("                               ").append(String.format(getSerializerStatement(rd.serializer()),"Map.of(\"Patched\", id)")).append("\n")
+                .append("                           )\n")
+                .append("                   );\n")
+                .append("           })\n")
+                .append("           .switchIfEmpty(Mono.defer(() -> badRequest(request, PATCH_ERROR)))\n")
+                .append("           .onErrorResume(RejectedExecutionException.class, this::rejected);\n")
+                .append("   }\n\n");
+        if (version != null) {
+            sb.append("   private static ").append(versionType).append(" versionTag(String tag){\n")
+                    .append("       int start = tag.startsWith(\"W/\") ? 2 : 0;\n")
+                    .append("       if (tag.length() < start + 2 || tag.charAt(start) != '\"' || tag.charAt(tag.length() - 1) != '\"') {\n")
+                    .append("           return null;\n")
+                    .append("       }\n")
+                    .append("       try {\n")
+                    .append("           return ").append(versionType).append(".valueOf(tag.substring(start + 1, tag.length() - 1));\n")
+                    .append("       } catch (NumberFormatException e) {\n")
+                    .append("           return null;\n")
+                    .append("       }\n")
+                    .append("   }\n\n");
+        }
+        sb.append("   private ").append(patchType).append(" patchParam(").append(decoding.body()).append(" body, ").append(idType).append(" id")
+                .append(version != null ? ", " + versionType + " matched" : "").append("){\n")
+                .append("       Map<String, Object> changes = new LinkedHashMap<>();\n");
+        if (version != null) {
+            sb.append("       ").append(versionType).append(" version = matched;\n");
+        }
+        sb.append("       try {\n");
+        switch (decoding) {
+            case GSON -> sb.append("           JsonElement tree = JsonParser.parseString(body);\n")
+                    .append("           if (!tree.isJsonObject()) {\n")
+                    .append("               return null;\n")
+                    .append("           }\n")
+                    .append("           for (Map.Entry<String, JsonElement> field : tree.getAsJsonObject().entrySet()) {\n");
+            case GENERATED -> sb.append("           for (Map.Entry<String, Object> field : ").append(entity).append(CodecGenerator.CODEC_SUFFIX)
+                    .append(".readFields(body).entrySet()) {\n");
+            case JACKSON -> sb.append("           if (!body.isObject()) {\n")
+                    .append("               return null;\n")
+                    .append("           }\n")
+                    .append("           for (Map.Entry<String, JsonNode> field : body.properties()) {\n");
+        }
+        sb.append("               ").append(decoding.value()).append(" value = field.getValue();\n")
+                .append("               switch (field.getKey()) {\n");
+        if (rd.idFields().isEmpty() || getId(rd).type().equals(rd.idType())) {
+            sb.append("                   case \"").append(rd.idField()).append("\" -> {\n")
+                    .append("                       if (!id.equals(").append(String.format(decoding.decode(), idType)).append(")) {\n")
+                    .append("                           return null;\n")
+                    .append("                       }\n")
+                    .append("                   }\n");
+        }
+        if (version != null) {
+            sb.append("                   case \"").append(version.name()).append("\" -> {\n")
+                    .append("                       if (matched == null) {\n")
+                    .append("                           version = ").append(String.format(decoding.decode(), versionType)).append(";\n")
+                    .append("                       }\n")
+                    .append("                   }\n");
+        }
+        for (FieldData field : patchable) {
+            String put = "changes.put(\"" + field.name() + "\", " + String.format(decoding.decode(), simpleLang(boxed(field.type()))) + ");";
+            if (field.type().contains(".") || field.type().endsWith("]")) {
+                sb.append("                   case \"").append(field.name()).append("\" -> ").append(put).append("\n");
+            } else {
+                sb.append("                   case \"").append(field.name()).append("\" -> {\n")
+                        .append("                       if (").append(decoding.isNull()).append(") {\n")
+                        .append("                           return null;\n")
+                        .append("                       }\n")
+                        .append("                       ").append(put).append("\n")
+                        .append("                   }\n");
+            }
+        }
+        sb.append("                   default -> {\n")
+                .append("                       return null;\n")
+                .append("                   }\n")
+                .append("               }\n")
+                .append("           }\n")
+                .append("       } catch (").append(decoding.failure()).append(" e) {\n")
+                .append("           return null;\n")
+                .append(decoding == PatchDecoding.GENERATED
+                        ? "       } finally {\n           DataBufferUtils.release(body);\n       }\n"
+                        : "       }\n");
+        if (version != null) {
+            sb.append("       return changes.isEmpty() ? null : new Patch(changes, version, matched != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT);\n");
+        } else {
+            sb.append("       return changes.isEmpty() ? null : changes;\n");
+        }
+        sb.append("   }\n\n")
+                .append("   private HttpStatus patch(").append(idType).append(" id, ").append(patchType).append(" patch){\n")
+                .append("       return new TransactionTemplate(transactionManager).execute((status) -> {\n")
+                .append("           EntityManager em = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);\n")
+                .append("           CriteriaBuilder cb = em.getCriteriaBuilder();\n")
+                .append("           CriteriaUpdate<").append(entity).append("> update = cb.createCriteriaUpdate(").append(entity).append(".class);\n")
+                .append("           Root<").append(entity).append("> root = update.from(").append(entity).append(".class);\n")
+                .append("           ").append(version != null ? "patch.changes()" : "patch").append(".forEach((field, value) -> update.set(root.get(field), value));\n")
+                .append("           Predicate matches = ").append(getIdPredicate(rd)).append(";\n");
+        if (version != null) {
+            String one = switch (versionType) {
+                case "Long" -> "1L";
+                case "Short" -> "(short) 1";
+                default -> "1";
+            };
+            sb.append("           update.set(root.<").append(versionType).append(">get(\"").append(version.name()).append("\"), cb.sum(root.<")
+                    .append(versionType).append(">get(\"").append(version.name()).append("\"), ").append(one).append("));\n")
+                    .append("           update.where(patch.version() == null ? matches : cb.and(matches, cb.equal(root.get(\"")
+                    .append(version.name()).append("\"), patch.version())));\n")
+                    .append("           if (em.createQuery(update).executeUpdate() > 0) {\n")
+                    .append("               return HttpStatus.OK;\n")
+                    .append("           }\n")
+                    .append("           return patch.version() != null && em.find(").append(entity).append(".class, id) != null ? patch.conflict() : HttpStatus.NOT_FOUND;\n");
+        } else {
+            sb.append("           update.where(matches);\n")
+                    .append("           return em.createQuery(update).executeUpdate() > 0 ? HttpStatus.OK : HttpStatus.NOT_FOUND;\n");
+        }
+        return sb.append("       });\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the batch PUT, which saves the streamed body chunk by chunk.
+     *
+     * @param rd RepositoryData: Record containing the entity and the user's serializer.
+     * @return String to write to the generated classes.
+     */
+    private String getPutBatch(RepositoryData rd){
+        return new StringBuilder()
+                .append("   Mono<ServerResponse> putBatch(ServerRequest request){\n")
+                .append("       Flux<").append(rd.entityName()).append("> saved = request.bodyToFlux(").append(rd.entityName()).append(".class)\n")
+                .append("           .buffer(CHUNK_SIZE)\n")
+                .append("           .concatMap((chunk) -> blocking(() -> saveChunk(chunk)).flatMapIterable((result) -> result));\n\n")
+                .append("       if (ndjson(request)) {\n")
+                .append("           return ServerResponse\n")
+                .append("               .ok()\n")
+                .append("               .contentType(MediaType.APPLICATION_NDJSON)\n")
+                .append("               .body(").append(String.format(getStreamingSerializerStatement(rd.serializer(), true), "saved", rd.entityName())).append(");\n")
+                .append("       }\n")
+                .append("       return ServerResponse\n")
+                .append("           .ok()\n")
+                .append("           .contentType(MediaType.APPLICATION_JSON)\n")
+                .append("           .body(").append(String.format(getStreamingSerializerStatement(rd.serializer(), false), "saved", rd.entityName())).append(");\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the transactional save of one batch chunk, flushed in JDBC batches.
+     *
+     * @param rd RepositoryData: Record containing the entity and the user's batch and cache sizes.
+     * @return String to write to the generated classes.
+     */
+    private String getSaveChunk(RepositoryData rd){
+        return new StringBuilder()
+                .append("   private List<").append(rd.entityName()).append("> saveChunk(List<").append(rd.entityName()).append("> chunk){\n")
+                .append("       return new TransactionTemplate(transactionManager).execute((status) -> {\n")
+                .append("           EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)\n")
+                .append("               .unwrap(Session.class)\n")
+                .append("               .setJdbcBatchSize(BATCH_SIZE);\n")
+                .append("           return repo.saveAll(chunk);\n")
+                .append("       })").append(rd.cache() > 0 || rd.changes() > 0
+                        ? ".stream()" + (rd.cache() > 0 ? ".map(this::evicting)" : "") + (rd.changes() > 0 ? ".map(this::published)" : "") + ".toList()"
+                        : "").append(";\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the DELETE by id.
+     * The delete runs when the response is subscribed, off the event loop, and answers 404 when no row had the id.
+     *
+     * @param rd RepositoryData: Record containing the user's serializer and cache size.
+     * @return String to write to the generated classes.
+     */
+    private String getDeleteById(RepositoryData rd){
+        return new StringBuilder()
+                .append("   Mono<ServerResponse> deleteById(ServerRequest request){\n")
+                .append("       ").append(getIdType(rd)).append(" id = id(request);\n\n")
+                .append("       return blocking(() -> {\n")
+                .append("               int deleted = delete(id);\n")
+                .append(rd.cache() > 0 || rd.changes() > 0 ? "               if (deleted > 0) {\n" : "")
+                .append(rd.cache() > 0 ? "                   cacheInvalidate(id);\n" : "")
+                .append(rd.changes() > 0 ? "                   publish(\"DELETED\", id);\n" : "")
+                .append(rd.cache() > 0 || rd.changes() > 0 ? "               }\n" : "")
+                .append("               return deleted;\n")
+                .append("           })\n")
+                .append("           .flatMap((deleted) -> deleted == 0\n")
+                .append("               ? ServerResponse.notFound().build()\n")
+                .append("               : ServerResponse\n")
+                .append("                   .ok()\n")
+                .append("                   .contentType(MediaType.APPLICATION_JSON)\n")
+                .append("                   .body(\n")
+                .append("                       ").append(String.format(getSerializerStatement(rd.serializer()),"Map.of(\"Deleted\", id)")).append("\n")
+                .append("                   )\n")
+                .append("           )\n")
+                .append("           .onErrorResume(RejectedExecutionException.class, this::rejected);\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the method deleting a row by id in its own transaction.
+     * Entities isBulkDeletable accepts are deleted with one DELETE statement whose row count tells whether the id
+     * existed, instead of the SELECT and DELETE of the repository's deleteById. Other entities are found and removed
+     * through the EntityManager, so cascades and callbacks still run.
+     *
+     * @param rd RepositoryData: Record containing the entity, its id and whether it can be bulk deleted.
+     * @return String to write to the generated classes.
+     */
+    private String getDelete(RepositoryData rd){
+        String entity = rd.entityName();
+        StringBuilder sb = new StringBuilder()
+                .append("   private int delete(").append(getIdType(rd)).append(" id){\n")
+                .append("       return new TransactionTemplate(transactionManager).execute((status) -> {\n")
+                .append("           EntityManager em = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);\n");
+        if (rd.bulkDelete()) {
+            sb.append("           CriteriaBuilder cb = em.getCriteriaBuilder();\n")
+                    .append("           CriteriaDelete<").append(entity).append("> delete = cb.createCriteriaDelete(").append(entity).append(".class);\n")
+                    .append("           Root<").append(entity).append("> root = delete.from(").append(entity).append(".class);\n")
+                    .append("           delete.where(").append(getIdPredicate(rd)).append(");\n")
+                    .append("           return em.createQuery(delete).executeUpdate();\n");
+        } else {
+            sb.append("           ").append(entity).append(" entity = em.find(").append(entity).append(".class, id);\n")
+                    .append("           if (entity == null) {\n")
+                    .append("               return 0;\n")
+                    .append("           }\n")
+                    .append("           em.remove(entity);\n")
+                    .append("           return 1;\n");
+        }
+        return sb.append("       });\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the check the streaming routes use to pick NDJSON over their default.
+     * Accept entries are matched ignoring their parameters, while a wildcard subtype keeps the default.
+     *
+     * @return String to write to the generated classes.
+     */
+    private String getNegotiation(){
+        return new StringBuilder()
+                .append("   private boolean ndjson(ServerRequest request){\n")
+                .append("       return request.headers().accept().stream()\n")
+                .append("           .anyMatch((type) -> !type.isWildcardSubtype() && MediaType.APPLICATION_NDJSON.isCompatibleWith(type));\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the responses shared by the routes when a request is refused.
+     *
+     * @param rd RepositoryData: Record containing the user's serializer.
+     * @return String to write to the generated classes.
+     */
+    private String getErrorResponses(RepositoryData rd){
+        return new StringBuilder()
+                .append("   private Mono<ServerResponse> badRequest(ServerRequest request, String message){\n")
+                .append("       return ServerResponse\n")
+                .append("           .badRequest()\n")
+                .append("           .contentType(MediaType.APPLICATION_JSON)\n")
+                .append("           .body(\n")
+                .append("               ").append(String.format(getSerializerStatement(rd.serializer()),"Map.of(\"Error\",message)")).append("\n")
+                .append("           );\n")
+                .append("   }\n\n")
+                .append("   private Mono<ServerResponse> rejected(RejectedExecutionException ree){\n")
+                .append("       return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).build();\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the streamed GET-all.
+     * When the entity has a @Version field, a hash of every (id, version) pair in id order stands in for an ETag,
+     * so an unchanged table answers 304 after reading two columns instead of the rows. The rows are read in one
+     * transaction with a second hash, which becomes the response's ETag right before the headers are committed,
+     * so the ETag a client keeps describes the rows it got.
+     *
+     * @param rd RepositoryData: Record containing the entity, its id and its version field.
+     * @return String to write to the generated classes.
+     */
+    private String getAll(RepositoryData rd){
+        String entity = rd.entityName();
+        FieldData version = getVersion(rd);
+        StringBuilder sb = new StringBuilder();
+        if (version != null) {
+            List<String> ids = getIdPaths(rd);
+            sb.append("   public Mono<ServerResponse> getAll(ServerRequest request){\n")
+                    .append(getFiltersParse())
+                    .append(getFieldsDispatch("getAllFields(request, fields, filters)"))
+                    .append("\n")
+                    .append("       return blocking(() -> {\n")
+                    .append("               try (EntityManager em = entityManagerFactory.createEntityManager()) {\n")
+                    .append("                   return collectionETag(em, filters);\n")
+                    .append("               }\n")
+                    .append("           })\n")
+                    .append("           .flatMap((etag) -> request.checkNotModified(etag)\n")
+                    .append("               .switchIfEmpty(Mono.defer(() -> getAllRows(request, filters)))\n")
+                    .append("           )\n")
+                    .append("           .onErrorResume(RejectedExecutionException.class, this::rejected);\n")
+                    .append("   }\n\n")
+                    .append("   private String collectionETag(EntityManager em, Map<String, List<Object>> filters){\n")
+                    .append("       CriteriaBuilder cb = em.getCriteriaBuilder();\n")
+                    .append("       CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);\n")
+                    .append("       Root<").append(entity).append("> root = query.from(").append(entity).append(".class);\n")
+                    .append("       query.multiselect(").append(String.join(", ", ids)).append(", root.get(\"").append(version.name()).append("\"))\n")
+                    .append("           .where(where(cb, root, filters))\n")
+                    .append("           .orderBy(").append(ids.stream().map((id) -> "cb.asc(" + id + ")").collect(Collectors.joining(", "))).append(");\n")
+                    .append("       CRC32C crc = new CRC32C();\n")
+                    .append("       long count = 0;\n")
+                    .append("       try (Stream<Object[]> rows = em.createQuery(query).setHint(\"org.hibernate.fetchSize\", FETCH_SIZE).getResultStream()) {\n")
+                    .append("           for (Iterator<Object[]> it = rows.iterator(); it.hasNext(); count++) {\n")
+                    .append("               crc.update(Arrays.toString(it.next()).getBytes(StandardCharsets.UTF_8));\n")
+                    .append("           }\n")
+                    .append("       }\n")
+                    .append("       return \"W/\\\"\" + Long.toHexString(crc.getValue()) + \"-\" + Long.toHexString(count) + \"\\\"\";\n")
+                    .append("   }\n\n")
+                    .append("   private static <T> BodyInserter<Flux<T>, ServerHttpResponse> tagged(Flux<T> rows, AtomicReference<String> etag, Function<Flux<T>, BodyInserter<?, ? super ServerHttpResponse>> body){\n")
+                    .append("       return (response, context) -> rows\n")
+                    .append("           .switchOnFirst((first, all) -> {\n")
+                    .append("               if (etag.get() != null) {\n")
+                    .append("                   response.getHeaders().setETag(etag.get());\n")
+                    .append("               }\n")
+                    .append("               return body.apply(all).insert(response, context);\n")
+                    .append("           })\n")
+                    .append("           .then();\n")
+                    .append("   }\n\n")
+                    .append("   private Mono<ServerResponse> getAllRows(ServerRequest request, Map<String, List<Object>> filters){\n")
+                    .append("       AtomicReference<String> etag = new AtomicReference<>();\n")
+                    .append("       Flux<").append(entity).append("> rows = streaming((em) -> {\n")
+                    .append("           EntityTransaction transaction = em.getTransaction();\n")
+                    .append("           transaction.begin();\n")
+                    .append("           try {\n")
+                    .append("               etag.set(collectionETag(em, filters));\n")
+                    .append("               CriteriaBuilder cb = em.getCriteriaBuilder();\n")
+                    .append("               CriteriaQuery<").append(entity).append("> query = cb.createQuery(").append(entity).append(".class);\n")
+                    .append("               Root<").append(entity).append("> root = query.from(").append(entity).append(".class);\n")
+                    .append("               query.select(root).where(where(cb, root, filters));\n")
+                    .append("               return em.createQuery(query)\n")
+                    .append("                   .setHint(\"org.hibernate.fetchSize\", FETCH_SIZE)\n")
+                    .append("                   .getResultStream()\n")
+                    .append("                   .peek(em::detach)\n")
+                    .append("                   .onClose(transaction::rollback);\n")
+                    .append("           } catch (RuntimeException e) {\n")
+                    .append("               transaction.rollback();\n")
+                    .append("               throw e;\n")
+                    .append("           }\n")
+                    .append("       });\n\n")
+                    .append("       if (ndjson(request)) {\n")
+                    .append("           return ServerResponse\n")
+                    .append("               .ok()\n")
+                    .append("               .contentType(MediaType.APPLICATION_NDJSON)\n")
+                    .append("               .body(tagged(rows, etag, (all) -> ").append(String.format(getStreamingSerializerStatement(rd.serializer(), true), "all", entity)).append("));\n")
+                    .append("       }\n")
+                    .append("       return ServerResponse\n")
+                    .append("           .ok()\n")
+                    .append("           .contentType(MediaType.APPLICATION_JSON)\n")
+                    .append("           .body(tagged(rows, etag, (all) -> ").append(String.format(getStreamingSerializerStatement(rd.serializer(), false), "all", entity)).append("));\n")
+                    .append("   }\n\n");
+            return sb.toString();
+        }
+        sb.append("   public Mono<ServerResponse> getAll(ServerRequest request){\n")
+                .append(getFiltersParse())
+                .append(getFieldsDispatch("getAllFields(request, fields, filters)"))
+                .append("\n")
+                .append("       return getAllRows(request, filters)\n")
+                .append("           .onErrorResume(RejectedExecutionException.class, this::rejected);\n")
+                .append("   }\n\n")
+                .append("   private Mono<ServerResponse> getAllRows(ServerRequest request, Map<String, List<Object>> filters){\n");
+        return sb.append("       Flux<").append(entity).append("> rows = streaming((em) -> {\n")
+                .append("           CriteriaBuilder cb = em.getCriteriaBuilder();\n")
+                .append("           CriteriaQuery<").append(entity).append("> query = cb.createQuery(").append(entity).append(".class);\n")
+                .append("           Root<").append(entity).append("> root = query.from(").append(entity).append(".class);\n")
+                .append("           query.select(root).where(where(cb, root, filters));\n")
+                .append("           return em.createQuery(query)\n")
+                .append("               .setHint(\"org.hibernate.fetchSize\", FETCH_SIZE)\n")
+                .append("               .getResultStream()\n")
+                .append("               .peek(em::detach);\n")
+                .append("       });\n\n")
+                .append("       if (ndjson(request)) {\n")
+                .append("           return ServerResponse\n")
+                .append("               .ok()\n")
+                .append("               .contentType(MediaType.APPLICATION_NDJSON)\n")
+                .append("               .body(").append(String.format(getStreamingSerializerStatement(rd.serializer(), true), "rows", entity)).append(");\n")
+                .append("       }\n")
+                .append("       return ServerResponse\n")
+                .append("           .ok()\n")
+                .append("           .contentType(MediaType.APPLICATION_JSON)\n")
+                .append("           .body(").append(String.format(getStreamingSerializerStatement(rd.serializer(), false), "rows", entity)).append(");\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate GET-by-id with If-None-Match handling.
+     * A @Version field gives the ETag before the row is serialized, otherwise the encoded body is hashed.
+     * With the cache enabled the ETag is kept next to the cached bytes.
+     *
+     * @param rd RepositoryData: Record containing the entity, its version field and the user's cache size.
+     * @return String to write to the generated classes.
+     */
+    private String getOneById(RepositoryData rd){
+        String entity = rd.entityName();
+        boolean versioned = getVersion(rd) != null;
+        StringBuilder sb = new StringBuilder()
+                .append("   Mono<ServerResponse> getOneById(ServerRequest request){\n")
+                .append("       ").append(getIdType(rd)).append(" id = id(request);\n")
+                .append(getFieldsDispatch("getOneFields(request, id, fields)"))
+                .append("\n");
+        String etag = versioned ? "etag(result)" : "etag(DefaultDataBufferFactory.sharedInstance.wrap(bytes))";
+        String load = rd.coalesce() ? "coalesced(id, () -> {\n" : "blocking(() -> {\n";
+        if (rd.cache() > 0 || rd.coalesce()) {
+            if (rd.cache() > 0) {
+                sb.append("       Cached cached = cacheGet(id);\n")
+                        .append("       Mono<Cached> entry = cached != null ? Mono.just(cached) : ").append(load)
+                        .append("               long stamp = cacheStamp();\n")
+                        .append("               ").append(entity).append(" result = repo.findById(id).orElseThrow();\n")
+                        .append("               byte[] bytes = toBytes(result);\n")
+                        .append("               return cachePut(id, bytes, ").append(etag).append(", stamp);\n")
+                        .append("           });\n");
+            } else {
+                sb.append("       Mono<Loaded> entry = ").append(load)
+                        .append("               ").append(entity).append(" result = repo.findById(id).orElseThrow();\n")
+                        .append("               byte[] bytes = toBytes(result);\n")
+                        .append("               return new Loaded(bytes, ").append(etag).append(");\n")
+                        .append("           });\n");
+            }
+            sb.append("       return entry\n")
+                    .append("           .flatMap((result) -> request.checkNotModified(result.etag())\n")
+                    .append("               .switchIfEmpty(Mono.defer(() -> ServerResponse\n")
+                    .append("                   .ok()\n")
+                    .append("                   .contentType(MediaType.APPLICATION_JSON)\n")
+                    .append("                   .eTag(result.etag())\n")
+                    .append("                   .body(BodyInserters.fromValue(result.body()))\n")
+                    .append("               ))\n")
+                    .append("           )\n");
+        } else if (versioned) {
+            sb.append("       return blocking(() -> repo.findById(id).orElseThrow())\n")
+                    .append("           .flatMap((result) -> {\n")
+                    .append("               String etag = etag(result);\n")
+                    .append("               return request.checkNotModified(etag)\n")
+                    .append("                   .switchIfEmpty(Mono.defer(() -> ServerResponse\n")
+                    .append("                       .ok()\n")
+                    .append("                       .contentType(MediaType.APPLICATION_JSON)\n")
+                    .append("                       .eTag(etag)\n")
+                    .append("                       .body(\n")
+                    .append("                           ").append(String.format(getSerializerStatement(rd.serializer()), "result")).append("\n")
+                    .append("                       )\n")
+                    .append("                   ));\n")
+                    .append("           })\n");
+        } else {
+            sb.append("       return blocking(() -> repo.findById(id).orElseThrow())\n")
+                    .append("           .flatMap((result) -> encoded(request, result))\n")
+                    .append("           .flatMap((buffer) -> {\n")
+                    .append("               String etag = etag(buffer);\n")
+                    .append("               return request.checkNotModified(etag)\n")
+                    .append("                   .doOnNext((notModified) -> DataBufferUtils.release(buffer))\n")
+                    .append("                   .switchIfEmpty(Mono.defer(() -> ServerResponse\n")
+                    .append("                       .ok()\n")
+                    .append("                       .contentType(MediaType.APPLICATION_JSON)\n")
+                    .append("                       .eTag(etag)\n")
+                    .append("                       .body(BodyInserters.fromDataBuffers(Mono.just(buffer)))\n")
+                    .append("                   ));\n")
+                    .append("           })\n");
+        }
+        return sb.append("           .onErrorResume(RejectedExecutionException.class, this::rejected);\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the ETag methods.
+     * A @Version field becomes a weak ETag, anything else is a CRC32C of the encoded body and its length.
+     *
+     * @param rd RepositoryData: Record containing the entity, its version field and the serializer provided by user.
+     * @return String to write to the generated classes.
+     */
+    private String getETag(RepositoryData rd){
+        String entity = rd.entityName();
+        StringBuilder sb = new StringBuilder();
+        FieldData version = getVersion(rd);
+        if (version != null) {
+            sb.append("   private static String etag(").append(entity).append(" value){\n")
+                    .append("       return \"W/\\\"\" + value.").append(version.getter()).append("() + \"\\\"\";\n")
+                    .append("   }\n\n");
+        }
+        sb.append("   private static String etag(DataBuffer buffer){\n")
+                .append("       CRC32C crc = new CRC32C();\n")
+                .append("       try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {\n")
+                .append("           chunks.forEachRemaining(crc::update);\n")
+                .append("       }\n")
+                .append("       return \"\\\"\" + Long.toHexString(crc.getValue()) + \"-\" + Integer.toHexString(buffer.readableByteCount()) + \"\\\"\";\n")
+                .append("   }\n\n")
+                .append("   private Mono<DataBuffer> encoded(ServerRequest request, ").append(entity).append(" value){\n");
+        if (rd.serializer() == Serializer.GSON || rd.serializer() == Serializer.GENERATED) {
+            sb.append("       return json(request, value);\n");
+        } else {
+            sb.append("       return Mono.fromCallable(() -> request.exchange().getResponse().bufferFactory().wrap(toBytes(value)));\n");
+        }
+        return sb.append("   }\n\n").toString();
+    }
+
+    /**
+     * Looks up the entity's @Version field, when it has one with a public getter.
+     *
+     * @param rd RepositoryData: Record containing the entity's fields.
+     * @return FieldData of the version field, or null.
+     */
+    private FieldData getVersion(RepositoryData rd){
+        return rd.entityFields().stream()
+                .filter((field) -> field.name().equals(rd.versionField()))
+                .filter((field) -> field.getter() != null)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Looks up the entity's id field.
+     *
+     * @param rd RepositoryData: Record containing the entity's fields.
+     * @return FieldData of the id field, a Long named after the id field when it cannot be found.
+     */
+    private FieldData getId(RepositoryData rd){
+        return rd.entityFields().stream()
+                .filter((field) -> field.name().equals(rd.idField()))
+                .findFirst()
+                .orElse(new FieldData(rd.idField(), "java.lang.Long", false, null, null));
+    }
+
+    /**
+     * Checks whether a version field's type is a number a bulk UPDATE can increment.
+     *
+     * @param type Type name of the field.
+     * @return boolean.
+     */
+    private boolean isNumeric(String type){
+        return Set.of("int", "long", "short", "java.lang.Integer", "java.lang.Long", "java.lang.Short").contains(type);
+    }
+
+    /**
+     * Boxes primitive type names so they can be used as type arguments.
+     *
+     * @param type Type name of the field.
+     * @return The boxed type name, or the type name unchanged.
+     */
+    private String boxed(String type){
+        return switch (type) {
+            case "int" -> "Integer";
+            case "long" -> "Long";
+            case "short" -> "Short";
+            case "byte" -> "Byte";
+            case "char" -> "Character";
+            case "boolean" -> "Boolean";
+            case "double" -> "Double";
+            case "float" -> "Float";
+            default -> type;
+        };
+    }
+
+    /**
+     * Gets the type to declare the entity's id with: the repository's id type, without the java.lang package.
+     *
+     * @param rd RepositoryData: Record containing the repository's id type.
+     * @return Type name to write to the generated classes.
+     */
+    private String getIdType(RepositoryData rd){
+        return simpleLang(boxed(rd.idType()));
+    }
+
+    /**
+     * Drops the java.lang package from a type name, which generated code never needs to spell out.
+     *
+     * @param type Fully qualified type name.
+     * @return The simple name for java.lang types, the given name otherwise.
+     */
+    private String simpleLang(String type){
+        return type.startsWith("java.lang.") ? type.substring("java.lang.".length()) : type;
+    }
+
+    /**
+     * Helper function to generate the id parser shared by the router's predicates and the handler.
+     * Integral ids are accumulated in a primitive with the JDK's overflow checks, and UUIDs are read hex digit
+     * by hex digit into their two longs, so a malformed id costs a return instead of an exception and a valid
+     * one is boxed once. Other id types fall back to Spring's conversion service.
+     * A composite id is given as its fields' values separated by commas, in declaration order, and each value
+     * is parsed in place without splitting the parameter. The filter parameters are read by the same parsers.
+     *
+     * @param rd RepositoryData: Record containing the repository's id type, the fields of a composite id and
+     *           the filterable fields.
+     * @return String to write to the generated classes.
+     */
+    private String getIdParser(RepositoryData rd){
+        String type = getIdType(rd);
+        Set<String> components = new LinkedHashSet<>();
+        StringBuilder sb = new StringBuilder()
+                .append("   static final String ID_ATTRIBUTE = \"").append(rd.interfacePackage()).append(PACKAGE_SUFFIX).append(".")
+                .append(rd.entityName()).append(HANDLER_SUFFIX).append(".id\";\n\n")
+                .append("   static ").append(type).append(" parseId(String value){\n");
+        if (rd.idFields().isEmpty()) {
+            components.add(type);
+            sb.append("       return ").append(getIdComponentParse(type, "0", "value.length()")).append(";\n");
+        } else {
+            sb.append("       int start = 0;\n")
+                    .append("       int end;\n");
+            List<FieldData> fields = rd.idFields();
+            for (int i = 0; i < fields.size(); i++) {
+                String fieldType = simpleLang(boxed(fields.get(i).type()));
+                components.add(fieldType);
+                if (i < fields.size() - 1) {
+                    sb.append("       end = value.indexOf(',', start);\n")
+                            .append("       if (end < 0) {\n")
+                            .append("           return null;\n")
+                            .append("       }\n");
+                } else {
+                    sb.append("       end = value.length();\n");
+                }
+                sb.append("       ").append(fieldType).append(" part").append(i).append(" = ")
+                        .append(getIdComponentParse(fieldType, "start", "end")).append(";\n")
+                        .append("       if (part").append(i).append(" == null) {\n")
+                        .append("           return null;\n")
+                        .append("       }\n")
+                        .append(i < fields.size() - 1 ? "       start = end + 1;\n" : "");
+            }
+            sb.append("       ").append(type).append(" id = new ").append(type).append("();\n");
+            for (int i = 0; i < fields.size(); i++) {
+                sb.append("       id.").append(fields.get(i).setter()).append("(part").append(i).append(");\n");
+            }
+            sb.append("       return id;\n");
+        }
+        sb.append("   }\n\n");
+        for (String field : rd.filterable()) {
+            components.add(getFilterType(rd, field));
+        }
+        Set<String> parsers = new LinkedHashSet<>();
+        for (String component : components) {
+            parsers.add(getIdComponentParser(component));
+        }
+        parsers.forEach(sb::append);
+        return sb.append("   private static ").append(type).append(" id(ServerRequest request){\n")
+                .append("       return (").append(type).append(") request.exchange().getAttributes().get(ID_ATTRIBUTE);\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Names the parser of one id value.
+     *
+     * @param type Boxed type of the value, without the java.lang package.
+     * @param start Expression of the value's first index in the parameter.
+     * @param end Expression of the index after the value's last.
+     * @return Expression parsing the value, null when it is malformed.
+     */
+    private String getIdComponentParse(String type, String start, String end){
+        return switch (type) {
+            case "Long", "Integer", "Short", "Byte" -> "parse" + type + "(value, " + start + ", " + end + ")";
+            case "java.util.UUID" -> "parseUuid(value, " + start + ", " + end + ")";
+            case "String" -> "parseString(value, " + start + ", " + end + ")";
+            default -> "convert(value, " + start + ", " + end + ", " + type + ".class)";
+        };
+    }
+
+    /**
+     * Helper function to generate the parser of one id value, reading the parameter between two indexes.
+     *
+     * @param type Boxed type of the value, without the java.lang package.
+     * @return String to write to the generated classes.
+     */
+    private String getIdComponentParser(String type){
+        StringBuilder sb = new StringBuilder();
+        switch (type) {
+            case "Long", "Integer", "Short", "Byte" -> sb
+                    .append("   private static ").append(type).append(" parse").append(type).append("(String value, int start, int end){\n")
+                    .append("       boolean negative = start < end && value.charAt(start) == '-';\n")
+                    .append("       int i = negative ? start + 1 : start;\n")
+                    .append("       if (i == end) {\n")
+                    .append("           return null;\n")
+                    .append("       }\n")
+                    .append("       long limit = negative ? ").append(type).append(".MIN_VALUE : -").append(type).append(".MAX_VALUE;\n")
+                    .append("       long multmin = limit / 10;\n")
+                    .append("       long result = 0;\n")
+                    .append("       for (; i < end; i++) {\n")
+                    .append("           int digit = value.charAt(i) - '0';\n")
+                    .append("           if (digit < 0 || digit > 9 || result < multmin) {\n")
+                    .append("               return null;\n")
+                    .append("           }\n")
+                    .append("           result *= 10;\n")
+                    .append("           if (result < limit + digit) {\n")
+                    .append("               return null;\n")
+                    .append("           }\n")
+                    .append("           result -= digit;\n")
+                    .append("       }\n")
+                    .append("       return ").append(switch (type) {
+                        case "Integer" -> "(int) ";
+                        case "Short" -> "(short) ";
+                        case "Byte" -> "(byte) ";
+                        default -> "";
+                    }).append("(negative ? result : -result);\n")
+                    .append("   }\n\n");
+            case "java.util.UUID" -> sb
+                    .append("   private static java.util.UUID parseUuid(String value, int start, int end){\n")
+                    .append("       if (end - start != 36) {\n")
+                    .append("           return null;\n")
+                    .append("       }\n")
+                    .append("       long most = 0;\n")
+                    .append("       long least = 0;\n")
+                    .append("       for (int i = 0; i < 36; i++) {\n")
+                    .append("           char c = value.charAt(start + i);\n")
+                    .append("           if (i == 8 || i == 13 || i == 18 || i == 23) {\n")
+                    .append("               if (c != '-') {\n")
+                    .append("                   return null;\n")
+                    .append("               }\n")
+                    .append("               continue;\n")
+                    .append("           }\n")
+                    .append("           int digit = Character.digit(c, 16);\n")
+                    .append("           if (digit < 0) {\n")
+                    .append("               return null;\n")
+                    .append("           }\n")
+                    .append("           if (i < 18) {\n")
+                    .append("               most = (most << 4) | digit;\n")
+                    .append("           } else {\n")
+                    .append("               least = (least << 4) | digit;\n")
+                    .append("           }\n")
+                    .append("       }\n")
+                    .append("       return new java.util.UUID(most, least);\n")
+                    .append("   }\n\n");
+            case "String" -> sb
+                    .append("   private static String parseString(String value, int start, int end){\n")
+                    .append("       return start < end ? value.substring(start, end) : null;\n")
+                    .append("   }\n\n");
+            default -> sb
+                    .append("   private static <T> T convert(String value, int start, int end, Class<T> type){\n")
+                    .append("       try {\n")
+                    .append("           return org.springframework.core.convert.support.DefaultConversionService.getSharedInstance()\n")
+                    .append("               .convert(value.substring(start, end), type);\n")
+                    .append("       } catch (org.springframework.core.convert.ConversionException e) {\n")
+                    .append("           return null;\n")
+                    .append("       }\n")
+                    .append("   }\n\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Helper function to generate the route filter that compresses responses.
+     * Bodies are held back only until they reach the threshold, then every buffer is deflated into
+     * a fresh buffer from the response's factory as it streams out.
+     * Streamed (flushed) bodies are flushed per element and compressed whenever the client accepts it.
+     *
+     * @param rd RepositoryData: Record containing the user's compression threshold.
+     * @return String to write to the generated classes.
+     */
+    private String getCompression(RepositoryData rd){
+        if (rd.compressionThreshold() <= 0) {
+            return "";
+        }
+        return new StringBuilder()
+                .append("   private static final int COMPRESSION_THRESHOLD = ").append(rd.compressionThreshold()).append(";\n\n")
+                .append("   Mono<ServerResponse> compress(ServerRequest request, HandlerFunction<ServerResponse> next){\n")
+                .append("       String coding = Compression.negotiate(request.headers().header(HttpHeaders.ACCEPT_ENCODING));\n")
+                .append("       if (coding == null) {\n")
+                .append("           return next.handle(request);\n")
+                .append("       }\n")
+                .append("       return next.handle(request).map((response) -> new Compression.CompressingResponse(response, coding, COMPRESSION_THRESHOLD));\n")
+                .append("   }\n\n")
+                .append(COMPRESSION)
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the handler's Micrometer meters and the wrapper the router registers every route through.
+     * The registry is optional: without one the wrapper hands back the route's handler method and blocking calls are
+     * offloaded as before, so an application without Micrometer pays one null check per repository call.
+     * Meters are registered once per route when the router is built and tagged with the entity, path and route.
+     * Serialization runs in Spring's body writers and streamed bodies interleave encoding with writing, so encoding
+     * is timed together with the response write. Bytes are counted before any compression.
+     *
+     * @param rd RepositoryData: Record containing the entity name, the request path and whether Micrometer is present.
+     * @return String to write to the generated classes.
+     */
+    private String getMetrics(RepositoryData rd){
+        if (!rd.metrics()) {
+            return "";
+        }
+        return new StringBuilder()
+                .append("   private MeterRegistry meterRegistry;\n\n")
+                .append("   @Autowired\n")
+                .append("   void meterRegistry(ObjectProvider<MeterRegistry> registry){\n")
+                .append("       meterRegistry = registry.getIfAvailable();\n")
+                .append("   }\n\n")
+                .append("   HandlerFunction<ServerResponse> metered(String route, HandlerFunction<ServerResponse> handler){\n")
+                .append("       if (meterRegistry == null) {\n")
+                .append("           return handler;\n")
+                .append("       }\n")
+                .append("       Metrics.Meters meters = new Metrics.Meters(meterRegistry, \"").append(rd.entityName())
+                .append("\", \"").append(rd.reqPath()).append("\", route);\n")
+                .append("       return (request) -> {\n")
+                .append("           long start = System.nanoTime();\n")
+                .append("           return handler.handle(request)\n")
+                .append("               .<ServerResponse>map((response) -> new Metrics.MeteredResponse(response, meters, start))\n")
+                .append("               .doOnError((error) -> {\n")
+                .append("                   meters.errors.increment();\n")
+                .append("                   meters.requests.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);\n")
+                .append("               })\n")
+                .append("               .contextWrite((context) -> context.put(Metrics.Meters.class, meters));\n")
+                .append("       };\n")
+                .append("   }\n\n")
+                .append(METRICS)
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the admission control the router registers limited routes through.
+     * Each limited route gets its own limiter, which admits up to its limit of requests at once and holds a slot
+     * until the last byte of the response, since streamed bodies read from the database while they are written.
+     * Requests over the limit wait in a bounded queue without holding a thread; a full queue answers 429 at once
+     * and a request waiting longer than the timeout answers 503, so a slow database sheds load instead of piling
+     * requests onto the JDBC pool.
+     * An adaptive limiter samples how long each slot was held, which for these routes is mostly repository time.
+     * It compares that against a baseline that follows the fastest samples down at once and slower ones up slowly,
+     * and backs off multiplicatively when a request is twice as slow as the baseline or fails, growing back by one
+     * slot per limit of fast requests while at least half its slots are in use.
+     *
+     * @param rd RepositoryData: Record containing the user's concurrency limit, limit mode, queue size and timeout.
+     * @return String to write to the generated classes.
+     */
+    private String getLimiter(RepositoryData rd){
+        if (rd.concurrencyLimit() <= 0) {
+            return "";
+        }
+        return new StringBuilder()
+                .append("   private static final int CONCURRENCY_LIMIT = ").append(rd.concurrencyLimit()).append(";\n\n")
+                .append("   private static final int LIMIT_QUEUE_SIZE = ").append(Math.max(0, rd.limitQueueSize())).append(";\n\n")
+                .append(rd.limitTimeoutMillis() > 0
+                        ? "   private static final Duration LIMIT_TIMEOUT = Duration.ofMillis(" + rd.limitTimeoutMillis() + ");\n\n"
+                        : "")
+                .append("   private final Map<String, Limiter> limiters = new HashMap<>();\n\n")
+                .append("   HandlerFunction<ServerResponse> limited(String route, HandlerFunction<ServerResponse> handler){\n")
+                .append("       Limiter limiter = new Limiter(CONCURRENCY_LIMIT, LIMIT_QUEUE_SIZE, ").append(rd.limit() == Limit.ADAPTIVE).append(");\n")
+                .append("       limiters.put(route, limiter);\n")
+                .append("       return (request) -> limiter.acquire()\n")
+                .append(rd.limitTimeoutMillis() > 0
+                        ? "           .timeout(LIMIT_TIMEOUT, Mono.error(() -> new Limiter.Rejected(HttpStatus.SERVICE_UNAVAILABLE)))\n"
+                        : "")
+                .append("           .flatMap((permit) -> handler.handle(request)\n")
+                .append("               .<ServerResponse>map((response) -> new Limiter.LimitedResponse(response, permit))\n")
+                .append("               .doOnError((error) -> permit.release(true))\n")
+                .append("               .doOnCancel(() -> permit.release(false)))\n")
+                .append("           .onErrorResume(Limiter.Rejected.class, (rejected) -> ServerResponse.status(rejected.status).build());\n")
+                .append("   }\n\n")
+                .append("   public int routeLimit(String route){\n")
+                .append("       return limiters.get(route).limit();\n")
+                .append("   }\n\n")
+                .append(LIMITER)
+                .toString();
+    }
+
+    /**
+     * Limiter, permits and response wrapper carried by handlers with limited routes.
+     */
+    private static final String LIMITER = """
+               static final class Limiter {
+                   private static final double BACKOFF = 0.9;
+                   private static final long TOLERANCE = 2;
+
+                   private final int max;
+                   private final int queueSize;
+                   private final boolean adaptive;
+                   private final ArrayDeque<MonoSink<Permit>> waiting = new ArrayDeque<>();
+                   private double limit;
+                   private int inFlight;
+                   private long baseline = Long.MAX_VALUE;
+
+                   Limiter(int max, int queueSize, boolean adaptive){
+                       this.max = max;
+                       this.queueSize = queueSize;
+                       this.adaptive = adaptive;
+                       this.limit = max;
+                   }
+
+                   synchronized int limit(){
+                       return (int) limit;
+                   }
+
+                   Mono<Permit> acquire(){
+                       return Mono.create((sink) -> {
+                           boolean admitted;
+                           synchronized (this) {
+                               admitted = inFlight < (int) limit;
+                               if (admitted) {
+                                   inFlight++;
+                               } else if (waiting.size() < queueSize) {
+                                   waiting.add(sink);
+                                   sink.onCancel(() -> abandon(sink));
+                                   return;
+                               }
+                           }
+                           if (admitted) {
+                               sink.success(new Permit(this));
+                           } else {
+                               sink.error(new Rejected(HttpStatus.TOO_MANY_REQUESTS));
+                           }
+                       });
+                   }
+
+                   private void abandon(MonoSink<Permit> sink){
+                       boolean granted;
+                       synchronized (this) {
+                           granted = !waiting.remove(sink);
+                       }
+                       if (granted) {
+                           release(-1, false);
+                       }
+                   }
+
+                   private void release(long latency, boolean dropped){
+                       List<MonoSink<Permit>> granted = new ArrayList<>(1);
+                       synchronized (this) {
+                           inFlight--;
+                           if (adaptive && latency >= 0) {
+                               adapt(latency, dropped);
+                           }
+                           while (inFlight < (int) limit && !waiting.isEmpty()) {
+                               inFlight++;
+                               granted.add(waiting.poll());
+                           }
+                       }
+                       for (MonoSink<Permit> sink : granted) {
+                           sink.success(new Permit(this));
+                       }
+                   }
+
+                   private void adapt(long latency, boolean dropped){
+                       baseline = latency < baseline ? latency : baseline + (latency - baseline) / 64;
+                       if (dropped || latency > baseline * TOLERANCE) {
+                           limit = Math.max(1, limit * BACKOFF);
+                       } else if (inFlight + 1 >= limit / 2) {
+                           limit = Math.min(max, limit + 1 / limit);
+                       }
+                   }
+
+                   static final class Permit {
+                       private final Limiter limiter;
+                       private final long start = System.nanoTime();
+                       private final AtomicBoolean released = new AtomicBoolean();
+
+                       Permit(Limiter limiter){
+                           this.limiter = limiter;
+                       }
+
+                       void release(boolean dropped){
+                           if (released.compareAndSet(false, true)) {
+                               limiter.release(System.nanoTime() - start, dropped);
+                           }
+                       }
+                   }
+
+                   static final class Rejected extends RuntimeException {
+                       final HttpStatus status;
+
+                       Rejected(HttpStatus status){
+                           super(status.getReasonPhrase(), null, false, false);
+                           this.status = status;
+                       }
+                   }
+
+                   static final class LimitedResponse implements ServerResponse {
+                       private final ServerResponse delegate;
+                       private final Permit permit;
+
+                       LimitedResponse(ServerResponse delegate, Permit permit){
+                           this.delegate = delegate;
+                           this.permit = permit;
+                       }
+
+                       @Override
+                       public HttpStatusCode statusCode(){
+                           return delegate.statusCode();
+                       }
+
+                       @Override
+                       @SuppressWarnings("removal")
+                       public int rawStatusCode(){
+                           return delegate.statusCode().value();
+                       }
+
+                       @Override
+                       public HttpHeaders headers(){
+                           return delegate.headers();
+                       }
+
+                       @Override
+                       public MultiValueMap<String, ResponseCookie> cookies(){
+                           return delegate.cookies();
+                       }
+
+                       @Override
+                       public Mono<Void> writeTo(ServerWebExchange exchange, Context context){
+                           return delegate.writeTo(exchange, context)
+                               .doFinally((signal) -> permit.release(signal == SignalType.ON_ERROR
+                                   || delegate.statusCode().is5xxServerError()));
+                       }
+                   }
+               }
+
+            """;
+
+    /**
+     * Meters and response wrappers carried by handlers compiled against Micrometer.
+     */
+    private static final String METRICS = """
+               static final class Metrics {
+
+                   static final class Meters {
+                       final Timer requests;
+                       final Timer repository;
+                       final Timer write;
+                       final DistributionSummary bytes;
+                       final Counter errors;
+
+                       Meters(MeterRegistry registry, String entity, String path, String route){
+                           Tags tags = Tags.of("entity", entity, "path", path, "route", route);
+                           requests = Timer.builder("spread.requests")
+                               .description("Time from handling a request to writing the last byte of its response")
+                               .tags(tags)
+                               .publishPercentileHistogram()
+                               .register(registry);
+                           repository = Timer.builder("spread.repository")
+                               .description("Time spent in blocking repository calls")
+                               .tags(tags)
+                               .register(registry);
+                           write = Timer.builder("spread.response.write")
+                               .description("Time spent encoding and writing response bodies")
+                               .tags(tags)
+                               .register(registry);
+                           bytes = DistributionSummary.builder("spread.response.bytes")
+                               .description("Size of response bodies before compression")
+                               .baseUnit("bytes")
+                               .tags(tags)
+                               .register(registry);
+                           errors = Counter.builder("spread.errors")
+                               .description("Requests failing with an error or a 5xx status")
+                               .tags(tags)
+                               .register(registry);
+                       }
+                   }
+
+                   static final class MeteredResponse implements ServerResponse {
+                       private final ServerResponse delegate;
+                       private final Meters meters;
+                       private final long start;
+
+                       MeteredResponse(ServerResponse delegate, Meters meters, long start){
+                           this.delegate = delegate;
+                           this.meters = meters;
+                           this.start = start;
+                       }
+
+                       @Override
+                       public HttpStatusCode statusCode(){
+                           return delegate.statusCode();
+                       }
+
+                       @Override
+                       @SuppressWarnings("removal")
+                       public int rawStatusCode(){
+                           return delegate.statusCode().value();
+                       }
+
+                       @Override
+                       public HttpHeaders headers(){
+                           return delegate.headers();
+                       }
+
+                       @Override
+                       public MultiValueMap<String, ResponseCookie> cookies(){
+                           return delegate.cookies();
+                       }
+
+                       @Override
+                       public Mono<Void> writeTo(ServerWebExchange exchange, Context context){
+                           return Mono.defer(() -> {
+                               CountingHttpResponse response = new CountingHttpResponse(exchange.getResponse());
+                               long written = System.nanoTime();
+                               return delegate.writeTo(exchange.mutate().response(response).build(), context)
+                                   .doFinally((signal) -> {
+                                       long end = System.nanoTime();
+                                       meters.write.record(end - written, TimeUnit.NANOSECONDS);
+                                       meters.requests.record(end - start, TimeUnit.NANOSECONDS);
+                                       meters.bytes.record(response.bytes);
+                                       if (signal == SignalType.ON_ERROR || delegate.statusCode().is5xxServerError()) {
+                                           meters.errors.increment();
+                                       }
+                                   });
+                           });
+                       }
+                   }
+
+                   static final class CountingHttpResponse extends ServerHttpResponseDecorator {
+                       private long bytes;
+
+                       CountingHttpResponse(ServerHttpResponse delegate){
+                           super(delegate);
+                       }
+
+                       @Override
+                       public Mono<Void> writeWith(Publisher<? extends DataBuffer> body){
+                           return getDelegate().writeWith(Flux.<DataBuffer>from(body).doOnNext(this::count));
+                       }
+
+                       @Override
+                       public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body){
+                           return getDelegate().writeAndFlushWith(Flux.<Publisher<? extends DataBuffer>>from(body)
+                               .map((element) -> Flux.<DataBuffer>from(element).doOnNext(this::count)));
+                       }
+
+                       private void count(DataBuffer buffer){
+                           bytes += buffer.readableByteCount();
+                       }
+                   }
+               }
+
+            """;
+
+    /**
+     * Compression helpers carried by handlers that compress, so the generated code needs nothing
+     * at runtime beyond Spring.
+     */
+    private static final String COMPRESSION = """
+               static final class Compression {
+                   private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+                   private static final int CHUNK = 8192;
+
+                   static String negotiate(List<String> acceptEncoding){
+                       String found = null;
+                       for (String header : acceptEncoding) {
+                           for (String part : header.split(",")) {
+                               String[] params = part.split(";");
+                               if (params.length > 1 && isZeroQuality(params[1].trim())) {
+                                   continue;
+                               }
+                               String coding = params[0].trim().toLowerCase(Locale.ROOT);
+                               if (coding.equals("gzip")) {
+                                   return coding;
+                               }
+                               if (coding.equals("deflate")) {
+                                   found = coding;
+                               }
+                           }
+                       }
+                       return found;
+                   }
+
+                   private static boolean isZeroQuality(String param){
+                       if (!param.startsWith("q=0")) {
+                           return false;
+                       }
+                       for (int i = 3; i < param.length(); i++) {
+                           if (param.charAt(i) != '0' && !(i == 3 && param.charAt(i) == '.')) {
+                               return false;
+                           }
+                       }
+                       return true;
+                   }
+
+                   static final class CompressingResponse implements ServerResponse {
+                       private final ServerResponse delegate;
+                       private final String coding;
+                       private final int threshold;
+
+                       CompressingResponse(ServerResponse delegate, String coding, int threshold){
+                           this.delegate = delegate;
+                           this.coding = coding;
+                           this.threshold = threshold;
+                       }
+
+                       @Override
+                       public HttpStatusCode statusCode(){
+                           return delegate.statusCode();
+                       }
+
+                       @Override
+                       @SuppressWarnings("removal")
+                       public int rawStatusCode(){
+                           return delegate.statusCode().value();
+                       }
+
+                       @Override
+                       public HttpHeaders headers(){
+                           return delegate.headers();
+                       }
+
+                       @Override
+                       public MultiValueMap<String, ResponseCookie> cookies(){
+                           return delegate.cookies();
+                       }
+
+                       @Override
+                       public Mono<Void> writeTo(ServerWebExchange exchange, Context context){
+                           ServerHttpResponse response = new CompressingHttpResponse(exchange.getResponse(), coding, threshold);
+                           return delegate.writeTo(exchange.mutate().response(response).build(), context);
+                       }
+                   }
+
+                   static final class CompressingHttpResponse extends ServerHttpResponseDecorator {
+                       private final String coding;
+                       private final int threshold;
+
+                       CompressingHttpResponse(ServerHttpResponse delegate, String coding, int threshold){
+                           super(delegate);
+                           this.coding = coding;
+                           this.threshold = threshold;
+                       }
+
+                       @Override
+                       public Mono<Void> writeWith(Publisher<? extends DataBuffer> body){
+                           long[] size = new long[1];
+                           return Flux.<DataBuffer>from(body)
+                               .bufferUntil((buffer) -> (size[0] += buffer.readableByteCount()) >= threshold)
+                               .switchOnFirst((first, groups) -> {
+                                   Flux<DataBuffer> buffers = groups.concatMapIterable((group) -> group);
+                                   if (!first.hasValue() || size[0] < threshold || !compressible()) {
+                                       return getDelegate().writeWith(buffers);
+                                   }
+                                   StreamDeflater deflater = new StreamDeflater(bufferFactory(), coding);
+                                   return getDelegate().writeWith(buffers
+                                       .concatMapIterable((buffer) -> deflater.write(buffer, Deflater.NO_FLUSH))
+                                       .concatWith(Flux.defer(() -> Flux.fromIterable(deflater.finish())))
+                                       .doFinally((signal) -> deflater.end()));
+                               })
+                               .then();
+                       }
+
+                       @Override
+                       public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body){
+                           if (!compressible()) {
+                               return getDelegate().writeAndFlushWith(body);
+                           }
+                           StreamDeflater deflater = new StreamDeflater(bufferFactory(), coding);
+                           return getDelegate().writeAndFlushWith(Flux.<Publisher<? extends DataBuffer>>from(body)
+                               .map((element) -> Flux.<DataBuffer>from(element)
+                                   .concatMapIterable((buffer) -> deflater.write(buffer, Deflater.NO_FLUSH))
+                                   .concatWith(Flux.defer(() -> Flux.fromIterable(deflater.flush()))))
+                               .concatWith(Mono.fromSupplier(() -> Flux.fromIterable(deflater.finish())))
+                               .doOnCancel(deflater::end)
+                               .doOnError((error) -> deflater.end()));
+                       }
+
+                       private boolean compressible(){
+                           HttpHeaders headers = getHeaders();
+                           if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                               return false;
+                           }
+                           headers.remove(HttpHeaders.CONTENT_LENGTH);
+                           headers.set(HttpHeaders.CONTENT_ENCODING, coding);
+                           headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                           String etag = headers.getETag();
+                           if (etag != null && etag.startsWith("\\"")) {
+                               headers.setETag("W/" + etag);
+                           }
+                           return true;
+                       }
+                   }
+
+                   static final class StreamDeflater {
+                       private final DataBufferFactory factory;
+                       private final boolean gzip;
+                       private final Deflater deflater;
+                       private final CRC32 crc = new CRC32();
+                       private boolean started;
+
+                       StreamDeflater(DataBufferFactory factory, String coding){
+                           this.factory = factory;
+                           this.gzip = coding.equals("gzip");
+                           this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, gzip);
+                       }
+
+                       List<DataBuffer> write(DataBuffer in, int flush){
+                           List<DataBuffer> out = new ArrayList<>(2);
+                           try {
+                               start(out);
+                               try (DataBuffer.ByteBufferIterator chunks = in.readableByteBuffers()) {
+                                   while (chunks.hasNext()) {
+                                       ByteBuffer chunk = chunks.next();
+                                       if (gzip) {
+                                           crc.update(chunk.duplicate());
+                                       }
+                                       deflater.setInput(chunk);
+                                       while (!deflater.needsInput()) {
+                                           deflate(out, Deflater.NO_FLUSH);
+                                       }
+                                   }
+                               }
+                               if (flush != Deflater.NO_FLUSH) {
+                                   while (deflate(out, flush)) {
+                                   }
+                               }
+                               return out;
+                           } catch (RuntimeException e) {
+                               out.forEach(DataBufferUtils::release);
+                               throw e;
+                           } finally {
+                               DataBufferUtils.release(in);
+                           }
+                       }
+
+                       List<DataBuffer> flush(){
+                           List<DataBuffer> out = new ArrayList<>(1);
+                           start(out);
+                           while (deflate(out, Deflater.SYNC_FLUSH)) {
+                           }
+                           return out;
+                       }
+
+                       List<DataBuffer> finish(){
+                           List<DataBuffer> out = new ArrayList<>(2);
+                           start(out);
+                           deflater.finish();
+                           while (!deflater.finished()) {
+                               deflate(out, Deflater.NO_FLUSH);
+                           }
+                           if (gzip) {
+                               DataBuffer trailer = factory.allocateBuffer(8);
+                               writeInt(trailer, (int) crc.getValue());
+                               writeInt(trailer, (int) deflater.getBytesRead());
+                               out.add(trailer);
+                           }
+                           end();
+                           return out;
+                       }
+
+                       void end(){
+                           deflater.end();
+                       }
+
+                       private void start(List<DataBuffer> out){
+                           if (gzip && !started) {
+                               out.add(factory.allocateBuffer(GZIP_HEADER.length).write(GZIP_HEADER));
+                           }
+                           started = true;
+                       }
+
+                       /**
+                        * Deflates into a new buffer and reports whether it was filled, which means more output is pending.
+                        */
+                       private boolean deflate(List<DataBuffer> out, int flush){
+                           DataBuffer buffer = factory.allocateBuffer(CHUNK);
+                           int room;
+                           int written;
+                           try (DataBuffer.ByteBufferIterator chunks = buffer.writableByteBuffers()) {
+                               ByteBuffer chunk = chunks.next();
+                               room = chunk.remaining();
+                               written = deflater.deflate(chunk, flush);
+                           }
+                           if (written == 0) {
+                               DataBufferUtils.release(buffer);
+                           } else {
+                               buffer.writePosition(buffer.writePosition() + written);
+                               out.add(buffer);
+                           }
+                           return written == room;
+                       }
+
+                       private static void writeInt(DataBuffer out, int value){
+                           out.write((byte) value);
+                           out.write((byte) (value >>> 8));
+                           out.write((byte) (value >>> 16));
+                           out.write((byte) (value >>> 24));
+                       }
+                   }
+               }
+
+            """;
+
+    /**
+     * Helper function to generate the read-through cache used by GET-by-id.
+     * Entries hold the serialized entity so a hit skips both JPA and encoding. The map is kept in
+     * access order and guarded by its own monitor, which makes it an LRU bounded by the cache size.
+     * Writes bump a stamp under the same monitor, so a read that raced a write cannot put stale bytes back.
+     *
+     * @param rd RepositoryData: Record containing the user's cache size and lifetime.
+     * @return String to write to the generated classes.
+     */
+    private String getCacheMembers(RepositoryData rd){
+        if (rd.cache() <= 0) {
+            return "";
+        }
+        long ttlSeconds = rd.cacheTtlSeconds() > 0 ? rd.cacheTtlSeconds() : 60;
+        return new StringBuilder()
+                .append("   private static final int CACHE_SIZE = ").append(rd.cache()).append(";\n\n")
+                .append("   private static final long CACHE_TTL_NANOS = ").append(ttlSeconds * 1_000_000_000L).append("L;\n\n")
+                .append("   private record Cached(byte[] body, String etag, long expiresAt){}\n\n")
+                .append("   private final LongAdder cacheHits = new LongAdder();\n\n")
+                .append("   private final LongAdder cacheMisses = new LongAdder();\n\n")
+                .append("   private final LongAdder cacheEvictions = new LongAdder();\n\n")
+                .append("   private long cacheStamp;\n\n")
+                .append("   private final LinkedHashMap<Object, Cached> cache = new LinkedHashMap<>(16, 0.75f, true){\n")
+                .append("       @Override\n")
+                .append("       protected boolean removeEldestEntry(Map.Entry<Object, Cached> eldest){\n")
+                .append("           if (size() <= CACHE_SIZE) {\n")
+                .append("               return false;\n")
+                .append("           }\n")
+                .append("           cacheEvictions.increment();\n")
+                .append("           return true;\n")
+                .append("       }\n")
+                .append("   };\n\n")
+                .append("   private Cached cacheGet(Object id){\n")
+                .append("       synchronized (cache) {\n")
+                .append("           Cached cached = cache.get(id);\n")
+                .append("           if (cached != null && cached.expiresAt() - System.nanoTime() < 0) {\n")
+                .append("               cache.remove(id);\n")
+                .append("               cacheEvictions.increment();\n")
+                .append("               cached = null;\n")
+                .append("           }\n")
+                .append("           if (cached == null) {\n")
+                .append("               cacheMisses.increment();\n")
+                .append("               return null;\n")
+                .append("           }\n")
+                .append("           cacheHits.increment();\n")
+                .append("           return cached;\n")
+                .append("       }\n")
+                .append("   }\n\n")
+                .append("   private long cacheStamp(){\n")
+                .append("       synchronized (cache) {\n")
+                .append("           return cacheStamp;\n")
+                .append("       }\n")
+                .append("   }\n\n")
+                .append("   private Cached cachePut(Object id, byte[] body, String etag, long stamp){\n")
+                .append("       Cached cached = new Cached(body, etag, System.nanoTime() + CACHE_TTL_NANOS);\n")
+                .append("       synchronized (cache) {\n")
+                .append("           if (stamp == cacheStamp) {\n")
+                .append("               cache.put(id, cached);\n")
+                .append("           }\n")
+                .append("       }\n")
+                .append("       return cached;\n")
+                .append("   }\n\n")
+                .append("   private void cacheInvalidate(Object id){\n")
+                .append("       synchronized (cache) {\n")
+                .append("           cacheStamp++;\n")
+                .append("           cache.remove(id);\n")
+                .append("       }\n")
+                .append("   }\n\n")
+                .append("   private ").append(rd.entityName()).append(" evicting(").append(rd.entityName()).append(" saved){\n")
+                .append("       cacheInvalidate(entityManagerFactory.getPersistenceUnitUtil().getIdentifier(saved));\n")
+                .append("       return saved;\n")
+                .append("   }\n\n")
+                .append("   public long cacheHits(){\n")
+                .append("       return cacheHits.sum();\n")
+                .append("   }\n\n")
+                .append("   public long cacheMisses(){\n")
+                .append("       return cacheMisses.sum();\n")
+                .append("   }\n\n")
+                .append("   public long cacheEvictions(){\n")
+                .append("       return cacheEvictions.sum();\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the change feed the generated writes publish to.
+     * Changes go to a multicast sink that never blocks a write: each subscriber reads through its own bounded
+     * buffer, and once that is full it misses changes according to the user's overflow policy. Every change
+     * carries a sequence number, so a subscriber that missed some can tell and read the rows again.
+     *
+     * @param rd RepositoryData: Record containing the entity and the user's change feed buffer and overflow policy.
+     * @return String to write to the generated classes.
+     */
+    private String getChangeFeed(RepositoryData rd){
+        if (rd.changes() <= 0) {
+            return "";
+        }
+        String entity = rd.entityName();
+        return new StringBuilder()
+                .append("   private static final int CHANGES_BUFFER = ").append(rd.changes()).append(";\n\n")
+                .append("   public record Change(long sequence, String type, Object id){}\n\n")
+                .append("   private final Sinks.Many<Change> changeFeed = Sinks.many().multicast().directBestEffort();\n\n")
+                .append("   private long changeSequence;\n\n")
+                .append("   private void publish(String type, Object id){\n")
+                .append("       synchronized (changeFeed) {\n")
+                .append("           changeFeed.tryEmitNext(new Change(++changeSequence, type, id));\n")
+                .append("       }\n")
+                .append("   }\n\n")
+                .append("   private ").append(entity).append(" published(").append(entity).append(" saved){\n")
+                .append("       publish(\"SAVED\", entityManagerFactory.getPersistenceUnitUtil().getIdentifier(saved));\n")
+                .append("       return saved;\n")
+                .append("   }\n\n")
+                .append("   public int changeSubscribers(){\n")
+                .append("       return changeFeed.currentSubscriberCount();\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the change feed route, which streams server-sent events, or NDJSON when the
+     * client accepts it. The stream opens with an empty comment, or an empty line for NDJSON, so the status and
+     * headers are sent before the first change, and repeats it every CHANGES_HEARTBEAT so idle proxies keep the
+     * connection open. NDJSON changes are encoded one line at a time with the Change encoder of the codecs,
+     * so the blank lines can go between them.
+     *
+     * @param rd RepositoryData: Record containing the user's overflow policy.
+     * @return String to write to the generated classes.
+     */
+    private String getChanges(RepositoryData rd){
+        String strategy = rd.changesOverflow() == Overflow.DROP ? "DROP_LATEST" : "DROP_OLDEST";
+        return new StringBuilder()
+                .append("   private static final Duration CHANGES_HEARTBEAT = Duration.ofSeconds(15);\n\n")
+                .append("   private static final ResolvableType CHANGE_TYPE = ResolvableType.forClass(Change.class);\n\n")
+                .append("   private static final byte[] NEWLINE = {'\\n'};\n\n")
+                .append("   Mono<ServerResponse> changes(ServerRequest request){\n")
+                .append("       Flux<Change> feed = changeFeed.asFlux()\n")
+                .append("           .onBackpressureBuffer(CHANGES_BUFFER, (missed) -> { }, BufferOverflowStrategy.").append(strategy).append(");\n")
+                .append("       Flux<Long> heartbeat = Flux.interval(CHANGES_HEARTBEAT).onBackpressureDrop();\n\n")
+                .append("       if (ndjson(request)) {\n")
+                .append("           return ServerResponse\n")
+                .append("               .ok()\n")
+                .append("               .contentType(MediaType.APPLICATION_NDJSON)\n")
+                .append("               .body((response, context) -> {\n")
+                .append("                   Encoder<Change> encoder = changeEncoder(context);\n")
+                .append("                   DataBufferFactory factory = response.bufferFactory();\n")
+                .append("                   return response.writeAndFlushWith(Flux.merge(\n")
+                .append("                           feed.map((change) -> Flux.just(\n")
+                .append("                               encoder.encodeValue(change, factory, CHANGE_TYPE, MediaType.APPLICATION_NDJSON, Map.of()),\n")
+                .append("                               factory.wrap(NEWLINE)\n")
+                .append("                           )),\n")
+                .append("                           heartbeat.map((tick) -> Flux.just(factory.wrap(NEWLINE)))\n")
+                .append("                       )\n")
+                .append("                       .startWith(List.of(Flux.just(factory.wrap(NEWLINE)))));\n")
+                .append("               });\n")
+                .append("       }\n")
+                .append("       ServerSentEvent<Change> comment = ServerSentEvent.<Change>builder().comment(\"\").build();\n")
+                .append("       return ServerResponse\n")
+                .append("           .ok()\n")
+                .append("           .contentType(MediaType.TEXT_EVENT_STREAM)\n")
+                .append("           .body(BodyInserters.fromServerSentEvents(Flux.merge(\n")
+                .append("                   feed.map((change) -> ServerSentEvent.builder(change)\n")
+                .append("                       .id(String.valueOf(change.sequence()))\n")
+                .append("                       .event(change.type())\n")
+                .append("                       .build()),\n")
+                .append("                   heartbeat.map((tick) -> comment)\n")
+                .append("               )\n")
+                .append("               .startWith(comment)));\n")
+                .append("   }\n\n")
+                .append("   @SuppressWarnings(\"unchecked\")\n")
+                .append("   private static Encoder<Change> changeEncoder(BodyInserter.Context context){\n")
+                .append("       return context.messageWriters().stream()\n")
+                .append("           .filter((writer) -> writer instanceof EncoderHttpMessageWriter<?> && writer.canWrite(CHANGE_TYPE, MediaType.APPLICATION_NDJSON))\n")
+                .append("           .map((writer) -> (Encoder<Change>) ((EncoderHttpMessageWriter<?>) writer).getEncoder())\n")
+                .append("           .findFirst()\n")
+                .append("           .orElseThrow(() -> new IllegalStateException(\"No NDJSON encoder for \" + Change.class.getName()));\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the single-flight table used by GET-by-id when requests are coalesced.
+     * The first request for an id starts the lookup and publishes it in a ConcurrentHashMap, whose reads take no
+     * lock and whose inserts lock only the bin they land in; concurrent requests for the id join that lookup.
+     * The lookup is subscribed apart from the request that started it, so a client going away does not fail the
+     * others, and it leaves the table before it completes, so later requests start a fresh lookup.
+     * It still runs with that request's context, so its metrics are recorded against the request's meters.
+     *
+     * @param rd RepositoryData: Record containing the user's coalescing switch and cache size.
+     * @return String to write to the generated classes.
+     */
+    private String getCoalescing(RepositoryData rd){
+        if (!rd.coalesce()) {
+            return "";
+        }
+        String shared = rd.cache() > 0 ? "Cached" : "Loaded";
+        StringBuilder sb = new StringBuilder();
+        if (rd.cache() <= 0) {
+            sb.append("   private record Loaded(byte[] body, String etag){}\n\n");
+        }
+        return sb.append("   private final ConcurrentHashMap<Object, CompletableFuture<").append(shared).append(">> inFlight = new ConcurrentHashMap<>();\n\n")
+                .append("   private final LongAdder coalescedJoins = new LongAdder();\n\n")
+                .append("   private Mono<").append(shared).append("> coalesced(Object id, Callable<").append(shared).append("> load){\n")
+                .append("       return Mono.deferContextual((context) -> {\n")
+                .append("           CompletableFuture<").append(shared).append("> pending = inFlight.get(id);\n")
+                .append("           if (pending == null) {\n")
+                .append("               CompletableFuture<").append(shared).append("> started = new CompletableFuture<>();\n")
+                .append("               pending = inFlight.putIfAbsent(id, started);\n")
+                .append("               if (pending == null) {\n")
+                .append("                   blocking(load).contextWrite(context).subscribe(\n")
+                .append("                       (loaded) -> {\n")
+                .append("                           inFlight.remove(id, started);\n")
+                .append("                           started.complete(loaded);\n")
+                .append("                       },\n")
+                .append("                       (error) -> {\n")
+                .append("                           inFlight.remove(id, started);\n")
+                .append("                           started.completeExceptionally(error);\n")
+                .append("                       }\n")
+                .append("                   );\n")
+                .append("                   return Mono.fromFuture(started, true);\n")
+                .append("               }\n")
+                .append("           }\n")
+                .append("           coalescedJoins.increment();\n")
+                .append("           return Mono.fromFuture(pending, true);\n")
+                .append("       });\n")
+                .append("   }\n\n")
+                .append("   public long coalescedJoins(){\n")
+                .append("       return coalescedJoins.sum();\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the method that serializes one entity to the bytes the cache keeps.
+     *
+     * @param rd RepositoryData: Record containing the serializer provided by user.
+     * @return String to write to the generated classes.
+     */
+    private String getToBytes(RepositoryData rd){
+        StringBuilder sb = new StringBuilder()
+                .append("   private byte[] toBytes(").append(rd.entityName()).append(" value) throws Exception {\n");
+        switch (rd.serializer()) {
+            case GSON, GENERATED -> {
+                String write = rd.serializer() == Serializer.GSON
+                        ? "encode(DefaultDataBufferFactory.sharedInstance, ENTITY_ADAPTER, value, \"\", \"\")"
+                        : rd.entityName() + CodecGenerator.CODEC_SUFFIX + ".write(DefaultDataBufferFactory.sharedInstance, value)";
+                sb.append("       DataBuffer buffer = ").append(write).append(";\n")
+                        .append("       try {\n")
+                        .append("           byte[] bytes = new byte[buffer.readableByteCount()];\n")
+                        .append("           buffer.read(bytes);\n")
+                        .append("           return bytes;\n")
+                        .append("       } finally {\n")
+                        .append("           DataBufferUtils.release(buffer);\n")
+                        .append("       }\n");
+            }
+            case JACKSON -> sb.append("       return objectMapper.writeValueAsBytes(value);\n");
+            case KOTLIN -> sb.append("       return Json.encodeToString(value).getBytes(java.nio.charset.StandardCharsets.UTF_8);\n");
+        }
+        return sb.append("   }\n\n").toString();
+    }
+
+    /**
+     * Wraps a save so the saved entity's cache entry is invalidated, when the cache is enabled,
+     * and its id is published to the change feed, when the feed is enabled.
+     *
+     * @param rd RepositoryData: Record containing the user's cache size and change feed buffer.
+     * @return Format String taking the save expression.
+     */
+    private String getSaveStatement(RepositoryData rd){
+        String save = rd.cache() > 0 ? "evicting(%s)" : "%s";
+        return rd.changes() > 0 ? String.format("published(%s)", save) : save;
+    }
+
+    /**
+     * Helper function to generate the page size caps and the fields clients may sort by.
+     *
+     * @param rd RepositoryData: Record containing the user's page size cap and the entity's fields.
+     * @return String to write to the generated classes.
+     */
+    private String getPageConstants(RepositoryData rd){
+        int maxPageSize = rd.maxPageSize() > 0 ? rd.maxPageSize() : 100;
+        return new StringBuilder()
+                .append("   private static final int MAX_PAGE_SIZE = ").append(maxPageSize).append(";\n\n")
+                .append("   private static final int DEFAULT_PAGE_SIZE = ").append(Math.min(20, maxPageSize)).append(";\n\n")
+                .append("   private static final Set<String> SORTABLE = Set.of(")
+                .append(rd.entityFields().stream().map((field) -> "\"" + field.name() + "\"").collect(Collectors.joining(", ")))
+                .append(");\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the query parameter parsing used by the paged GET.
+     * Both return a sentinel instead of throwing so the handler can answer 400 Bad Request.
+     *
+     * @return String to write to the generated classes.
+     */
+    private String getPageParams(){
+        return new StringBuilder()
+                .append("   private static int intParam(ServerRequest request, String name, int fallback){\n")
+                .append("       Optional<String> value = request.queryParam(name);\n")
+                .append("       if (value.isEmpty()) {\n")
+                .append("           return fallback;\n")
+                .append("       }\n")
+                .append("       try {\n")
+                .append("           return Integer.parseInt(value.get());\n")
+                .append("       } catch (NumberFormatException nfe) {\n")
+                .append("           return -1;\n")
+                .append("       }\n")
+                .append("   }\n\n")
+                .append("   private static Sort sortParam(ServerRequest request){\n")
+                .append("       Sort sort = Sort.unsorted();\n")
+                .append("       for (String param : request.queryParams().getOrDefault(\"sort\", List.of())) {\n")
+                .append("           String[] parts = param.split(\",\");\n")
+                .append("           if (parts.length > 2 || !SORTABLE.contains(parts[0])) {\n")
+                .append("               return null;\n")
+                .append("           }\n")
+                .append("           Optional<Sort.Direction> direction = parts.length == 2\n")
+                .append("               ? Sort.Direction.fromOptionalString(parts[1])\n")
+                .append("               : Optional.of(Sort.Direction.ASC);\n")
+                .append("           if (direction.isEmpty()) {\n")
+                .append("               return null;\n")
+                .append("           }\n")
+                .append("           sort = sort.and(Sort.by(direction.get(), parts[0]));\n")
+                .append("       }\n")
+                .append("       return sort;\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the scheduler the handler offloads blocking repository calls onto.
+     * Keeps JDBC round-trips off of the Netty event loop.
+     *
+     * @param rd RepositoryData: Record containing the user's execution mode and caps.
+     * @return String to write to the generated classes.
+     */
+    private String getScheduler(RepositoryData rd){
+        if (rd.execution() == Execution.VIRTUAL_THREADS) {
+            String permits = rd.maxConcurrency() > 0
+                    ? String.valueOf(rd.maxConcurrency())
+                    : "Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE";
+            return new StringBuilder()
+                    .append("   private final Scheduler scheduler = Schedulers.fromExecutorService(\n")
+                    .append("           Executors.newVirtualThreadPerTaskExecutor(),\n")
+                    .append("           \"spread-").append(rd.entityName()).append("\"\n")
+                    .append("   );\n\n")
+                    .append("   private final Semaphore permits = new Semaphore(").append(permits).append(");\n\n")
+                    .toString();
+        }
+        String threads = rd.schedulerThreads() > 0
+                ? String.valueOf(rd.schedulerThreads())
+                : "Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE";
+        String queueSize = rd.schedulerQueueSize() > 0
+                ? String.valueOf(rd.schedulerQueueSize())
+                : "Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE";
+        return new StringBuilder()
+                .append("   private final Scheduler scheduler = Schedulers.newBoundedElastic(\n")
+                .append("           ").append(threads).append(",\n")
+                .append("           ").append(queueSize).append(",\n")
+                .append("           \"spread-").append(rd.entityName()).append("\"\n")
+                .append("   );\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the method that runs a blocking repository call on the handler's scheduler.
+     * Virtual threads park on the permits rather than holding a platform thread while the JDBC pool is busy.
+     * With Micrometer present, calls made for a metered route are timed on the route's repository timer.
+     *
+     * @param execution Execution mode provided by user.
+     * @param metrics Whether the handler carries Micrometer meters.
+     * @return String to write to the generated classes.
+     */
+    private String getBlocking(Execution execution, boolean metrics){
+        StringBuilder sb = new StringBuilder();
+        if (metrics) {
+            sb.append("   private <T> Mono<T> blocking(Callable<T> call){\n")
+                    .append("       if (meterRegistry == null) {\n")
+                    .append("           return offload(call);\n")
+                    .append("       }\n")
+                    .append("       return Mono.deferContextual((context) -> offload(context.<Metrics.Meters>getOrEmpty(Metrics.Meters.class)\n")
+                    .append("           .<Callable<T>>map((meters) -> () -> meters.repository.recordCallable(call))\n")
+                    .append("           .orElse(call)));\n")
+                    .append("   }\n\n");
+        }
+        sb.append("   private <T> Mono<T> ").append(metrics ? "offload" : "blocking").append("(Callable<T> call){\n");
+        if (execution == Execution.VIRTUAL_THREADS) {
+            sb.append("       return Mono.fromCallable(() -> {\n")
+                    .append("           permits.acquire();\n")
+                    .append("           try {\n")
+                    .append("               return call.call();\n")
+                    .append("           } finally {\n")
+                    .append("               permits.release();\n")
+                    .append("           }\n")
+                    .append("       }).subscribeOn(scheduler);\n");
+        } else {
+            sb.append("       return Mono.fromCallable(call).subscribeOn(scheduler);\n");
+        }
+        return sb.append("   }\n\n").toString();
+    }
+
+    /**
+     * Helper function to generate the method that streams query results on the handler's scheduler.
+     * Each stream gets its own EntityManager so the cursor stays open until the response is written.
+     * Queries reading entities detach them as they are emitted so the persistence context does not grow with the table.
+     *
+     * @param execution Execution mode provided by user.
+     * @return String to write to the generated classes.
+     */
+    private String getStreaming(Execution execution){
+        StringBuilder sb = new StringBuilder()
+                .append("   private <T> Flux<T> streaming(Function<EntityManager, Stream<T>> query){\n")
+                .append("       return Flux.using(\n");
+        if (execution == Execution.VIRTUAL_THREADS) {
+            sb.append("               () -> {\n")
+                    .append("                   permits.acquire();\n")
+                    .append("                   try {\n")
+                    .append("                       return entityManagerFactory.createEntityManager();\n")
+                    .append("                   } catch (RuntimeException e) {\n")
+                    .append("                       permits.release();\n")
+                    .append("                       throw e;\n")
+                    .append("                   }\n")
+                    .append("               },\n")
+                    .append("               (em) -> Flux.fromStream(() -> query.apply(em)),\n")
+                    .append("               (em) -> {\n")
+                    .append("                   try {\n")
+                    .append("                       em.close();\n")
+                    .append("                   } finally {\n")
+                    .append("                       permits.release();\n")
+                    .append("                   }\n")
+                    .append("               }\n");
+        } else {
+            sb.append("               entityManagerFactory::createEntityManager,\n")
+                    .append("               (em) -> Flux.fromStream(() -> query.apply(em)),\n")
+                    .append("               EntityManager::close\n");
+        }
+        return sb.append("           )\n")
+                .append("           .subscribeOn(scheduler)\n")
+                .append("           .limitRate(FETCH_SIZE);\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Gets the super class of the annotated repository and gets the
+     * Entity via TypeMirror.
+     * @param element The annotated interface.
+     * @return The fully qualified name of the entity.
+     */
+    private String getRepoEntity(Element element){
+        String[] fqn = getRepoEntityElement(element)
+                .getQualifiedName()
+                .toString().split("\\.");
+        return fqn[fqn.length-1];
+    }
+
+    /**
+     * Gets the super class of the annotated repository and gets the
+     * Entity's element via TypeMirror.
+     * @param element The annotated interface.
+     * @return The TypeElement of the entity.
+     */
+    private TypeElement getRepoEntityElement(Element element){
+        return (TypeElement) ((DeclaredType) getRepoTypeArguments(element).getFirst()).asElement();
+    }
 
-        elements.forEach((element) -> {
-            if (element.getKind().isInterface()) {
-                    if (doesAnnotatedClassInheritJpaRepo(element)) {
-                        RepositoryData data = repositoryDataFromElement(element);
-                        generateRouter(data);
-                        generateHandler(data);
+    /**
+     * Gets the id type the repository declares as the second type argument of JpaRepository.
+     *
+     * @param element The annotated interface.
+     * @return The fully qualified name of the id type.
+     */
+    private String getRepoIdType(Element element){
+        return getTypeName(getRepoTypeArguments(element).get(1));
+    }
+
+    /**
+     * Gets the type arguments the annotated repository passes to JpaRepository.
+     *
+     * @param element The annotated interface.
+     * @return The entity and id type arguments.
+     */
+    private List<? extends TypeMirror> getRepoTypeArguments(Element element){
+        return ((DeclaredType) processingEnv
+                    .getTypeUtils()
+                    .directSupertypes(element.asType())
+                    .stream()
+                    .filter(type -> type.toString().contains(JPA_FQN))
+                    .findFirst()
+                    .orElseThrow())
+                .getTypeArguments();
+    }
+
+    /**
+     * Finds the composite id class of the entity: the type of its @EmbeddedId field, or the value of
+     * the @IdClass on the entity or one of its super classes.
+     *
+     * @param entity The entity's element.
+     * @param fields The entity's persistent fields.
+     * @return The id class, null when the entity has a simple id.
+     */
+    private TypeElement getIdClassElement(TypeElement entity, List<VariableElement> fields){
+        for (VariableElement field : fields) {
+            if (hasAnnotation(field, EMBEDDED_ID_ANNOTATIONS) && field.asType().getKind() == TypeKind.DECLARED) {
+                return (TypeElement) ((DeclaredType) field.asType()).asElement();
+            }
+        }
+        for (TypeElement type = entity; type != null; ) {
+            for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+                String name = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+                if (ID_CLASS_ANNOTATIONS.contains(name)) {
+                    for (AnnotationValue value : mirror.getElementValues().values()) {
+                        if (value.getValue() instanceof DeclaredType idClass) {
+                            return (TypeElement) idClass.asElement();
+                        }
                     }
+                }
             }
-        });
-
+            TypeMirror superclass = type.getSuperclass();
+            type = superclass.getKind() == TypeKind.DECLARED
+                    ? (TypeElement) ((DeclaredType) superclass).asElement()
+                    : null;
+        }
+        return null;
+    }
 
-        return true;
+    /**
+     * Checks that the generated handler can parse the repository's ids.
+     * The repository's id type must be the entity's, and a composite id class needs a public no argument
+     * constructor and a public setter for each of its fields.
+     * Every problem is reported against the annotated interface.
+     *
+     * @param rd RepositoryData: Record containing the entity's id.
+     * @param element The annotated interface.
+     * @return boolean. Whether the router and handler can be generated.
+     */
+    private boolean isIdValid(RepositoryData rd, Element element){
+        String entityIdType = rd.idFields().isEmpty() ? getId(rd).type() : null;
+        if (entityIdType != null && !simpleLang(boxed(entityIdType)).equals(simpleLang(rd.idType()))) {
+            error(element, rd.repoSimpleName() + " declares id type " + rd.idType() + " but " + rd.entityName() + "." + rd.idField() + " is " + entityIdType);
+            return false;
+        }
+        boolean valid = true;
+        if (!rd.idFields().isEmpty()) {
+            TypeElement idClass = processingEnv.getElementUtils().getTypeElement(rd.idType());
+            boolean constructor = idClass != null && ElementFilter.constructorsIn(idClass.getEnclosedElements()).stream()
+                    .anyMatch((c) -> c.getParameters().isEmpty() && c.getModifiers().contains(Modifier.PUBLIC));
+            if (!constructor) {
+                error(element, rd.idType() + " needs a public no argument constructor to be parsed from the id parameter");
+                valid = false;
+            }
+            boolean matchedByField = !getId(rd).type().equals(rd.idType());
+            for (FieldData field : rd.idFields()) {
+                if (field.setter() == null) {
+                    error(element, rd.idType() + "." + field.name() + " needs a public setter to be parsed from the id parameter");
+                    valid = false;
+                }
+                if (matchedByField && field.getter() == null) {
+                    error(element, rd.idType() + "." + field.name() + " needs a public getter to select the fields of an id");
+                    valid = false;
+                }
+            }
+        }
+        return valid;
     }
 
     /**
-     * Creates the router file.
+     * Checks that every field the user lets clients select is a persistent, non association field of the entity,
+     * named once, so the generated lookup table only holds columns a tuple query can select.
+     * Every problem is reported against the annotated interface.
      *
-     * @param rd RepositoryData: Record containing metadata needed to generate the Router.
+     * @param rd RepositoryData: Record containing the projectable fields.
+     * @param element The annotated interface.
+     * @return boolean. Whether the router and handler can be generated.
      */
-    private void generateRouter(RepositoryData rd) {
-        String spreadPackage = rd.interfacePackage() + PACKAGE_SUFFIX;
-        String routerClassName = rd.entityName() + ROUTER_SUFFIX;
-        String handlerClassName = rd.entityName() + HANDLER_SUFFIX;
-        StringBuilder body = new StringBuilder();
-        body.append("package ").append(spreadPackage).append(";\n\n"); //import full package of handler class
-        body.append("import ").append(spreadPackage).append(".").append(handlerClassName).append(";\n");
-        body.append("import org.springframework.context.annotation.Bean;\n");
-        body.append("import org.springframework.context.annotation.Configuration;\n");
-        body.append("import org.springframework.web.reactive.function.server.RouterFunction;\n");
-        body.append("import org.springframework.web.reactive.function.server.RouterFunctions;\n");
-        body.append("import org.springframework.web.reactive.function.server.ServerResponse;\n");
-        body.append("import org.springframework.web.reactive.function.server.RequestPredicate;\n");
-        body.append("import org.springframework.web.reactive.function.server.RequestPredicates;\n\n");
-
-        body.append("import static org.springframework.web.reactive.function.server.RequestPredicates.*;\n\n");
-
-        body.append("import java.util.Map;\n\n");
-
-        body.append("@Configuration(proxyBeanMethods = false)\n");
-        body.append("public class ").append(routerClassName).append("{\n\n");
-
-        body.append("   private String path =\"").append(rd.reqPath()).append("\";\n\n");
-
-        body.append("   @Bean\n");
-        body.append("   RouterFunction<ServerResponse> routeBase(").append(handlerClassName).append(" handler").append("){\n");
-        body.append("       return RouterFunctions\n");
-        body.append("           .route(GET(this.path).and(noQueryParam()),handler::getAll)\n");
-        body.append("           .andRoute(GET(this.path).and(validId()), handler::getOneById)\n");
-        body.append("           .andRoute(POST(this.path).and(validId()) , handler::postById)\n");
-        body.append("           .andRoute(PUT(this.path), handler::put)\n");
-        body.append("           .andRoute(DELETE(this.path).and(validId()), handler::deleteById);\n");
-        body.append("       }\n\n");
-        body.append(getPredicates());
-        body.append("}");
+    private boolean isProjectionValid(RepositoryData rd, Element element){
+        Set<String> basic = new HashSet<>(getBasicFields(getEntityFields(getRepoEntityElement(element))));
+        Set<String> seen = new HashSet<>();
+        boolean valid = true;
+        for (String field : rd.projectable()) {
+            if (!basic.contains(field)) {
+                error(element, "projectable names " + field + ", which is not a persistent field of " + rd.entityName() + " or is an association");
+                valid = false;
+            } else if (!seen.add(field)) {
+                error(element, "projectable names " + field + " more than once");
+                valid = false;
+            }
+        }
+        return valid;
+    }
 
-        try {
-            Writer writer = processingEnv.getFiler()
-                    .createSourceFile(spreadPackage + "." + routerClassName)
-                    .openWriter();
-            writer.write(body.toString());
-            writer.close();
-        } catch (IOException e) {
-            e.printStackTrace();
+    /**
+     * Checks the routes named by limited: each must be the handler method of a route generated for the repository,
+     * named once. The routes depend on the user's options, so a PATCH or change feed is only valid when generated.
+     *
+     * @param rd RepositoryData: Record containing the user's limited routes.
+     * @param element The annotated interface, to report errors on.
+     * @return Whether the limited routes are valid.
+     */
+    private boolean isLimitValid(RepositoryData rd, Element element){
+        Set<String> routes = getRoutes(rd).stream().map(Route::handler).collect(Collectors.toSet());
+        Set<String> seen = new HashSet<>();
+        boolean valid = true;
+        for (String route : rd.limited()) {
+            if (!routes.contains(route)) {
+                error(element, "limited names " + route + ", which is not a route generated for " + rd.repoSimpleName());
+                valid = false;
+            } else if (!seen.add(route)) {
+                error(element, "limited names " + route + " more than once");
+                valid = false;
+            }
         }
+        return valid;
     }
 
+    /**
+     * Checks that every field the user filters on is a persistent, non association field of the entity that
+     * a database index starts with, so every generated filter can be answered from an index.
+     * The id and the parameters the GET routes already read cannot be filtered on.
+     * Every problem is reported against the annotated interface.
+     *
+     * @param rd RepositoryData: Record containing the filterable fields.
+     * @param element The annotated interface.
+     * @return boolean. Whether the router and handler can be generated.
+     */
+    private boolean isFilterValid(RepositoryData rd, Element element){
+        TypeElement entity = getRepoEntityElement(element);
+        List<VariableElement> fields = getEntityFields(entity);
+        Set<String> basic = new HashSet<>(getBasicFields(fields));
+        Set<String> indexed = getIndexedFields(entity, fields);
+        Set<String> seen = new HashSet<>();
+        boolean valid = true;
+        for (String field : rd.filterable()) {
+            String problem = null;
+            if (!basic.contains(field)) {
+                problem = "is not a persistent field of " + rd.entityName() + " or is an association";
+            } else if (RESERVED_PARAMS.contains(field) || field.equals(rd.idField())) {
+                problem = "is a query parameter of the GET routes";
+            } else if (!indexed.contains(field)) {
+                problem = "is not the first column of an @Index of " + rd.entityName() + " nor a unique column";
+            } else if (!seen.add(field)) {
+                problem = "is named more than once";
+            }
+            if (problem != null) {
+                error(element, "filterable names " + field + ", which " + problem);
+                valid = false;
+            }
+        }
+        return valid;
+    }
 
     /**
-     * Helper function to generate the predicates for the router.
-     * @return String to write to the generated classes.
+     * Reports a compile error on the annotated interface.
+     *
+     * @param element The annotated interface.
+     * @param message The error.
      */
-    private String getPredicates(){
-        return new StringBuilder()
-                .append("   private RequestPredicate validId(){\n")
-                .append("       return RequestPredicates.queryParam(\"id\",(str) -> {\n")
-                .append("           try {\n")
-                .append("               Integer.parseInt(str);\n")
-                .append("               return true;\n")
-                .append("           } catch (NumberFormatException nfe) {\n")
-                .append("               return false;\n")
-                .append("           }\n")
-                .append("       });\n")
-                .append("   }\n\n")
-                .append("   private RequestPredicate noQueryParam(){\n")
-                .append("       return serverWebExchange -> {\n")
-                .append("           Map<String,String> queryParams = serverWebExchange.queryParams().toSingleValueMap();\n")
-                .append("           return queryParams.isEmpty();\n")
-                .append("           };\n")
-                .append("   }\n\n")
-                .toString();
+    private void error(Element element, String message){
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
     }
 
     /**
-     * Creates the handler file.
+     * Walks the entity and its super classes for the fields JPA persists.
+     * Static, transient and @Transient fields are skipped.
      *
-     * @param rd RepositoryData: Record containing metadata needed to generate the Router.
+     * @param entity The entity's element.
+     * @return The persistent fields, super class fields first.
      */
-    private void generateHandler(RepositoryData rd) {
-        String spreadPackage = rd.interfacePackage() + PACKAGE_SUFFIX;
-        String handlerClassName = rd.entityName() + HANDLER_SUFFIX;
+    private List<VariableElement> getEntityFields(TypeElement entity){
+        List<VariableElement> fields = new ArrayList<>();
+        TypeMirror superclass = entity.getSuperclass();
+        if (superclass.getKind() == TypeKind.DECLARED) {
+            fields.addAll(getEntityFields((TypeElement) ((DeclaredType) superclass).asElement()));
+        }
+        ElementFilter.fieldsIn(entity.getEnclosedElements()).stream()
+                .filter((field) -> !field.getModifiers().contains(Modifier.STATIC))
+                .filter((field) -> !field.getModifiers().contains(Modifier.TRANSIENT))
+                .filter((field) -> !hasAnnotation(field, TRANSIENT_ANNOTATIONS))
+                .forEach(fields::add);
+        return fields;
+    }
 
-        StringBuilder body = new StringBuilder();
-        body.append("package ").append(spreadPackage).append(";\n\n");
+    /**
+     * Checks whether a row can be deleted with a single bulk statement. Bulk deletes skip the persistence context,
+     * so entities with associations or element collections, which JPA cascades or clears on removal, entities
+     * with removal callbacks or listeners, and entities whose Hibernate mapping replaces or restricts the delete
+     * (SQLDelete, SoftDelete, SQLRestriction, Where) are deleted through the EntityManager instead.
+     *
+     * @param entity The entity's element.
+     * @param fields The entity's persistent fields.
+     * @return Whether a DELETE by id can be one DELETE statement.
+     */
+    private boolean isBulkDeletable(TypeElement entity, List<VariableElement> fields){
+        return fields.stream().noneMatch((field) -> hasAnnotation(field, ASSOCIATION_ANNOTATIONS))
+                && !hasCallbacks(entity, REMOVAL_ANNOTATIONS);
+    }
 
-        body.append("import ").append(rd.interfacePackage()).append(".").append(rd.repoSimpleName()).append(";\n");
-        body.append("import ").append(rd.interfacePackage()).append(".").append(rd.entityName()).append(";\n");
-        addSerializerImports(body,rd.serializer());
-        body.append("import org.springframework.beans.factory.annotation.Autowired;\n");
-        body.append("import org.springframework.stereotype.Component;\n");
-        body.append("import org.springframework.data.jpa.repository.JpaRepository;\n");
-        body.append("import org.springframework.http.MediaType;\n");
-        body.append("import org.springframework.web.reactive.function.BodyInserters;\n");
-        body.append("import org.springframework.web.reactive.function.server.ServerRequest;\n");
-        body.append("import org.springframework.web.reactive.function.server.ServerResponse;\n");
-        body.append("import reactor.core.publisher.Mono;\n\n");
+    /**
+     * Lists the fields a PATCH may change: the persistent fields that are not ids, the version or associations.
+     * A PATCH is one bulk UPDATE, which skips update callbacks and listeners and bumps a version by adding one,
+     * so entities with update callbacks or listeners, or with a version that is not a number, get no PATCH.
+     *
+     * @param entity The entity's element.
+     * @param fields The entity's persistent fields.
+     * @return The names of the fields a PATCH may change, empty when the entity gets no PATCH.
+     */
+    private List<String> getPatchable(TypeElement entity, List<VariableElement> fields){
+        boolean textualVersion = fields.stream()
+                .filter((field) -> hasAnnotation(field, VERSION_ANNOTATIONS))
+                .anyMatch((field) -> !isNumeric(field.asType().toString()));
+        if (textualVersion || hasCallbacks(entity, UPDATE_ANNOTATIONS)) {
+            return List.of();
+        }
+        return fields.stream()
+                .filter((field) -> !hasAnnotation(field, ID_ANNOTATIONS))
+                .filter((field) -> !hasAnnotation(field, VERSION_ANNOTATIONS))
+                .filter((field) -> !hasAnnotation(field, ASSOCIATION_ANNOTATIONS))
+                .map((field) -> field.getSimpleName().toString())
+                .toList();
+    }
 
+    /**
+     * Checks the entity and its superclasses for lifecycle callbacks or listeners.
+     *
+     * @param entity The entity's element.
+     * @param annotations Qualified names of the callback and listener annotations to look for.
+     * @return Whether a class or one of its methods carries one of the annotations.
+     */
+    private boolean hasCallbacks(TypeElement entity, Set<String> annotations){
+        for (TypeElement type = entity; type != null; ) {
+            if (hasAnnotation(type, annotations)
+                    || ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+                        .anyMatch((method) -> hasAnnotation(method, annotations))) {
+                return true;
+            }
+            TypeMirror superclass = type.getSuperclass();
+            type = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+        return false;
+    }
 
-        body.append("import java.util.HashMap;\n");
-        body.append("import java.util.Map;\n");
-        body.append("import java.util.Objects;\n\n");
+    /**
+     * Lists the fields clients may select with the fields parameter.
+     *
+     * @param element The annotated interface.
+     * @param fields The entity's persistent fields.
+     * @return The fields the user names, or every persistent field that is not an association.
+     */
+    private List<String> getProjectable(Element element, List<VariableElement> fields){
+        String[] named = element.getAnnotation(SpREAD.class).projectable();
+        return named.length > 0 ? List.of(named) : getBasicFields(fields);
+    }
 
-        body.append("@Component\n");
-        body.append("public class ").append(handlerClassName).append("{\n\n");
+    /**
+     * Lists the fields the GET-all and paged GETs filter on.
+     *
+     * @param element The annotated interface.
+     * @param entity The entity's element.
+     * @param fields The entity's persistent fields.
+     * @return The fields the user names, or every indexed field that is not the id or a query parameter of the routes.
+     */
+    private List<String> getFilterable(Element element, TypeElement entity, List<VariableElement> fields){
+        String[] named = element.getAnnotation(SpREAD.class).filterable();
+        if (named.length > 0) {
+            return List.of(named);
+        }
+        Set<String> indexed = getIndexedFields(entity, fields);
+        String idField = getIdField(fields);
+        return getBasicFields(fields).stream()
+                .filter(indexed::contains)
+                .filter((field) -> !field.equals(idField) && !RESERVED_PARAMS.contains(field))
+                .toList();
+    }
 
-        body.append("   @Autowired\n");
-        body.append("   ").append(rd.repoSimpleName()).append(" repo;\n\n");
+    /**
+     * Finds the fields a database index starts with: the first column of each @Index of the entity's @Table,
+     * and unique columns. Later columns of an index are left out, as the index cannot be searched by them alone.
+     * Column names are compared without case and underscores, so they match whether or not the naming strategy
+     * turns the field's camel case into snake case.
+     *
+     * @param entity The entity's element.
+     * @param fields The entity's persistent fields.
+     * @return The names of the indexed fields.
+     */
+    private Set<String> getIndexedFields(TypeElement entity, List<VariableElement> fields){
+        Set<String> leading = new HashSet<>();
+        for (AnnotationMirror table : getAnnotations(entity, TABLE_ANNOTATIONS)) {
+            AnnotationValue indexes = getAnnotationValue(table, "indexes");
+            for (Object index : indexes == null ? List.of() : (List<?>) indexes.getValue()) {
+                AnnotationValue columnList = getAnnotationValue((AnnotationMirror) ((AnnotationValue) index).getValue(), "columnList");
+                if (columnList != null) {
+                    String first = columnList.getValue().toString().split(",")[0].trim();
+                    leading.add(getColumnKey(first.split("\\s+")[0]));
+                }
+            }
+        }
+        Set<String> indexed = new HashSet<>();
+        for (VariableElement field : fields) {
+            String column = field.getSimpleName().toString();
+            boolean unique = false;
+            for (AnnotationMirror mirror : getAnnotations(field, COLUMN_ANNOTATIONS)) {
+                AnnotationValue name = getAnnotationValue(mirror, "name");
+                if (name != null && !name.getValue().toString().isEmpty()) {
+                    column = name.getValue().toString();
+                }
+                AnnotationValue uniqueValue = getAnnotationValue(mirror, "unique");
+                unique = uniqueValue != null && Boolean.TRUE.equals(uniqueValue.getValue());
+            }
+            if (unique || leading.contains(getColumnKey(column))) {
+                indexed.add(field.getSimpleName().toString());
+            }
+        }
+        return indexed;
+    }
 
-        body
-                .append("   public Mono<ServerResponse> getAll(ServerRequest request){\n")
-                .append("       return ServerResponse\n")
-                .append("           .ok()\n")
-                .append("           .contentType(MediaType.APPLICATION_JSON)\n")
-                .append("           .body(").append(String.format(getSerializerStatement(rd.serializer()), "repo.findAll()")).append(");\n")
-                .append("   }\n\n");
+    /**
+     * Reduces a column name to what both its camel case and snake case spellings share.
+     *
+     * @param column Column name, possibly quoted.
+     * @return The name in lower case, without underscores and quotes.
+     */
+    private String getColumnKey(String column){
+        return column.replaceAll("[_\"`]", "").toLowerCase();
+    }
 
-                body
-                .append("   Mono<ServerResponse> getOneById(ServerRequest request){\n")
-                .append("       Long id = Long.parseLong(request.queryParam(\"id\").orElseThrow());\n\n")
-                .append("       return ServerResponse\n")
-                .append("           .ok()\n")
-                .append("           .contentType(MediaType.APPLICATION_JSON)\n")
-                .append("           .body(\n")
-                .append("               ").append(String.format(getSerializerStatement(rd.serializer()),"repo.findById(id).orElseThrow()")).append("\n")
-                .append("           );\n")
-                .append("   }\n\n");
+    /**
+     * Collects the annotations of an element that have any of the given fully qualified names.
+     *
+     * @param element The element to check.
+     * @param annotations Fully qualified annotation names.
+     * @return The matching annotation mirrors.
+     */
+    private List<AnnotationMirror> getAnnotations(Element element, Set<String> annotations){
+        List<AnnotationMirror> mirrors = new ArrayList<>();
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (annotations.contains(((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString())) {
+                mirrors.add(mirror);
+            }
+        }
+        return mirrors;
+    }
 
-                body.append("   Mono<ServerResponse> postById(ServerRequest request){\n")
-                    .append("       return request.bodyToMono(").append(rd.entityName()).append(".class).flatMap((entity) ->\n")
-                    .append("           ServerResponse\n")
-                    .append("               .ok()\n")
-                    .append("               .contentType(MediaType.APPLICATION_JSON)\n")
-                    .append("               .body(\n")
-                    .append("                   ").append(String.format(getSerializerStatement(rd.serializer()),"repo.save(entity)"))
-                    .append("\n               )\n")
-                    .append("       );\n")
-                    .append("   }\n\n");
+    /**
+     * Reads an element of an annotation, as written in the source.
+     *
+     * @param mirror The annotation.
+     * @param name Name of the annotation's element.
+     * @return The value, or null when the source leaves it at its default.
+     */
+    private AnnotationValue getAnnotationValue(AnnotationMirror mirror, String name){
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
 
-        body.append("   Mono<ServerResponse> put(ServerRequest request){\n")
-                .append("       return request.bodyToMono(").append(rd.entityName()).append(".class).flatMap((entity) ->\n")
-                .append("           ServerResponse\n")
-                .append("               .ok()\n")
-                .append("               .contentType(MediaType.APPLICATION_JSON)\n")
-                .append("               .body(\n")
-                .append("                   ").append(String.format(getSerializerStatement(rd.serializer()),"repo.save(entity)")).append("\n")
-                .append("               )\n")
-                .append("       );\n")
-                .append("   }\n\n");
+    /**
+     * Names the persistent fields a tuple query can select as a single column.
+     *
+     * @param fields The entity's persistent fields.
+     * @return The names of the fields that are not associations, in declaration order.
+     */
+    private List<String> getBasicFields(List<VariableElement> fields){
+        return fields.stream()
+                .filter((field) -> !hasAnnotation(field, ASSOCIATION_ANNOTATIONS))
+                .map((field) -> field.getSimpleName().toString())
+                .toList();
+    }
 
+    /**
+     * Finds the field of the entity annotated with @Id or @EmbeddedId.
+     *
+     * @param fields The entity's persistent fields.
+     * @return The name of the id field, "id" when none is annotated.
+     */
+    private String getIdField(List<VariableElement> fields){
+        return fields.stream()
+                .filter((field) -> hasAnnotation(field, ID_ANNOTATIONS))
+                .map((field) -> field.getSimpleName().toString())
+                .findFirst()
+                .orElse("id");
+    }
 
-        body.append("   Mono<ServerResponse> deleteById(ServerRequest request){\n")
-                .append("       Long id = Long.parseLong(request.queryParam(\"id\").orElseThrow());\n")
-                .append("       repo.deleteById(id);\n")
-                .append("       return ServerResponse\n")
-                .append("           .ok()\n")
-                .append("           .contentType(MediaType.APPLICATION_JSON)\n")
-                .append("           .body(\n")
-                .append("               ").append(String.format(getSerializerStatement(rd.serializer()),"Map.of(\"Deleted\",id)")).append("\n")
-                .append("           );\n")
-                .append("   }\n\n");
+    /**
+     * Finds the field of the entity annotated with @Version.
+     *
+     * @param fields The entity's persistent fields.
+     * @return The name of the version field, null when the entity has none.
+     */
+    private String getVersionField(List<VariableElement> fields){
+        return fields.stream()
+                .filter((field) -> hasAnnotation(field, VERSION_ANNOTATIONS))
+                .map((field) -> field.getSimpleName().toString())
+                .findFirst()
+                .orElse(null);
+    }
 
+    /**
+     * Describes the entity's persistent fields along with their public accessors.
+     *
+     * @param entity The entity's element.
+     * @param fields The entity's persistent fields.
+     * @return FieldData for each field, in declaration order.
+     */
+    private List<FieldData> getFieldData(TypeElement entity, List<VariableElement> fields){
+        List<ExecutableElement> methods = getPublicMethods(entity);
+        return fields.stream().map((field) -> {
+            String name = field.getSimpleName().toString();
+            String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            TypeMirror type = field.asType();
+            String getterPrefix = type.getKind() == TypeKind.BOOLEAN ? "is" : "get";
+            return new FieldData(
+                    name,
+                    getTypeName(type),
+                    type.getKind() == TypeKind.DECLARED
+                            && ((DeclaredType) type).asElement().getKind() == ElementKind.ENUM,
+                    methods.stream()
+                            .filter((method) -> method.getSimpleName().contentEquals(getterPrefix + capitalized))
+                            .filter((method) -> method.getParameters().isEmpty())
+                            .map((method) -> method.getSimpleName().toString())
+                            .findFirst()
+                            .orElse(null),
+                    methods.stream()
+                            .filter((method) -> method.getSimpleName().contentEquals("set" + capitalized))
+                            .filter((method) -> method.getParameters().size() == 1)
+                            .map((method) -> method.getSimpleName().toString())
+                            .findFirst()
+                            .orElse(null)
+            );
+        }).toList();
+    }
 
-        body.append("}");
+    /**
+     * Collects the public instance methods of the entity and its super classes.
+     *
+     * @param entity The entity's element.
+     * @return The public instance methods.
+     */
+    private List<ExecutableElement> getPublicMethods(TypeElement entity){
+        List<ExecutableElement> methods = new ArrayList<>();
+        TypeMirror superclass = entity.getSuperclass();
+        if (superclass.getKind() == TypeKind.DECLARED) {
+            methods.addAll(getPublicMethods((TypeElement) ((DeclaredType) superclass).asElement()));
+        }
+        ElementFilter.methodsIn(entity.getEnclosedElements()).stream()
+                .filter((method) -> method.getModifiers().contains(Modifier.PUBLIC))
+                .filter((method) -> !method.getModifiers().contains(Modifier.STATIC))
+                .forEach(methods::add);
+        return methods;
+    }
 
-        try {
-            Writer writer = processingEnv.getFiler()
-                    .createSourceFile(spreadPackage + "." + handlerClassName)
-                    .openWriter();
-            writer.write(body.toString());
-            writer.close();
-        } catch (IOException e) {
-            e.printStackTrace();
+    /**
+     * Names a field type without type arguments or type annotations.
+     *
+     * @param type The field's type.
+     * @return The fully qualified name, or the keyword for primitives.
+     */
+    private String getTypeName(TypeMirror type){
+        if (type.getKind().isPrimitive()) {
+            return type.getKind().name().toLowerCase();
         }
+        if (type.getKind() == TypeKind.DECLARED) {
+            return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+        }
+        return processingEnv.getTypeUtils().erasure(type).toString();
     }
 
     /**
-     * Gets the super class of the annotated repository and gets the
-     * Entity via TypeMirror.
-     * @param element The annotated interface.
-     * @return The fully qualified name of the entity.
+     * Checks an element for any of the given annotations by fully qualified name,
+     * so the processor does not need the persistence API on its own classpath.
+     *
+     * @param element The element to check.
+     * @param annotations Fully qualified annotation names.
+     * @return boolean.
      */
-    private String getRepoEntity(Element element){
-        String[] fqn = ((DeclaredType) processingEnv
-                    .getTypeUtils()
-                    .directSupertypes(element.asType())
-                    .stream()
-                    .filter(type -> type.toString().contains(JPA_FQN))
-                    .findFirst()
-                    .orElseThrow())
-                .getTypeArguments()
-                .getFirst()
-                .toString().split("\\.");
-        return fqn[fqn.length-1];
+    private boolean hasAnnotation(Element element, Set<String> annotations){
+        return element.getAnnotationMirrors().stream()
+                .map((mirror) -> ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString())
+                .anyMatch(annotations::contains);
     }
 
 
@@ -285,6 +3686,9 @@ public class SpREADProcessor extends AbstractProcessor {
      * @return RepositoryData containing relevant information to generating Router/Handler.
      */
     private RepositoryData repositoryDataFromElement(Element element){
+        TypeElement entity = getRepoEntityElement(element);
+        List<VariableElement> fields = getEntityFields(entity);
+        TypeElement idClass = getIdClassElement(entity, fields);
         return new RepositoryData(
                 processingEnv
                         .getElementUtils()
@@ -294,7 +3698,36 @@ public class SpREADProcessor extends AbstractProcessor {
                 element.getSimpleName().toString(),
                 getRepoEntity(element),
                 element.getAnnotation(SpREAD.class).path(),
-                element.getAnnotation(SpREAD.class).serializer()
+                element.getAnnotation(SpREAD.class).serializer(),
+                element.getAnnotation(SpREAD.class).schedulerThreads(),
+                element.getAnnotation(SpREAD.class).schedulerQueueSize(),
+                element.getAnnotation(SpREAD.class).execution(),
+                element.getAnnotation(SpREAD.class).maxConcurrency(),
+                element.getAnnotation(SpREAD.class).fetchSize(),
+                element.getAnnotation(SpREAD.class).maxPageSize(),
+                element.getAnnotation(SpREAD.class).chunkSize(),
+                element.getAnnotation(SpREAD.class).batchSize(),
+                element.getAnnotation(SpREAD.class).cache(),
+                element.getAnnotation(SpREAD.class).cacheTtlSeconds(),
+                element.getAnnotation(SpREAD.class).coalesce(),
+                element.getAnnotation(SpREAD.class).changes(),
+                element.getAnnotation(SpREAD.class).changesOverflow(),
+                element.getAnnotation(SpREAD.class).concurrencyLimit(),
+                element.getAnnotation(SpREAD.class).limit(),
+                element.getAnnotation(SpREAD.class).limitQueueSize(),
+                element.getAnnotation(SpREAD.class).limitTimeoutMillis(),
+                List.of(element.getAnnotation(SpREAD.class).limited()),
+                element.getAnnotation(SpREAD.class).compressionThreshold(),
+                getProjectable(element, fields),
+                getFilterable(element, entity, fields),
+                processingEnv.getElementUtils().getTypeElement(METER_REGISTRY_FQN) != null,
+                isBulkDeletable(entity, fields),
+                getPatchable(entity, fields),
+                getIdField(fields),
+                getRepoIdType(element),
+                idClass == null ? List.of() : getFieldData(idClass, getEntityFields(idClass)),
+                getVersionField(fields),
+                getFieldData(entity, fields)
         );
     }
 
@@ -305,37 +3738,276 @@ public class SpREADProcessor extends AbstractProcessor {
      * @return String.
      */
     private String getSerializerStatement(Serializer s){
+        if (s == Serializer.GSON || s == Serializer.GENERATED) {
+            return "BodyInserters.fromDataBuffers(json(request, %s))";
+        }
+        return "BodyInserters.fromValue(" + getEncodeStatement(s) + ")";
+    }
+
+    /**
+     * Checks the serializer the user provides, and returns how it encodes a single value.
+     * Jackson is left to Spring's encoder, so the value is passed through untouched.
+     *
+     * @param s Serializer provided by user.
+     * @return String.
+     */
+    private String getEncodeStatement(Serializer s){
         switch(s){
             case GSON -> {
-                return "BodyInserters.fromValue(new Gson().toJson(%s))";
+                return "GSON.toJson(%s)";
             }
             case KOTLIN -> {
-                return "BodyInserters.fromValue(Json.encodeToString(%s))";
+                return "Json.encodeToString(%s)";
             }
             case null, default -> {
-                return "BodyInserters.fromValue(%s)";
+                return "%s";
             }
         }
     }
 
     /**
-     * Adds the correct import statements depending on the user's serializer.
+     * Checks the serializer the user provides, and returns the body inserter for a stream of entities.
+     * Jackson and the generated codec write a Flux as a JSON array or as NDJSON element by element on their own.
+     * GSON encodes each row, with its separator, into its own pooled buffer.
+     * Kotlin encodes each row into its own String chunk.
+     *
+     * @param s Serializer provided by user.
+     * @param ndjson Whether to write newline delimited JSON instead of a JSON array.
+     * @return String taking the Flux and the entity name as arguments.
+     */
+    private String getStreamingSerializerStatement(Serializer s, boolean ndjson){
+        if (s == null || s == Serializer.JACKSON || s == Serializer.GENERATED) {
+            return "BodyInserters.fromPublisher(%1$s, %2$s.class)";
+        }
+        if (s == Serializer.GSON) {
+            return getGsonStreamingStatement("ENTITY_ADAPTER", ndjson);
+        }
+        if (ndjson) {
+            return "BodyInserters.fromPublisher(%1$s.map((row) -> " + String.format(getEncodeStatement(s), "row") + " + \"\\n\"), String.class)";
+        }
+        return "BodyInserters.fromPublisher(\n"
+                + "               Flux.concat(\n"
+                + "                   Mono.just(\"[\"),\n"
+                + "                   %1$s.index().map((row) -> (row.getT1() == 0 ? \"\" : \",\") + " + String.format(getEncodeStatement(s), "row.getT2()") + "),\n"
+                + "                   Mono.just(\"]\")\n"
+                + "               ),\n"
+                + "               String.class\n"
+                + "           )";
+    }
+
+    /**
+     * Returns the body inserter for a stream of projected rows, each a map from field name to value.
+     * Jackson is handed the map type, the generated codec writes the maps with its map writer,
+     * and GSON encodes them with its map adapter.
+     *
+     * @param rd RepositoryData: Record containing the user's serializer and the entity name.
+     * @param ndjson Whether to write newline delimited JSON instead of a JSON array.
+     * @return String taking the Flux as argument.
+     */
+    private String getRowsSerializerStatement(RepositoryData rd, boolean ndjson){
+        Serializer s = rd.serializer();
+        if (s == null || s == Serializer.JACKSON) {
+            return "BodyInserters.fromPublisher(%1$s, ROW_TYPE)";
+        }
+        if (s == Serializer.GENERATED) {
+            return "BodyInserters.fromDataBuffers(" + rd.entityName() + CodecGenerator.CODEC_SUFFIX
+                    + ".writeMaps(request.exchange().getResponse().bufferFactory(), %1$s, " + ndjson + "))";
+        }
+        if (s == Serializer.GSON) {
+            return getGsonStreamingStatement("MAP_ADAPTER", ndjson);
+        }
+        return getStreamingSerializerStatement(s, ndjson);
+    }
+
+    /**
+     * Returns the GSON body inserter for a stream, which encodes each element, with its separator,
+     * into its own pooled buffer.
+     *
+     * @param adapter Name of the handler's TypeAdapter for the elements.
+     * @param ndjson Whether to write newline delimited JSON instead of a JSON array.
+     * @return String taking the Flux as argument.
+     */
+    private String getGsonStreamingStatement(String adapter, boolean ndjson){
+        if (ndjson) {
+            return "BodyInserters.fromDataBuffers(%1$s.map((row) -> encode(request.exchange().getResponse().bufferFactory(), " + adapter + ", row, \"\", \"\\n\")))";
+        }
+        return "BodyInserters.fromDataBuffers(\n"
+                + "               Flux.concat(\n"
+                + "                   Mono.fromSupplier(() -> request.exchange().getResponse().bufferFactory().wrap(ARRAY_OPEN)),\n"
+                + "                   %1$s.index().map((row) -> encode(\n"
+                + "                       request.exchange().getResponse().bufferFactory(),\n"
+                + "                       " + adapter + ",\n"
+                + "                       row.getT2(),\n"
+                + "                       row.getT1() == 0 ? \"\" : \",\",\n"
+                + "                       \"\"\n"
+                + "                   )),\n"
+                + "                   Mono.fromSupplier(() -> request.exchange().getResponse().bufferFactory().wrap(ARRAY_CLOSE))\n"
+                + "               )\n"
+                + "           )";
+    }
+
+    /**
+     * Helper function to generate the serializer state the handler shares across requests.
+     * For GSON that is one Gson instance with the entity's adapters resolved once at class load,
+     * and a Writer that encodes straight into the response's pooled DataBuffer instead of an intermediate String.
+     * The generated codec is stateless, so its handler only routes each value to the matching codec method.
+     * Jackson and Kotlin already share their serializer, so nothing is generated for them.
+     *
+     * @param rd RepositoryData: Record containing the user's serializer and the entity name.
+     * @return String to write to the generated classes.
+     */
+    private String getSerializerMembers(RepositoryData rd){
+        String entity = rd.entityName();
+        if (rd.serializer() == Serializer.GENERATED) {
+            String codec = entity + CodecGenerator.CODEC_SUFFIX;
+            return new StringBuilder()
+                    .append("   private static Mono<DataBuffer> json(ServerRequest request, ").append(entity).append(" value){\n")
+                    .append("       return Mono.fromSupplier(() -> ").append(codec).append(".write(request.exchange().getResponse().bufferFactory(), value));\n")
+                    .append("   }\n\n")
+                    .append("   private static Mono<DataBuffer> json(ServerRequest request, List<").append(entity).append("> value){\n")
+                    .append("       return Mono.fromSupplier(() -> ").append(codec).append(".writeArray(request.exchange().getResponse().bufferFactory(), value));\n")
+                    .append("   }\n\n")
+                    .append("   private static Mono<DataBuffer> json(ServerRequest request, Map<String, ?> value){\n")
+                    .append("       return Mono.fromSupplier(() -> ").append(codec).append(".writeMap(request.exchange().getResponse().bufferFactory(), value));\n")
+                    .append("   }\n\n")
+                    .toString();
+        }
+        if (rd.serializer() == Serializer.JACKSON) {
+            return new StringBuilder()
+                    .append("   @Autowired\n")
+                    .append("   ObjectMapper objectMapper;\n\n")
+                    .toString();
+        }
+        if (rd.serializer() != Serializer.GSON) {
+            return "";
+        }
+        return new StringBuilder()
+                .append("   static final Gson GSON = new Gson();\n\n")
+                .append("   static final TypeAdapter<").append(entity).append("> ENTITY_ADAPTER = GSON.getAdapter(").append(entity).append(".class);\n\n")
+                .append("   static final TypeAdapter<List<").append(entity).append(">> LIST_ADAPTER = GSON.getAdapter(new TypeToken<List<").append(entity).append(">>(){});\n\n")
+                .append("   static final TypeAdapter<Map<String, ?>> MAP_ADAPTER = GSON.getAdapter(new TypeToken<Map<String, ?>>(){});\n\n")
+                .append("   private static final byte[] ARRAY_OPEN = {'['};\n\n")
+                .append("   private static final byte[] ARRAY_CLOSE = {']'};\n\n")
+                .append("   private static Mono<DataBuffer> json(ServerRequest request, ").append(entity).append(" value){\n")
+                .append("       return write(request, ENTITY_ADAPTER, value);\n")
+                .append("   }\n\n")
+                .append("   private static Mono<DataBuffer> json(ServerRequest request, List<").append(entity).append("> value){\n")
+                .append("       return write(request, LIST_ADAPTER, value);\n")
+                .append("   }\n\n")
+                .append("   private static Mono<DataBuffer> json(ServerRequest request, Map<String, ?> value){\n")
+                .append("       return write(request, MAP_ADAPTER, value);\n")
+                .append("   }\n\n")
+                .append("   private static <T> Mono<DataBuffer> write(ServerRequest request, TypeAdapter<T> adapter, T value){\n")
+                .append("       return Mono.fromSupplier(() -> encode(request.exchange().getResponse().bufferFactory(), adapter, value, \"\", \"\"));\n")
+                .append("   }\n\n")
+                .append("   static <T> DataBuffer encode(DataBufferFactory factory, TypeAdapter<T> adapter, T value, String prefix, String suffix){\n")
+                .append("       DataBuffer buffer = factory.allocateBuffer(256);\n")
+                .append("       try {\n")
+                .append("           DataBufferWriter out = new DataBufferWriter(buffer);\n")
+                .append("           out.write(prefix);\n")
+                .append("           adapter.write(GSON.newJsonWriter(out), value);\n")
+                .append("           out.write(suffix);\n")
+                .append("           return buffer;\n")
+                .append("       } catch (IOException e) {\n")
+                .append("           DataBufferUtils.release(buffer);\n")
+                .append("           throw new UncheckedIOException(e);\n")
+                .append("       } catch (RuntimeException e) {\n")
+                .append("           DataBufferUtils.release(buffer);\n")
+                .append("           throw e;\n")
+                .append("       }\n")
+                .append("   }\n\n")
+                .append("   private static final class DataBufferWriter extends Writer {\n")
+                .append("       private final DataBuffer buffer;\n\n")
+                .append("       DataBufferWriter(DataBuffer buffer){\n")
+                .append("           this.buffer = buffer;\n")
+                .append("       }\n\n")
+                .append("       @Override\n")
+                .append("       public void write(int c){\n")
+                .append("           if (c < 0x80) {\n")
+                .append("               buffer.write((byte) c);\n")
+                .append("           } else {\n")
+                .append("               buffer.write(String.valueOf((char) c), StandardCharsets.UTF_8);\n")
+                .append("           }\n")
+                .append("       }\n\n")
+                .append("       @Override\n")
+                .append("       public void write(String str, int off, int len){\n")
+                .append("           buffer.ensureWritable(len);\n")
+                .append("           for (int i = off; i < off + len; i++) {\n")
+                .append("               char c = str.charAt(i);\n")
+                .append("               if (c >= 0x80) {\n")
+                .append("                   buffer.write(CharBuffer.wrap(str, i, off + len), StandardCharsets.UTF_8);\n")
+                .append("                   return;\n")
+                .append("               }\n")
+                .append("               buffer.write((byte) c);\n")
+                .append("           }\n")
+                .append("       }\n\n")
+                .append("       @Override\n")
+                .append("       public void write(char[] cbuf, int off, int len){\n")
+                .append("           buffer.ensureWritable(len);\n")
+                .append("           for (int i = off; i < off + len; i++) {\n")
+                .append("               if (cbuf[i] >= 0x80) {\n")
+                .append("                   buffer.write(CharBuffer.wrap(cbuf, i, off + len - i), StandardCharsets.UTF_8);\n")
+                .append("                   return;\n")
+                .append("               }\n")
+                .append("               buffer.write((byte) cbuf[i]);\n")
+                .append("           }\n")
+                .append("       }\n\n")
+                .append("       @Override\n")
+                .append("       public void flush(){}\n\n")
+                .append("       @Override\n")
+                .append("       public void close(){}\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Lists the types the serializer members and statements refer to, depending on the user's serializer.
      *
-     * @param sb StringBuilder that is building out the handler body.
      * @param serializer Serializer provided by user.
+     * @return Fully qualified names to import.
      */
-    private void addSerializerImports(StringBuilder sb, Serializer serializer){
+    private List<String> getSerializerImports(Serializer serializer){
         switch (serializer){
             case GSON -> {
-                 sb.append("import com.google.gson.Gson;\n");
+                return List.of(
+                        "com.google.gson.Gson",
+                        "com.google.gson.TypeAdapter",
+                        "com.google.gson.reflect.TypeToken",
+                        "org.springframework.core.io.buffer.DataBuffer",
+                        "org.springframework.core.io.buffer.DataBufferFactory",
+                        "org.springframework.core.io.buffer.DataBufferUtils",
+                        "org.springframework.web.reactive.function.server.ServerRequest",
+                        "reactor.core.publisher.Mono",
+                        "java.io.IOException",
+                        "java.io.UncheckedIOException",
+                        "java.io.Writer",
+                        "java.nio.CharBuffer",
+                        "java.nio.charset.StandardCharsets",
+                        "java.util.List",
+                        "java.util.Map"
+                );
+            }
+            case GENERATED -> {
+                return List.of(
+                        "org.springframework.core.io.buffer.DataBuffer",
+                        "org.springframework.web.reactive.function.server.ServerRequest",
+                        "reactor.core.publisher.Mono",
+                        "java.util.List",
+                        "java.util.Map"
+                );
+            }
+            case JACKSON -> {
+                return List.of(
+                        "com.fasterxml.jackson.databind.ObjectMapper",
+                        "org.springframework.beans.factory.annotation.Autowired"
+                );
             }
             case KOTLIN -> {
-                sb.append("import kotlinx.serialization.*\n;");
-                sb.append("import kotlinx.serialization.json.*\n;");
+                return List.of("kotlinx.serialization.json.Json");
             }
-            case null, default -> { //already handled by spring
+            case null, default -> {
+                return List.of();
             }
         }
-
     }
 }
\ No newline at end of file
@@ -0,0 +1,980 @@
+package org.ddmac.spread.codec;
+
+import org.ddmac.spread.repositorydata.FieldData;
+import org.ddmac.spread.repositorydata.RepositoryData;
+import org.ddmac.spread.template.Fragment;
+import org.ddmac.spread.template.SourceFile;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Generates a reflection free JSON codec for the entity of a repository annotated with
+ * {@code @SpREAD(serializer = Serializer.GENERATED)}.
+ * The codec writes each field straight into the response's DataBuffer and parses request bodies
+ * field by field, and registers itself with WebFlux as an Encoder and a Decoder.
+ * Streams of entities, a JSON array or NDJSON, are split into objects as their buffers arrive.
+ *
+ * @author Dennis Capone
+ */
+public class CodecGenerator {
+
+    public static final String CODEC_SUFFIX = "SpREADCodec";
+    private final String PACKAGE_SUFFIX = ".spread";
+    private final List<String> CODEC_IMPORTS = List.of(
+            "org.reactivestreams.Publisher",
+            "org.springframework.core.ResolvableType",
+            "org.springframework.core.codec.DecodingException",
+            "org.springframework.core.io.buffer.DataBuffer",
+            "org.springframework.core.io.buffer.DataBufferFactory",
+            "org.springframework.core.io.buffer.DataBufferLimitException",
+            "org.springframework.core.io.buffer.DataBufferUtils",
+            "org.springframework.core.io.buffer.DefaultDataBufferFactory",
+            "org.springframework.http.MediaType",
+            "org.springframework.http.codec.DecoderHttpMessageReader",
+            "org.springframework.http.codec.EncoderHttpMessageWriter",
+            "org.springframework.http.codec.ServerCodecConfigurer",
+            "org.springframework.util.MimeType",
+            "reactor.core.publisher.Flux",
+            "reactor.core.publisher.Mono",
+            "java.io.ByteArrayOutputStream",
+            "java.nio.charset.StandardCharsets",
+            "java.time.DateTimeException",
+            "java.util.ArrayList",
+            "java.util.LinkedHashMap",
+            "java.util.List",
+            "java.util.Map",
+            "java.util.function.Function"
+    );
+
+    /**
+     * How each supported field type is read from the parser and written to the buffer.
+     * The read expression is evaluated against the parser, the write format takes the value expression.
+     * Values converted from their text go through parse, so a malformed one fails decoding rather than the request.
+     */
+    private final Map<String, Access> ACCESS = Map.ofEntries(
+            Map.entry("java.lang.String", new Access("readString()", "writeString(out, %s)")),
+            Map.entry("long", new Access("readLong()", "writeLong(out, %s)")),
+            Map.entry("java.lang.Long", new Access("readLong()", "writeLong(out, %s)")),
+            Map.entry("int", new Access("readInt()", "writeLong(out, %s)")),
+            Map.entry("java.lang.Integer", new Access("readInt()", "writeLong(out, %s)")),
+            Map.entry("short", new Access("readShort()", "writeLong(out, %s)")),
+            Map.entry("java.lang.Short", new Access("readShort()", "writeLong(out, %s)")),
+            Map.entry("byte", new Access("readByte()", "writeLong(out, %s)")),
+            Map.entry("java.lang.Byte", new Access("readByte()", "writeLong(out, %s)")),
+            Map.entry("double", new Access("readDouble()", "writeDouble(out, %s)")),
+            Map.entry("java.lang.Double", new Access("readDouble()", "writeDouble(out, %s)")),
+            Map.entry("float", new Access("(float) readDouble()", "writeFloat(out, %s)")),
+            Map.entry("java.lang.Float", new Access("(float) readDouble()", "writeFloat(out, %s)")),
+            Map.entry("boolean", new Access("readBoolean()", "writeBoolean(out, %s)")),
+            Map.entry("java.lang.Boolean", new Access("readBoolean()", "writeBoolean(out, %s)")),
+            Map.entry("char", new Access("readChar()", "writeString(out, String.valueOf(%s))")),
+            Map.entry("java.lang.Character", new Access("readChar()", "writeString(out, String.valueOf(%s))")),
+            Map.entry("java.math.BigDecimal", new Access("parse(readNumber(), java.math.BigDecimal::new)", "writeNumber(out, %s.toString())")),
+            Map.entry("java.math.BigInteger", new Access("parse(readNumber(), java.math.BigInteger::new)", "writeNumber(out, %s.toString())")),
+            Map.entry("java.util.UUID", new Access("parse(readString(), java.util.UUID::fromString)", "writeString(out, %s.toString())")),
+            Map.entry("java.time.LocalDate", new Access("parse(readString(), java.time.LocalDate::parse)", "writeString(out, %s.toString())")),
+            Map.entry("java.time.LocalDateTime", new Access("parse(readString(), java.time.LocalDateTime::parse)", "writeString(out, %s.toString())")),
+            Map.entry("java.time.LocalTime", new Access("parse(readString(), java.time.LocalTime::parse)", "writeString(out, %s.toString())")),
+            Map.entry("java.time.Instant", new Access("parse(readString(), java.time.Instant::parse)", "writeString(out, %s.toString())")),
+            Map.entry("java.time.OffsetDateTime", new Access("parse(readString(), java.time.OffsetDateTime::parse)", "writeString(out, %s.toString())"))
+    );
+
+    private final ProcessingEnvironment processingEnv;
+
+    public CodecGenerator(ProcessingEnvironment processingEnv) {
+        this.processingEnv = processingEnv;
+    }
+
+    /**
+     * Creates the codec file, or reports why the entity cannot have one.
+     *
+     * @param rd RepositoryData: Record containing metadata needed to generate the codec.
+     * @param element The annotated interface, used to place compile errors and recorded as the file's originating element.
+     */
+    public void generate(RepositoryData rd, Element element) {
+        if (!isValid(rd, element)) {
+            return;
+        }
+        String spreadPackage = rd.interfacePackage() + PACKAGE_SUFFIX;
+        String codecClassName = rd.entityName() + CODEC_SUFFIX;
+        String entity = rd.entityName();
+
+        SourceFile file = new SourceFile(
+                spreadPackage,
+                codecClassName,
+                "@Component\npublic class " + codecClassName
+                        + " implements HttpMessageEncoder<" + entity + ">, Decoder<" + entity + ">, WebFluxConfigurer",
+                rd.interfacePackage() + "." + entity,
+                "org.springframework.core.codec.Decoder",
+                "org.springframework.http.codec.HttpMessageEncoder",
+                "org.springframework.stereotype.Component",
+                "org.springframework.web.reactive.config.WebFluxConfigurer"
+        )
+                .add(Fragment.of("   private static final List<MimeType> MIME_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON);\n\n",
+                        "org.springframework.http.MediaType",
+                        "org.springframework.util.MimeType",
+                        "java.util.List"))
+                .add(Fragment.of("   private int maxInMemorySize = 256 * 1024;\n\n"))
+                .add(Fragment.of(getFieldNames(rd), "java.nio.charset.StandardCharsets"))
+                .add(Fragment.of(getCodecMethods(entity), CODEC_IMPORTS))
+                .add(Fragment.of(getWriteTo(rd), CODEC_IMPORTS))
+                .add(Fragment.of(getReader(rd), CODEC_IMPORTS))
+                .add(Fragment.of(RUNTIME, CODEC_IMPORTS));
+
+        try {
+            file.writeTo(processingEnv.getFiler(), element);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Checks that the codec can build and fill the entity without reflection.
+     * Every problem is reported against the annotated interface.
+     *
+     * @param rd RepositoryData: Record containing the entity's fields.
+     * @param element The annotated interface.
+     * @return boolean. Can it??
+     */
+    private boolean isValid(RepositoryData rd, Element element) {
+        boolean valid = true;
+        TypeElement entity = processingEnv.getElementUtils()
+                .getTypeElement(rd.interfacePackage() + "." + rd.entityName());
+        if (entity != null && ElementFilter.constructorsIn(entity.getEnclosedElements()).stream()
+                .noneMatch((constructor) -> constructor.getParameters().isEmpty()
+                        && constructor.getModifiers().contains(Modifier.PUBLIC))) {
+            error(element, rd.entityName() + " needs a public no argument constructor for Serializer.GENERATED");
+            valid = false;
+        }
+        for (FieldData field : rd.entityFields()) {
+            if (!field.enumType() && !ACCESS.containsKey(field.type())) {
+                error(element, "Serializer.GENERATED does not support " + rd.entityName() + "." + field.name() + " of type " + field.type());
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * Helper function to find the fields written out. Like Jackson, a field without a public getter is left out.
+     *
+     * @param rd RepositoryData: Record containing the entity's fields.
+     * @return List of the fields that have a getter.
+     */
+    private List<FieldData> getReadable(RepositoryData rd) {
+        return rd.entityFields().stream()
+                .filter((field) -> field.getter() != null)
+                .toList();
+    }
+
+    /**
+     * Helper function to generate the pre-encoded names of the written fields, each with its leading brace or comma.
+     *
+     * @param rd RepositoryData: Record containing the entity's fields.
+     * @return String to write to the generated classes.
+     */
+    private String getFieldNames(RepositoryData rd) {
+        StringBuilder sb = new StringBuilder();
+        List<FieldData> fields = getReadable(rd);
+        for (int i = 0; i < fields.size(); i++) {
+            sb.append("   private static final byte[] FIELD_").append(i).append(" = \"")
+                    .append(i == 0 ? "{" : ",")
+                    .append("\\\"").append(fields.get(i).name()).append("\\\":\"")
+                    .append(".getBytes(StandardCharsets.UTF_8);\n\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Helper function to generate the WebFlux registration and the Encoder/Decoder contract.
+     * Like Spring's own decoders, a body read into memory is capped at maxInMemorySize, which follows
+     * the default codec configuration: a whole body for a single entity, and each object for a stream of them.
+     *
+     * @param entity Simple name of the entity.
+     * @return String to write to the generated classes.
+     */
+    private String getCodecMethods(String entity) {
+        return new StringBuilder()
+                .append("   @Override\n")
+                .append("   public void configureHttpMessageCodecs(ServerCodecConfigurer configurer){\n")
+                .append("       configurer.customCodecs().register(new EncoderHttpMessageWriter<>(this));\n")
+                .append("       configurer.customCodecs().registerWithDefaultConfig(new DecoderHttpMessageReader<>(this), (config) -> {\n")
+                .append("           if (config.maxInMemorySize() != null) {\n")
+                .append("               setMaxInMemorySize(config.maxInMemorySize());\n")
+                .append("           }\n")
+                .append("       });\n")
+                .append("   }\n\n")
+                .append("   public int getMaxInMemorySize(){\n")
+                .append("       return maxInMemorySize;\n")
+                .append("   }\n\n")
+                .append("   public void setMaxInMemorySize(int maxInMemorySize){\n")
+                .append("       this.maxInMemorySize = maxInMemorySize;\n")
+                .append("   }\n\n")
+                .append("   @Override\n")
+                .append("   public boolean canEncode(ResolvableType elementType, MimeType mimeType){\n")
+                .append("       return elementType.toClass() == ").append(entity).append(".class && supports(mimeType);\n")
+                .append("   }\n\n")
+                .append("   @Override\n")
+                .append("   public Flux<DataBuffer> encode(Publisher<? extends ").append(entity).append("> input, DataBufferFactory factory, ResolvableType elementType, MimeType mimeType, Map<String, Object> hints){\n")
+                .append("       if (input instanceof Mono) {\n")
+                .append("           return Mono.from(input).map((value) -> write(factory, value)).flux();\n")
+                .append("       }\n")
+                .append("       if (MediaType.APPLICATION_NDJSON.isCompatibleWith(mimeType)) {\n")
+                .append("           return Flux.from(input).map((value) -> write(factory, value, NONE, NEWLINE));\n")
+                .append("       }\n")
+                .append("       return Flux.concat(\n")
+                .append("           Mono.fromSupplier(() -> factory.wrap(ARRAY_OPEN)),\n")
+                .append("           Flux.from(input).index().map((row) -> write(factory, row.getT2(), row.getT1() == 0 ? NONE : COMMA, NONE)),\n")
+                .append("           Mono.fromSupplier(() -> factory.wrap(ARRAY_CLOSE))\n")
+                .append("       );\n")
+                .append("   }\n\n")
+                .append("   @Override\n")
+                .append("   public DataBuffer encodeValue(").append(entity).append(" value, DataBufferFactory factory, ResolvableType valueType, MimeType mimeType, Map<String, Object> hints){\n")
+                .append("       return write(factory, value);\n")
+                .append("   }\n\n")
+                .append("   @Override\n")
+                .append("   public List<MimeType> getEncodableMimeTypes(){\n")
+                .append("       return MIME_TYPES;\n")
+                .append("   }\n\n")
+                .append("   @Override\n")
+                .append("   public List<MediaType> getStreamingMediaTypes(){\n")
+                .append("       return List.of(MediaType.APPLICATION_NDJSON);\n")
+                .append("   }\n\n")
+                .append("   @Override\n")
+                .append("   public boolean canDecode(ResolvableType elementType, MimeType mimeType){\n")
+                .append("       return elementType.toClass() == ").append(entity).append(".class && supports(mimeType);\n")
+                .append("   }\n\n")
+                .append("   @Override\n")
+                .append("   public Flux<").append(entity).append("> decode(Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType, Map<String, Object> hints){\n")
+                .append("       return Flux.defer(() -> {\n")
+                .append("           JsonSplitter splitter = new JsonSplitter(maxInMemorySize);\n")
+                .append("           return Flux.from(input)\n")
+                .append("               .concatMapIterable((buffer) -> {\n")
+                .append("                   try {\n")
+                .append("                       return splitter.split(buffer);\n")
+                .append("                   } finally {\n")
+                .append("                       DataBufferUtils.release(buffer);\n")
+                .append("                   }\n")
+                .append("               })\n")
+                .append("               .concatWith(Mono.fromRunnable(splitter::finish))\n")
+                .append("               .map((bytes) -> read(DefaultDataBufferFactory.sharedInstance.wrap(bytes)));\n")
+                .append("       });\n")
+                .append("   }\n\n")
+                .append("   @Override\n")
+                .append("   public Mono<").append(entity).append("> decodeToMono(Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType, Map<String, Object> hints){\n")
+                .append("       return DataBufferUtils.join(input, maxInMemorySize).map((buffer) -> decode(buffer, elementType, mimeType, hints));\n")
+                .append("   }\n\n")
+                .append("   @Override\n")
+                .append("   public ").append(entity).append(" decode(DataBuffer buffer, ResolvableType targetType, MimeType mimeType, Map<String, Object> hints){\n")
+                .append("       try {\n")
+                .append("           return read(buffer);\n")
+                .append("       } finally {\n")
+                .append("           DataBufferUtils.release(buffer);\n")
+                .append("       }\n")
+                .append("   }\n\n")
+                .append("   @Override\n")
+                .append("   public List<MimeType> getDecodableMimeTypes(){\n")
+                .append("       return MIME_TYPES;\n")
+                .append("   }\n\n")
+                .append("   private static boolean supports(MimeType mimeType){\n")
+                .append("       return mimeType == null || MIME_TYPES.stream().anyMatch((supported) -> supported.isCompatibleWith(mimeType));\n")
+                .append("   }\n\n")
+                .append("   public static DataBuffer write(DataBufferFactory factory, ").append(entity).append(" value){\n")
+                .append("       return write(factory, value, NONE, NONE);\n")
+                .append("   }\n\n")
+                .append("   public static DataBuffer write(DataBufferFactory factory, ").append(entity).append(" value, byte[] prefix, byte[] suffix){\n")
+                .append("       DataBuffer out = factory.allocateBuffer(256);\n")
+                .append("       try {\n")
+                .append("           out.write(prefix);\n")
+                .append("           writeTo(out, value);\n")
+                .append("           out.write(suffix);\n")
+                .append("           return out;\n")
+                .append("       } catch (RuntimeException e) {\n")
+                .append("           DataBufferUtils.release(out);\n")
+                .append("           throw e;\n")
+                .append("       }\n")
+                .append("   }\n\n")
+                .append("   public static DataBuffer writeArray(DataBufferFactory factory, List<").append(entity).append("> values){\n")
+                .append("       DataBuffer out = factory.allocateBuffer(256 * Math.max(1, values.size()));\n")
+                .append("       try {\n")
+                .append("           out.write(ARRAY_OPEN);\n")
+                .append("           for (int i = 0; i < values.size(); i++) {\n")
+                .append("               if (i > 0) {\n")
+                .append("                   out.write(COMMA);\n")
+                .append("               }\n")
+                .append("               writeTo(out, values.get(i));\n")
+                .append("           }\n")
+                .append("           out.write(ARRAY_CLOSE);\n")
+                .append("           return out;\n")
+                .append("       } catch (RuntimeException e) {\n")
+                .append("           DataBufferUtils.release(out);\n")
+                .append("           throw e;\n")
+                .append("       }\n")
+                .append("   }\n\n")
+                .append("   public static ").append(entity).append(" read(DataBuffer in){\n")
+                .append("       Reader reader = new Reader(in);\n")
+                .append("       ").append(entity).append(" value = reader.readEntity();\n")
+                .append("       reader.end();\n")
+                .append("       return value;\n")
+                .append("   }\n\n")
+                .append("   public static Map<String, Object> readFields(DataBuffer in){\n")
+                .append("       Reader reader = new Reader(in);\n")
+                .append("       Map<String, Object> fields = reader.readFields();\n")
+                .append("       reader.end();\n")
+                .append("       return fields;\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the method that writes every readable field of the entity.
+     *
+     * @param rd RepositoryData: Record containing the entity's fields.
+     * @return String to write to the generated classes.
+     */
+    private String getWriteTo(RepositoryData rd) {
+        StringBuilder sb = new StringBuilder()
+                .append("   static void writeTo(DataBuffer out, ").append(rd.entityName()).append(" value){\n");
+        List<FieldData> fields = getReadable(rd);
+        if (fields.isEmpty()) {
+            sb.append("       out.write(OBJECT_OPEN);\n");
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            FieldData field = fields.get(i);
+            sb.append("       out.write(FIELD_").append(i).append(");\n");
+            String value = "value." + field.getter() + "()";
+            String write = field.enumType()
+                    ? "writeString(out, %s.name())"
+                    : ACCESS.get(field.type()).write();
+            if (isPrimitive(field.type())) {
+                sb.append("       ").append(String.format(write, value)).append(";\n");
+            } else {
+                sb.append("       if (").append(value).append(" == null) {\n")
+                        .append("           writeNull(out);\n")
+                        .append("       } else {\n")
+                        .append("           ").append(String.format(write, value)).append(";\n")
+                        .append("       }\n");
+            }
+        }
+        return sb.append("       out.write(OBJECT_CLOSE);\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    /**
+     * Helper function to generate the parser, with one case per writable field of the entity.
+     * Unknown names are skipped, and nulls leave primitive fields at their default.
+     * readFields decodes only the fields a body names, each by its field's type, for a PATCH to apply;
+     * there an unknown name fails decoding and a null stays null.
+     *
+     * @param rd RepositoryData: Record containing the entity's fields.
+     * @return String to write to the generated classes.
+     */
+    private String getReader(RepositoryData rd) {
+        String entity = rd.entityName();
+        StringBuilder sb = new StringBuilder()
+                .append("   static final class Reader extends JsonReader {\n\n")
+                .append("       Reader(DataBuffer in){\n")
+                .append("           super(in);\n")
+                .append("       }\n\n")
+                .append("       ").append(entity).append(" readEntity(){\n")
+                .append("           expect('{');\n")
+                .append("           ").append(entity).append(" entity = new ").append(entity).append("();\n")
+                .append("           if (peek() == '}') {\n")
+                .append("               expect('}');\n")
+                .append("               return entity;\n")
+                .append("           }\n")
+                .append("           do {\n")
+                .append("               String name = readString();\n")
+                .append("               expect(':');\n")
+                .append("               switch (name) {\n");
+        for (FieldData field : rd.entityFields()) {
+            if (field.setter() == null) {
+                continue;
+            }
+            String read = field.enumType()
+                    ? "parse(readString(), " + field.type() + "::valueOf)"
+                    : ACCESS.get(field.type()).read();
+            sb.append("                   case \"").append(field.name()).append("\" -> ");
+            if (isPrimitive(field.type())) {
+                sb.append("{\n")
+                        .append("                       if (!nullValue()) {\n")
+                        .append("                           entity.").append(field.setter()).append("(").append(read).append(");\n")
+                        .append("                       }\n")
+                        .append("                   }\n");
+            } else {
+                sb.append("entity.").append(field.setter()).append("(nullValue() ? null : ").append(read).append(");\n");
+            }
+        }
+        sb.append("                   default -> skipValue();\n")
+                .append("               }\n")
+                .append("           } while (comma());\n")
+                .append("           expect('}');\n")
+                .append("           return entity;\n")
+                .append("       }\n\n")
+                .append("       Map<String, Object> readFields(){\n")
+                .append("           expect('{');\n")
+                .append("           Map<String, Object> fields = new LinkedHashMap<>();\n")
+                .append("           if (peek() == '}') {\n")
+                .append("               expect('}');\n")
+                .append("               return fields;\n")
+                .append("           }\n")
+                .append("           do {\n")
+                .append("               String name = readString();\n")
+                .append("               expect(':');\n")
+                .append("               fields.put(name, switch (name) {\n");
+        for (FieldData field : rd.entityFields()) {
+            String read = field.enumType()
+                    ? "parse(readString(), " + field.type() + "::valueOf)"
+                    : ACCESS.get(field.type()).read();
+            sb.append("                   case \"").append(field.name()).append("\" -> nullValue() ? null : ").append(read).append(";\n");
+        }
+        return sb.append("                   default -> throw error(\"Unknown field \" + name);\n")
+                .append("               });\n")
+                .append("           } while (comma());\n")
+                .append("           expect('}');\n")
+                .append("           return fields;\n")
+                .append("       }\n")
+                .append("   }\n\n")
+                .toString();
+    }
+
+    private boolean isPrimitive(String type) {
+        return !type.contains(".");
+    }
+
+    /**
+     * Pair of generated expressions used to read and write one field type.
+     *
+     * @param read Expression evaluated against the parser.
+     * @param write Statement format taking the value expression.
+     */
+    private record Access(String read, String write) { }
+
+    /**
+     * Entity independent helpers every generated codec carries, so the generated code needs nothing at runtime
+     * beyond Spring.
+     */
+    private static final String RUNTIME = """
+               private static final byte[] NONE = {};
+
+               private static final byte[] COMMA = {','};
+
+               private static final byte[] NEWLINE = {'\\n'};
+
+               private static final byte[] ARRAY_OPEN = {'['};
+
+               private static final byte[] ARRAY_CLOSE = {']'};
+
+               private static final byte[] OBJECT_OPEN = {'{'};
+
+               private static final byte[] OBJECT_CLOSE = {'}'};
+
+               private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+               private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+
+               private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+               private static final byte[] MIN_LONG = "-9223372036854775808".getBytes(StandardCharsets.US_ASCII);
+
+               private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+               public static DataBuffer writeMap(DataBufferFactory factory, Map<String, ?> values){
+                   return writeMap(factory, values, NONE, NONE);
+               }
+
+               public static Flux<DataBuffer> writeMaps(DataBufferFactory factory, Flux<? extends Map<String, ?>> values, boolean ndjson){
+                   if (ndjson) {
+                       return values.map((value) -> writeMap(factory, value, NONE, NEWLINE));
+                   }
+                   return Flux.concat(
+                       Mono.fromSupplier(() -> factory.wrap(ARRAY_OPEN)),
+                       values.index().map((row) -> writeMap(factory, row.getT2(), row.getT1() == 0 ? NONE : COMMA, NONE)),
+                       Mono.fromSupplier(() -> factory.wrap(ARRAY_CLOSE))
+                   );
+               }
+
+               public static DataBuffer writeMap(DataBufferFactory factory, Map<String, ?> values, byte[] prefix, byte[] suffix){
+                   DataBuffer out = factory.allocateBuffer(64);
+                   try {
+                       out.write(prefix);
+                       out.write(OBJECT_OPEN);
+                       boolean first = true;
+                       for (Map.Entry<String, ?> entry : values.entrySet()) {
+                           if (!first) {
+                               out.write(COMMA);
+                           }
+                           first = false;
+                           writeString(out, entry.getKey());
+                           out.write((byte) ':');
+                           writeObject(out, entry.getValue());
+                       }
+                       out.write(OBJECT_CLOSE);
+                       out.write(suffix);
+                       return out;
+                   } catch (RuntimeException e) {
+                       DataBufferUtils.release(out);
+                       throw e;
+                   }
+               }
+
+               static void writeObject(DataBuffer out, Object value){
+                   if (value == null) {
+                       writeNull(out);
+                   } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                       writeLong(out, ((Number) value).longValue());
+                   } else if (value instanceof Number number) {
+                       writeNumber(out, number.toString());
+                   } else if (value instanceof Boolean bool) {
+                       writeBoolean(out, bool);
+                   } else {
+                       writeString(out, value.toString());
+                   }
+               }
+
+               static void writeNull(DataBuffer out){
+                   out.write(NULL);
+               }
+
+               static void writeBoolean(DataBuffer out, boolean value){
+                   out.write(value ? TRUE : FALSE);
+               }
+
+               static void writeNumber(DataBuffer out, String value){
+                   out.write(value, StandardCharsets.US_ASCII);
+               }
+
+               static void writeFloat(DataBuffer out, float value){
+                   if (Float.isNaN(value) || Float.isInfinite(value)) {
+                       writeNull(out);
+                   } else {
+                       writeNumber(out, Float.toString(value));
+                   }
+               }
+
+               static void writeDouble(DataBuffer out, double value){
+                   if (Double.isNaN(value) || Double.isInfinite(value)) {
+                       writeNull(out);
+                   } else {
+                       writeNumber(out, Double.toString(value));
+                   }
+               }
+
+               static void writeLong(DataBuffer out, long value){
+                   if (value == Long.MIN_VALUE) {
+                       out.write(MIN_LONG);
+                       return;
+                   }
+                   if (value < 0) {
+                       out.write((byte) '-');
+                       value = -value;
+                   }
+                   long divisor = 1;
+                   while (value / divisor >= 10) {
+                       divisor *= 10;
+                   }
+                   while (divisor > 0) {
+                       out.write((byte) ('0' + (value / divisor) % 10));
+                       divisor /= 10;
+                   }
+               }
+
+               static void writeString(DataBuffer out, String value){
+                   out.ensureWritable(value.length() + 2);
+                   out.write((byte) '"');
+                   for (int i = 0; i < value.length(); i++) {
+                       char c = value.charAt(i);
+                       if (c < 0x80) {
+                           if (c == '"' || c == '\\\\') {
+                               out.write((byte) '\\\\');
+                               out.write((byte) c);
+                           } else if (c < 0x20) {
+                               out.write((byte) '\\\\');
+                               out.write((byte) 'u');
+                               out.write((byte) '0');
+                               out.write((byte) '0');
+                               out.write(HEX[c >> 4]);
+                               out.write(HEX[c & 0xF]);
+                           } else {
+                               out.write((byte) c);
+                           }
+                       } else if (c < 0x800) {
+                           out.write((byte) (0xC0 | (c >> 6)));
+                           out.write((byte) (0x80 | (c & 0x3F)));
+                       } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                           int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                           out.write((byte) (0xF0 | (codePoint >> 18)));
+                           out.write((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                           out.write((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                           out.write((byte) (0x80 | (codePoint & 0x3F)));
+                       } else {
+                           char encoded = Character.isSurrogate(c) ? '\\uFFFD' : c;
+                           out.write((byte) (0xE0 | (encoded >> 12)));
+                           out.write((byte) (0x80 | ((encoded >> 6) & 0x3F)));
+                           out.write((byte) (0x80 | (encoded & 0x3F)));
+                       }
+                   }
+                   out.write((byte) '"');
+               }
+
+               /**
+                * Splits a JSON array or NDJSON stream into its top level objects as buffers arrive,
+                * so a large body never has to be joined into one buffer. Each object is capped at maxElementSize bytes,
+                * -1 for no cap.
+                */
+               static final class JsonSplitter {
+                   private final ByteArrayOutputStream element = new ByteArrayOutputStream();
+                   private final int maxElementSize;
+                   private int elementDepth = -1;
+                   private int depth;
+                   private boolean capturing;
+                   private boolean inString;
+                   private boolean escaped;
+
+                   JsonSplitter(int maxElementSize){
+                       this.maxElementSize = maxElementSize;
+                   }
+
+                   List<byte[]> split(DataBuffer buffer){
+                       List<byte[]> complete = new ArrayList<>();
+                       for (int i = buffer.readPosition(); i < buffer.writePosition(); i++) {
+                           byte b = buffer.getByte(i);
+                           if (capturing) {
+                               if (maxElementSize >= 0 && element.size() >= maxElementSize) {
+                                   throw new DataBufferLimitException("Exceeded limit on max bytes per JSON object: " + maxElementSize);
+                               }
+                               element.write(b);
+                               if (inString) {
+                                   if (escaped) {
+                                       escaped = false;
+                                   } else if (b == '\\\\') {
+                                       escaped = true;
+                                   } else if (b == '"') {
+                                       inString = false;
+                                   }
+                               } else if (b == '"') {
+                                   inString = true;
+                               } else if (b == '{' || b == '[') {
+                                   depth++;
+                               } else if ((b == '}' || b == ']') && --depth == elementDepth) {
+                                   complete.add(element.toByteArray());
+                                   element.reset();
+                                   capturing = false;
+                               }
+                               continue;
+                           }
+                           if (b == ' ' || b == '\\n' || b == '\\r' || b == '\\t') {
+                               continue;
+                           }
+                           if (elementDepth < 0) {
+                               elementDepth = b == '[' ? 1 : 0;
+                           }
+                           if (b == '{' && depth == elementDepth) {
+                               capturing = true;
+                               depth++;
+                               element.write(b);
+                           } else if (b == '[' && depth == 0 && elementDepth == 1) {
+                               depth++;
+                           } else if (b == ']' && depth == 1 && elementDepth == 1) {
+                               depth--;
+                           } else if (b != ',' || elementDepth != 1 || depth != 1) {
+                               throw new DecodingException("Expected a JSON object");
+                           }
+                       }
+                       return complete;
+                   }
+
+                   void finish(){
+                       if (capturing || depth != 0) {
+                           throw new DecodingException("Unexpected end of JSON");
+                       }
+                   }
+               }
+
+               static class JsonReader {
+                   private final DataBuffer in;
+                   private final int end;
+                   private int pos;
+
+                   JsonReader(DataBuffer in){
+                       this.in = in;
+                       this.pos = in.readPosition();
+                       this.end = in.writePosition();
+                   }
+
+                   DecodingException error(String message){
+                       return new DecodingException(message + " at offset " + pos);
+                   }
+
+                   boolean atEnd(){
+                       while (pos < end) {
+                           byte b = in.getByte(pos);
+                           if (b != ' ' && b != '\\n' && b != '\\r' && b != '\\t') {
+                               return false;
+                           }
+                           pos++;
+                       }
+                       return true;
+                   }
+
+                   byte peek(){
+                       if (atEnd()) {
+                           throw error("Unexpected end of JSON");
+                       }
+                       return in.getByte(pos);
+                   }
+
+                   void expect(char c){
+                       if (peek() != c) {
+                           throw error("Expected '" + c + "'");
+                       }
+                       pos++;
+                   }
+
+                   void end(){
+                       if (!atEnd()) {
+                           throw error("Unexpected content after JSON");
+                       }
+                   }
+
+                   boolean comma(){
+                       if (peek() == ',') {
+                           pos++;
+                           return true;
+                       }
+                       return false;
+                   }
+
+                   private void literal(byte[] expected){
+                       if (pos + expected.length > end) {
+                           throw error("Unexpected end of JSON");
+                       }
+                       for (byte b : expected) {
+                           if (in.getByte(pos++) != b) {
+                               throw error("Unexpected literal");
+                           }
+                       }
+                   }
+
+                   boolean nullValue(){
+                       if (peek() == 'n') {
+                           literal(NULL);
+                           return true;
+                       }
+                       return false;
+                   }
+
+                   boolean readBoolean(){
+                       if (peek() == 't') {
+                           literal(TRUE);
+                           return true;
+                       }
+                       literal(FALSE);
+                       return false;
+                   }
+
+                   long readLong(){
+                       boolean negative = peek() == '-';
+                       if (negative) {
+                           pos++;
+                       }
+                       int start = pos;
+                       long value = 0;
+                       while (pos < end) {
+                           int digit = in.getByte(pos) - '0';
+                           if (digit < 0 || digit > 9) {
+                               break;
+                           }
+                           if (value > (Long.MAX_VALUE - digit) / 10) {
+                               throw error("Number out of range");
+                           }
+                           value = value * 10 + digit;
+                           pos++;
+                       }
+                       if (pos == start) {
+                           throw error("Expected a number");
+                       }
+                       if (pos < end && (in.getByte(pos) == '.' || in.getByte(pos) == 'e' || in.getByte(pos) == 'E')) {
+                           throw error("Expected a whole number");
+                       }
+                       return negative ? -value : value;
+                   }
+
+                   int readInt(){
+                       long value = readLong();
+                       if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                           throw error("Number out of range");
+                       }
+                       return (int) value;
+                   }
+
+                   short readShort(){
+                       long value = readLong();
+                       if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                           throw error("Number out of range");
+                       }
+                       return (short) value;
+                   }
+
+                   byte readByte(){
+                       long value = readLong();
+                       if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+                           throw error("Number out of range");
+                       }
+                       return (byte) value;
+                   }
+
+                   String readNumber(){
+                       peek();
+                       int start = pos;
+                       while (pos < end) {
+                           byte b = in.getByte(pos);
+                           if ((b < '0' || b > '9') && b != '-' && b != '+' && b != '.' && b != 'e' && b != 'E') {
+                               break;
+                           }
+                           pos++;
+                       }
+                       if (pos == start) {
+                           throw error("Expected a number");
+                       }
+                       return in.toString(start, pos - start, StandardCharsets.US_ASCII);
+                   }
+
+                   double readDouble(){
+                       try {
+                           return Double.parseDouble(readNumber());
+                       } catch (NumberFormatException nfe) {
+                           throw error("Expected a number");
+                       }
+                   }
+
+                   <T> T parse(String value, Function<String, T> parser){
+                       try {
+                           return parser.apply(value);
+                       } catch (IllegalArgumentException | DateTimeException e) {
+                           throw error("Invalid value " + value);
+                       }
+                   }
+
+                   char readChar(){
+                       String value = readString();
+                       if (value.length() != 1) {
+                           throw error("Expected a single character");
+                       }
+                       return value.charAt(0);
+                   }
+
+                   String readString(){
+                       expect('"');
+                       int start = pos;
+                       while (pos < end) {
+                           byte b = in.getByte(pos);
+                           if (b == '"') {
+                               String value = in.toString(start, pos - start, StandardCharsets.UTF_8);
+                               pos++;
+                               return value;
+                           }
+                           if (b == '\\\\') {
+                               return readEscaped(start);
+                           }
+                           pos++;
+                       }
+                       throw error("Unterminated string");
+                   }
+
+                   private String readEscaped(int start){
+                       StringBuilder sb = new StringBuilder(in.toString(start, pos - start, StandardCharsets.UTF_8));
+                       while (pos < end) {
+                           byte b = in.getByte(pos);
+                           if (b == '"') {
+                               pos++;
+                               return sb.toString();
+                           }
+                           if (b != '\\\\') {
+                               int segment = pos;
+                               while (pos < end && in.getByte(pos) != '"' && in.getByte(pos) != '\\\\') {
+                                   pos++;
+                               }
+                               sb.append(in.toString(segment, pos - segment, StandardCharsets.UTF_8));
+                               continue;
+                           }
+                           if (pos + 1 >= end) {
+                               break;
+                           }
+                           byte escaped = in.getByte(pos + 1);
+                           pos += 2;
+                           switch (escaped) {
+                               case '"' -> sb.append('"');
+                               case '\\\\' -> sb.append('\\\\');
+                               case '/' -> sb.append('/');
+                               case 'b' -> sb.append('\\b');
+                               case 'f' -> sb.append('\\f');
+                               case 'n' -> sb.append('\\n');
+                               case 'r' -> sb.append('\\r');
+                               case 't' -> sb.append('\\t');
+                               case 'u' -> {
+                                   if (pos + 4 > end) {
+                                       throw error("Unterminated escape");
+                                   }
+                                   int c = 0;
+                                   for (int i = 0; i < 4; i++) {
+                                       int digit = Character.digit(in.getByte(pos++), 16);
+                                       if (digit < 0) {
+                                           throw error("Invalid unicode escape");
+                                       }
+                                       c = (c << 4) | digit;
+                                   }
+                                   sb.append((char) c);
+                               }
+                               default -> throw error("Invalid escape");
+                           }
+                       }
+                       throw error("Unterminated string");
+                   }
+
+                   void skipValue(){
+                       switch (peek()) {
+                           case '"' -> readString();
+                           case 't', 'f' -> readBoolean();
+                           case 'n' -> nullValue();
+                           case '{' -> {
+                               expect('{');
+                               if (peek() != '}') {
+                                   do {
+                                       readString();
+                                       expect(':');
+                                       skipValue();
+                                   } while (comma());
+                               }
+                               expect('}');
+                           }
+                           case '[' -> {
+                               expect('[');
+                               if (peek() != ']') {
+                                   do {
+                                       skipValue();
+                                   } while (comma());
+                               }
+                               expect(']');
+                           }
+                           default -> readNumber();
+                       }
+                   }
+               }
+
+            """;
+}
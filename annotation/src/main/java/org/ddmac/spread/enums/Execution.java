@@ -0,0 +1,15 @@
+package org.ddmac.spread.enums;
+
+/**
+ * Enum for user to choose where the generated handler runs blocking repository calls.
+ */
+public enum Execution {
+    /**
+     * reactor.core.scheduler.Schedulers#newBoundedElastic
+     */
+    BOUNDED_ELASTIC,
+    /**
+     * java.util.concurrent.Executors#newVirtualThreadPerTaskExecutor
+     */
+    VIRTUAL_THREADS
+}
@@ -0,0 +1,16 @@
+package org.ddmac.spread.enums;
+
+/**
+ * Enum for user to choose how a limited route sets the number of requests it handles at once.
+ */
+public enum Limit {
+    /**
+     * The route handles up to the concurrency limit at once
+     */
+    FIXED,
+    /**
+     * The route lowers its limit multiplicatively when requests slow down or fail, and raises it additively
+     * up to the concurrency limit while they stay fast
+     */
+    ADAPTIVE
+}
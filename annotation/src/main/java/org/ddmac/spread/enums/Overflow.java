@@ -0,0 +1,15 @@
+package org.ddmac.spread.enums;
+
+/**
+ * Enum for user to choose what a change feed subscriber misses when it falls behind by a full buffer.
+ */
+public enum Overflow {
+    /**
+     * reactor.core.publisher.BufferOverflowStrategy#DROP_LATEST, the subscriber keeps the changes it had buffered
+     */
+    DROP,
+    /**
+     * reactor.core.publisher.BufferOverflowStrategy#DROP_OLDEST, the subscriber keeps the latest changes
+     */
+    LATEST
+}
@@ -15,5 +15,9 @@ public enum Serializer {
     /**
      * kotlinx.serialize
      */
-    KOTLIN
+    KOTLIN,
+    /**
+     * Reflection free codec generated from the entity's fields at compile time.
+     */
+    GENERATED
 }
@@ -0,0 +1,18 @@
+package org.ddmac.spread.repositorydata;
+
+/**
+ * Record holding metadata about a persistent field of the repository's entity.
+ *
+ * @param name Name of the field.
+ * @param type Fully qualified type of the field, or the keyword for primitives.
+ * @param enumType Whether the field's type is an enum.
+ * @param getter Name of the public getter, null when there is none.
+ * @param setter Name of the public setter, null when there is none.
+ */
+public record FieldData(
+        String name,
+        String type,
+        boolean enumType,
+        String getter,
+        String setter
+) { }
@@ -1,7 +1,12 @@
 package org.ddmac.spread.repositorydata;
 
+import org.ddmac.spread.enums.Execution;
+import org.ddmac.spread.enums.Limit;
+import org.ddmac.spread.enums.Overflow;
 import org.ddmac.spread.enums.Serializer;
 
+import java.util.List;
+
 /**
  * Record holding metadata about annotated interface.
  *
@@ -10,6 +15,36 @@ import org.ddmac.spread.enums.Serializer;
  * @param entityName Simple name of the entity associated with the repository.
  * @param reqPath User provided path for the api endpoint.
  * @param serializer User provided enum for the serializer they use.
+ * @param schedulerThreads User provided thread cap for the repository scheduler.
+ * @param schedulerQueueSize User provided queue cap for the repository scheduler.
+ * @param execution User provided enum for where repository calls run.
+ * @param maxConcurrency User provided cap on in flight repository calls for virtual threads.
+ * @param fetchSize User provided JDBC fetch size for the streamed GET-all.
+ * @param maxPageSize User provided cap on the page size of paged GETs.
+ * @param chunkSize User provided number of entities saved per transaction by the batch PUT.
+ * @param batchSize User provided JDBC batch size for the batch PUT.
+ * @param cache User provided number of serialized entities GET-by-id keeps in memory.
+ * @param cacheTtlSeconds User provided lifetime of a cached GET-by-id response.
+ * @param coalesce User provided switch sharing one lookup between concurrent GET-by-id requests for an id.
+ * @param changes User provided number of changes a change feed subscriber may fall behind by, 0 for no feed.
+ * @param changesOverflow User provided enum for the changes a subscriber misses once its buffer is full.
+ * @param concurrencyLimit User provided cap on the requests a limited route handles at once, 0 for no limit.
+ * @param limit User provided enum for whether limited routes keep or adapt their limit.
+ * @param limitQueueSize User provided cap on the requests a limited route keeps waiting.
+ * @param limitTimeoutMillis User provided time a request waits for a limited route before it is rejected.
+ * @param limited Handler methods of the routes to limit, as the user names them, empty for every route but the feed.
+ * @param compressionThreshold User provided response size from which responses are compressed.
+ * @param projectable Fields clients may select with the fields parameter, as the user names them or every
+ *                    persistent field that is not an association.
+ * @param filterable Fields the GET-all and paged GETs filter on, as the user names them or every indexed field.
+ * @param metrics Whether Micrometer is on the compile classpath, so the handler can record into a MeterRegistry.
+ * @param bulkDelete Whether a DELETE by id can be one DELETE statement, bypassing the persistence context.
+ * @param patchable Fields a PATCH may change with one UPDATE statement, empty when the entity gets no PATCH.
+ * @param idField Name of the entity's id field, or of its first @Id field when it has an @IdClass.
+ * @param idType Fully qualified id type, as the repository declares it to JpaRepository.
+ * @param idFields Fields of the composite id class, in declaration order. Empty for simple ids.
+ * @param versionField Name of the entity's @Version field, null when it has none.
+ * @param entityFields The entity's persistent fields.
  */
 
 public record RepositoryData(
@@ -17,5 +52,34 @@ public record RepositoryData(
         String repoSimpleName,
         String entityName,
         String reqPath,
-        Serializer serializer
+        Serializer serializer,
+        int schedulerThreads,
+        int schedulerQueueSize,
+        Execution execution,
+        int maxConcurrency,
+        int fetchSize,
+        int maxPageSize,
+        int chunkSize,
+        int batchSize,
+        int cache,
+        long cacheTtlSeconds,
+        boolean coalesce,
+        int changes,
+        Overflow changesOverflow,
+        int concurrencyLimit,
+        Limit limit,
+        int limitQueueSize,
+        long limitTimeoutMillis,
+        List<String> limited,
+        int compressionThreshold,
+        List<String> projectable,
+        List<String> filterable,
+        boolean metrics,
+        boolean bulkDelete,
+        List<String> patchable,
+        String idField,
+        String idType,
+        List<FieldData> idFields,
+        String versionField,
+        List<FieldData> entityFields
 ) { }
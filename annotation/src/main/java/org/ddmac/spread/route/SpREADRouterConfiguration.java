@@ -0,0 +1,62 @@
+package org.ddmac.spread.route;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration of the one router bean of the application, imported by every generated router.
+ * The bean looks the request path up in a HashMap of each repository's routes, trying the path and then its
+ * parent for the batch and change feed routes, so matching costs the same however many repositories there are
+ * and each request is tested against the predicates of one repository only.
+ * The routers are collected at runtime, so each repository is generated on its own and repositories of
+ * separate compilations, such as an application's main and test sources, share the bean.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SpREADRouterConfiguration {
+
+    /**
+     * @param repositories The generated routers of every @SpREAD repository.
+     * @return Router dispatching each request to the repository its path belongs to.
+     * @throws IllegalStateException When two repositories have the same path.
+     */
+    @Bean
+    RouterFunction<ServerResponse> spreadRouter(List<SpREADRoutes> repositories) {
+        Map<String, RouterFunction<ServerResponse>> routers = new HashMap<>(repositories.size() * 2);
+        for (SpREADRoutes repository : repositories) {
+            if (routers.putIfAbsent(key(repository.path()), repository.routes()) != null) {
+                throw new IllegalStateException("path " + repository.path() + " is used by more than one @SpREAD repository");
+            }
+        }
+        return (request) -> {
+            String path = request.requestPath().pathWithinApplication().value();
+            RouterFunction<ServerResponse> router = routers.get(path);
+            if (router == null) {
+                int slash = path.lastIndexOf('/');
+                router = slash < 0 ? null : routers.get(slash == 0 ? "/" : path.substring(0, slash));
+            }
+            return router == null ? Mono.empty() : router.route(request);
+        };
+    }
+
+    /**
+     * Key of a repository's path: the path without trailing slashes, or "/" for the root,
+     * so a request's parent path finds it.
+     *
+     * @param path Path the user provided.
+     * @return Key to look the path up by.
+     */
+    static String key(String path) {
+        int end = path.length();
+        while (end > 0 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return end == 0 ? "/" : path.substring(0, end);
+    }
+}
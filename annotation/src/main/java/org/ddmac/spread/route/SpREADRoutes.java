@@ -0,0 +1,21 @@
+package org.ddmac.spread.route;
+
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * The routes of one @SpREAD repository, implemented by the router generated for it.
+ * Every implementation is collected by {@link SpREADRouterConfiguration}.
+ */
+public interface SpREADRoutes {
+
+    /**
+     * @return Path the repository was annotated with.
+     */
+    String path();
+
+    /**
+     * @return The repository's routes, registered on its handler.
+     */
+    RouterFunction<ServerResponse> routes();
+}
@@ -0,0 +1,57 @@
+package org.ddmac.spread.template;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * A piece of a generated class, together with the types it refers to by their simple name.
+ * A SourceFile derives its import block from the fragments it holds, so a member that is left out
+ * of a file takes its imports with it.
+ */
+public interface Fragment {
+
+    /**
+     * @return Fully qualified names of the types this fragment refers to by their simple name.
+     */
+    Set<String> imports();
+
+    /**
+     * Writes this fragment's source.
+     *
+     * @param out Writer of the file being generated.
+     * @throws IOException When the writer fails.
+     */
+    void writeTo(Writer out) throws IOException;
+
+    /**
+     * @param code Source of the fragment.
+     * @param imports Fully qualified names of the types the source refers to by their simple name.
+     * @return Fragment writing the given source.
+     */
+    static Fragment of(String code, String... imports) {
+        return of(code, Arrays.asList(imports));
+    }
+
+    /**
+     * @param code Source of the fragment.
+     * @param imports Fully qualified names of the types the source refers to by their simple name.
+     * @return Fragment writing the given source, needing no imports when the source is empty.
+     */
+    static Fragment of(String code, Collection<String> imports) {
+        Set<String> types = code.isEmpty() ? Set.of() : Set.copyOf(imports);
+        return new Fragment() {
+            @Override
+            public Set<String> imports() {
+                return types;
+            }
+
+            @Override
+            public void writeTo(Writer out) throws IOException {
+                out.write(code);
+            }
+        };
+    }
+}
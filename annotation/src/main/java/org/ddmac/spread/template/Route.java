@@ -0,0 +1,34 @@
+package org.ddmac.spread.template;
+
+/**
+ * A route of a generated repository: the request predicate the router matches, and the handler method
+ * answering it. The router and the handler are generated from the same list of routes, so a route is
+ * added or left out in one place.
+ *
+ * @param predicate RequestPredicates expression matching the route, relative to the router's path field.
+ * @param handler Name of the handler method answering the route.
+ * @param body Handler members implementing the route.
+ */
+public record Route(
+        String predicate,
+        String handler,
+        Fragment body
+) {
+
+    /**
+     * @param first Whether this is the first route of the router function.
+     * @param metered Whether the handler method is registered through the handler's metered wrapper.
+     * @param limited Whether the handler method is registered through the handler's limited wrapper, inside the metered one.
+     * @return Call registering this route on a RouterFunctions builder.
+     */
+    public String registration(boolean first, boolean metered, boolean limited) {
+        String function = "handler::" + handler;
+        if (limited) {
+            function = "handler.limited(\"" + handler + "\", " + function + ")";
+        }
+        if (metered) {
+            function = "handler.metered(\"" + handler + "\", " + function + ")";
+        }
+        return (first ? ".route(" : ".andRoute(") + predicate + ", " + function + ")";
+    }
+}
@@ -0,0 +1,143 @@
+package org.ddmac.spread.template;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A generated top level class, built from fragments and written straight into the Filer.
+ * The import block is resolved from the fragments: sorted, without duplicates, and without types from
+ * java.lang or the file's own package. Two different types sharing a simple name are a generator bug
+ * and fail the build instead of producing a file that does not compile.
+ */
+public final class SourceFile {
+
+    private final String packageName;
+    private final String className;
+    private final String declaration;
+    private final List<String> declarationImports;
+    private final Set<String> staticImports = new TreeSet<>();
+    private final List<Fragment> members = new ArrayList<>();
+
+    /**
+     * @param packageName Package of the generated class.
+     * @param className Simple name of the generated class.
+     * @param declaration Annotations and declaration of the class, up to its opening brace.
+     * @param imports Fully qualified names of the types the declaration refers to.
+     */
+    public SourceFile(String packageName, String className, String declaration, String... imports) {
+        this.packageName = packageName;
+        this.className = className;
+        this.declaration = declaration;
+        this.declarationImports = List.of(imports);
+    }
+
+    /**
+     * @param member Fragment to write after the members added so far.
+     * @return This file.
+     */
+    public SourceFile add(Fragment member) {
+        members.add(member);
+        return this;
+    }
+
+    /**
+     * @param member Static member to import, or a type followed by .* for all of its static members.
+     * @return This file.
+     */
+    public SourceFile addStaticImport(String member) {
+        staticImports.add(member);
+        return this;
+    }
+
+    /**
+     * @return Fully qualified name of the generated class.
+     */
+    public String qualifiedName() {
+        return packageName + "." + className;
+    }
+
+    /**
+     * Resolves the imports the members need.
+     *
+     * @return Sorted fully qualified names to import.
+     * @throws IllegalStateException When two different types share a simple name.
+     */
+    public Set<String> imports() {
+        Set<String> imports = new TreeSet<>();
+        Map<String, String> bySimpleName = new HashMap<>();
+        List<String> types = new ArrayList<>(declarationImports);
+        for (Fragment member : members) {
+            types.addAll(member.imports());
+        }
+        for (String type : types) {
+            int dot = type.lastIndexOf('.');
+            String typePackage = dot < 0 ? "" : type.substring(0, dot);
+            if (typePackage.equals("java.lang") || typePackage.equals(packageName)) {
+                continue;
+            }
+            String other = bySimpleName.putIfAbsent(type.substring(dot + 1), type);
+            if (other != null && !other.equals(type)) {
+                throw new IllegalStateException(qualifiedName() + " refers to both " + other + " and " + type);
+            }
+            imports.add(type);
+        }
+        return imports;
+    }
+
+    /**
+     * Writes the file, fragment by fragment, without building it in memory first.
+     *
+     * @param out Writer of the file being generated.
+     * @throws IOException When the writer fails.
+     */
+    public void writeTo(Writer out) throws IOException {
+        out.write("package " + packageName + ";\n\n");
+        List<String> platform = new ArrayList<>();
+        for (String type : imports()) {
+            if (type.startsWith("java.") || type.startsWith("javax.")) {
+                platform.add(type);
+            } else {
+                out.write("import " + type + ";\n");
+            }
+        }
+        out.write("\n");
+        for (String type : platform) {
+            out.write("import " + type + ";\n");
+        }
+        if (!platform.isEmpty()) {
+            out.write("\n");
+        }
+        for (String member : staticImports) {
+            out.write("import static " + member + ";\n");
+        }
+        if (!staticImports.isEmpty()) {
+            out.write("\n");
+        }
+        out.write(declaration + " {\n\n");
+        for (Fragment member : members) {
+            member.writeTo(out);
+        }
+        out.write("}");
+    }
+
+    /**
+     * Creates the source file and writes it.
+     *
+     * @param filer Filer of the running processor.
+     * @param originatingElement Element the file is generated from, for incremental builds.
+     * @throws IOException When the file cannot be created or written.
+     */
+    public void writeTo(Filer filer, Element originatingElement) throws IOException {
+        try (Writer writer = filer.createSourceFile(qualifiedName(), originatingElement).openWriter()) {
+            writeTo(writer);
+        }
+    }
+}
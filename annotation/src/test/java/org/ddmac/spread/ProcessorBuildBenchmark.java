@@ -0,0 +1,197 @@
+package org.ddmac.spread;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Measures annotation processing time over a synthetic module with hundreds of @SpREAD repositories.
+ * Compares processing the whole module against processing a single repository, which is all Gradle
+ * hands the isolating processor when one repository or its entity changes.
+ * The persistence and Spring Data types are stubbed and javac runs with -proc:only, so only the processor is timed.
+ * The generated files cannot resolve Spring here, the diagnostics that causes are collected and ignored.
+ * Run with {@code gradle :annotation:benchmark}.
+ */
+@Tag("benchmark")
+public class ProcessorBuildBenchmark {
+
+    private static final int REPOSITORIES = 300;
+    private static final int ITERATIONS = 5;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void processSyntheticModule() throws IOException {
+        Path sources = dir.resolve("src");
+        List<File> stubs = writeStubs(sources);
+        List<File> all = new ArrayList<>(stubs);
+        for (int i = 0; i < REPOSITORIES; i++) {
+            all.addAll(writeRepository(sources, i));
+        }
+        List<File> single = new ArrayList<>(stubs);
+        single.addAll(writeRepository(sources, 0));
+
+        long[] full = new long[ITERATIONS];
+        long[] fullProcessor = new long[ITERATIONS];
+        long[] isolated = new long[ITERATIONS];
+        long[] isolatedProcessor = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long[] times = process(all, dir.resolve("full" + i));
+            full[i] = times[0];
+            fullProcessor[i] = times[1];
+            times = process(single, dir.resolve("isolated" + i));
+            isolated[i] = times[0];
+            isolatedProcessor[i] = times[1];
+        }
+
+        long generated = count(dir.resolve("full0"));
+        assert(generated == 2L * REPOSITORIES);
+        assert(count(dir.resolve("isolated0")) == 2L);
+
+        System.out.printf("%d repositories, %d generated files%n", REPOSITORIES, generated);
+        System.out.printf("full module:       javac median %d ms, processor best %d ms, median %d ms%n",
+                median(full), best(fullProcessor), median(fullProcessor));
+        System.out.printf("single repository: javac median %d ms, processor best %d ms, median %d ms%n",
+                median(isolated), best(isolatedProcessor), median(isolatedProcessor));
+    }
+
+    /**
+     * Runs javac over the files and returns the wall time of the run and the time spent inside the processor.
+     */
+    private long[] process(List<File> files, Path output) throws IOException {
+        Files.createDirectories(output);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+            List<String> options = List.of(
+                    "-proc:only",
+                    "-implicit:none",
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-s", output.toString()
+            );
+            TimedProcessor processor = new TimedProcessor();
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, new DiagnosticCollector<>(), options, null, units);
+            task.setProcessors(List.of(processor));
+            long start = System.nanoTime();
+            task.call();
+            return new long[]{(System.nanoTime() - start) / 1_000_000, processor.nanos / 1_000_000};
+        }
+    }
+
+    /**
+     * Times SpREADProcessor's rounds, javac's own work on the generated files is left out.
+     */
+    private static final class TimedProcessor extends SpREADProcessor {
+        long nanos;
+
+        @Override
+        public Set<String> getSupportedAnnotationTypes() {
+            return Set.of(SpREAD.class.getName());
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.RELEASE_21;
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            long start = System.nanoTime();
+            try {
+                return super.process(annotations, roundEnv);
+            } finally {
+                nanos += System.nanoTime() - start;
+            }
+        }
+    }
+
+    private static List<File> writeStubs(Path sources){
+        return List.of(
+                write(sources, "org/springframework/data/jpa/repository/JpaRepository.java", """
+                        package org.springframework.data.jpa.repository;
+                        public interface JpaRepository<T, ID> {}
+                        """),
+                write(sources, "jakarta/persistence/Entity.java", """
+                        package jakarta.persistence;
+                        public @interface Entity {}
+                        """),
+                write(sources, "jakarta/persistence/Id.java", """
+                        package jakarta.persistence;
+                        public @interface Id {}
+                        """)
+        );
+    }
+
+    private static List<File> writeRepository(Path sources, int i){
+        String pkg = "bench.module" + (i % 10);
+        String path = pkg.replace('.', '/');
+        return List.of(
+                write(sources, path + "/Entity" + i + ".java", """
+                        package %1$s;
+                        @jakarta.persistence.Entity
+                        public class Entity%2$d {
+                            @jakarta.persistence.Id
+                            Long id;
+                            String name;
+                            int count;
+                            boolean active;
+                            public Long getId() { return id; }
+                            public void setId(Long id) { this.id = id; }
+                            public String getName() { return name; }
+                            public void setName(String name) { this.name = name; }
+                        }
+                        """.formatted(pkg, i)),
+                write(sources, path + "/Repository" + i + ".java", """
+                        package %1$s;
+                        @org.ddmac.spread.SpREAD(path = "/entity%2$d")
+                        public interface Repository%2$d extends org.springframework.data.jpa.repository.JpaRepository<Entity%2$d, Long> {}
+                        """.formatted(pkg, i))
+        );
+    }
+
+    private static File write(Path sources, String name, String content){
+        try {
+            Path file = sources.resolve(name);
+            Files.createDirectories(file.getParent());
+            return Files.writeString(file, content).toFile();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long count(Path output) throws IOException {
+        try (Stream<Path> files = Files.walk(output)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static long best(long[] times){
+        return Arrays.stream(times).min().orElseThrow();
+    }
+
+    private static long median(long[] times){
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
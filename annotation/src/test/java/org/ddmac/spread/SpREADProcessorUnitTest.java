@@ -1,71 +1,514 @@
 package org.ddmac.spread;
 
 
+import org.ddmac.spread.enums.Execution;
+import org.ddmac.spread.enums.Limit;
+import org.ddmac.spread.enums.Overflow;
 import org.ddmac.spread.enums.Serializer;
+import org.ddmac.spread.repositorydata.FieldData;
 import org.ddmac.spread.repositorydata.RepositoryData;
+import org.ddmac.spread.template.Route;
 import org.junit.jupiter.api.Test;
 
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.List;
 
 public class SpREADProcessorUnitTest {
+    private static final FieldData ID = new FieldData("id", "java.lang.Long", false, "getId", "setId");
+    private static final FieldData TEST_STRING = new FieldData("testString", "java.lang.String", false, "getTestString", "setTestString");
+    private static final FieldData VERSION = new FieldData("version", "long", false, "getVersion", "setVersion");
+    private static final FieldData TEST_INT = new FieldData("testInt", "int", false, "getTestInt", "setTestInt");
+
     SpREADProcessor processor = new SpREADProcessor();
-    RepositoryData repositoryData = new RepositoryData(
-            "com.ddmac.test",
-            "TestRepository",
-            "TestEntity",
-            "/test",
-            Serializer.GSON
-    );
+    RepositoryData repositoryData = fixture().build();
+
+    /**
+     * @return Builder of the base fixture: a GSON repository of TestEntity with a Long id and a testString field.
+     */
+    private static Fixture fixture(){
+        return new Fixture();
+    }
+
+    private static final class Fixture {
+        private Serializer serializer = Serializer.GSON;
+        private int schedulerThreads = 4;
+        private int schedulerQueueSize = 16;
+        private Execution execution = Execution.BOUNDED_ELASTIC;
+        private int maxConcurrency = 0;
+        private int cache = 0;
+        private long cacheTtlSeconds = 60;
+        private boolean coalesce = false;
+        private int changes = 0;
+        private Overflow changesOverflow = Overflow.LATEST;
+        private int concurrencyLimit = 0;
+        private Limit limit = Limit.FIXED;
+        private int limitQueueSize = 0;
+        private long limitTimeoutMillis = 1000;
+        private int compressionThreshold = 0;
+        private boolean metrics = false;
+        private boolean bulkDelete = true;
+        private List<String> patchable = List.of("testString");
+        private String idType = "java.lang.Long";
+        private List<FieldData> idFields = List.of();
+        private String versionField = null;
+        private List<FieldData> entityFields = List.of(ID, TEST_STRING);
+
+        Fixture withSerializer(Serializer serializer){
+            this.serializer = serializer;
+            return this;
+        }
+
+        Fixture withScheduler(int threads, int queueSize){
+            this.schedulerThreads = threads;
+            this.schedulerQueueSize = queueSize;
+            return this;
+        }
+
+        Fixture withExecution(Execution execution, int maxConcurrency){
+            this.execution = execution;
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        Fixture withCache(int cache, long ttlSeconds){
+            this.cache = cache;
+            this.cacheTtlSeconds = ttlSeconds;
+            return this;
+        }
+
+        Fixture withCoalesce(boolean coalesce){
+            this.coalesce = coalesce;
+            return this;
+        }
+
+        Fixture withChanges(int changes, Overflow overflow){
+            this.changes = changes;
+            this.changesOverflow = overflow;
+            return this;
+        }
+
+        Fixture withLimit(int concurrencyLimit, Limit limit, int queueSize, long timeoutMillis){
+            this.concurrencyLimit = concurrencyLimit;
+            this.limit = limit;
+            this.limitQueueSize = queueSize;
+            this.limitTimeoutMillis = timeoutMillis;
+            return this;
+        }
+
+        Fixture withCompressionThreshold(int compressionThreshold){
+            this.compressionThreshold = compressionThreshold;
+            return this;
+        }
+
+        Fixture withMetrics(boolean metrics){
+            this.metrics = metrics;
+            return this;
+        }
+
+        Fixture withBulkDelete(boolean bulkDelete){
+            this.bulkDelete = bulkDelete;
+            return this;
+        }
+
+        Fixture withPatchable(String... patchable){
+            this.patchable = List.of(patchable);
+            return this;
+        }
+
+        Fixture withId(String idType, FieldData... idFields){
+            this.idType = idType;
+            this.idFields = List.of(idFields);
+            return this;
+        }
+
+        Fixture withVersionField(String versionField){
+            this.versionField = versionField;
+            return this;
+        }
+
+        Fixture withFields(FieldData... entityFields){
+            this.entityFields = List.of(entityFields);
+            return this;
+        }
+
+        RepositoryData build(){
+            return new RepositoryData(
+                    "com.ddmac.test", "TestRepository", "TestEntity", "/test", serializer,
+                    schedulerThreads, schedulerQueueSize, execution, maxConcurrency, 256, 50, 500, 50,
+                    cache, cacheTtlSeconds, coalesce, changes, changesOverflow,
+                    concurrencyLimit, limit, limitQueueSize, limitTimeoutMillis, List.of(), compressionThreshold,
+                    List.of("id", "testString"), List.of("testString"), metrics, bulkDelete, patchable,
+                    "id", idType, idFields, versionField, entityFields
+            );
+        }
+    }
 
     @Test
     void testGetPredicates() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        Method m = SpREADProcessor.class.getDeclaredMethod("getPredicates");
+        Method m = SpREADProcessor.class.getDeclaredMethod("getPredicates", RepositoryData.class);
         m.setAccessible(true);
-        String result = (String) m.invoke(processor);
+        String result = (String) m.invoke(processor,repositoryData);
         assert(result.contains("validId()"));
-        assert(result.contains("noQueryParam()"));
+        assert(result.contains("listQuery()"));
+        assert(result.contains("TestEntitySpREADHandlerImpl.parseId(value)"));
+        assert(result.contains("return this.path.endsWith(\"/\") ? this.path + segment : this.path + \"/\" + segment;"));
+        assert(!result.contains("toSingleValueMap"));
+    }
+
+    @Test
+    void testGetIdParser() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getIdParser", RepositoryData.class);
+        m.setAccessible(true);
+        String result = (String) m.invoke(processor,repositoryData);
+        assert(result.contains("static Long parseId(String value){"));
+        assert(result.contains("return parseLong(value, 0, value.length());"));
+        assert(result.contains("long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;"));
+        assert(!result.contains("catch"));
+        RepositoryData uuid = fixture()
+                .withId("java.util.UUID")
+                .withFields(new FieldData("id", "java.util.UUID", false, "getId", "setId"))
+                .build();
+        assert(((String) m.invoke(processor,uuid)).contains("return parseUuid(value, 0, value.length());"));
+        RepositoryData composite = fixture()
+                .withId("com.ddmac.test.TestId",
+                        new FieldData("orderId", "long", false, "getOrderId", "setOrderId"),
+                        new FieldData("code", "java.lang.String", false, "getCode", "setCode"))
+                .withFields(new FieldData("id", "com.ddmac.test.TestId", false, "getId", "setId"))
+                .build();
+        String result1 = (String) m.invoke(processor,composite);
+        assert(result1.contains("static com.ddmac.test.TestId parseId(String value){"));
+        assert(result1.contains("Long part0 = parseLong(value, start, end);"));
+        assert(result1.contains("String part1 = parseString(value, start, end);"));
+        assert(result1.contains("id.setCode(part1);"));
+    }
+
+    @Test
+    void testGetScheduler() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getScheduler", RepositoryData.class);
+        m.setAccessible(true);
+        String result = (String) m.invoke(processor,repositoryData);
+        assert(result.contains("Schedulers.newBoundedElastic("));
+        assert(result.contains("4,"));
+        assert(result.contains("16,"));
+    }
+
+    @Test
+    void testGetProjection() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getProjection", RepositoryData.class);
+        m.setAccessible(true);
+        String result = (String) m.invoke(processor,repositoryData);
+        assert(result.contains("PROJECTABLE = {\"id\", \"testString\"};"));
+        assert(result.contains("case \"testString\" -> 1;"));
+        assert(result.contains("default -> -1;"));
+        assert(!result.contains("split("));
+        assert(!result.contains("ROW_TYPE"));
+    }
+
+    @Test
+    void testGetFilters() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getFilters", RepositoryData.class);
+        m.setAccessible(true);
+        String result = (String) m.invoke(processor,repositoryData);
+        assert(result.contains("boolean valid = filter(filters, \"testString\", params.get(\"testString\"), (value) -> parseString(value, 0, value.length()))"));
+        assert(result.contains("root.get(filter.getKey()).in(values)"));
+        assert(result.contains("query.select(cb.count(root)).where(where(cb, root, filters));"));
+        Method predicates = SpREADProcessor.class.getDeclaredMethod("getPredicates", RepositoryData.class);
+        predicates.setAccessible(true);
+        assert(((String) predicates.invoke(processor,repositoryData)).contains("LIST_PARAMS = Set.of(\"fields\", \"testString\");"));
+    }
+
+    @Test
+    void testGetVirtualThreadScheduler() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getScheduler", RepositoryData.class);
+        m.setAccessible(true);
+        RepositoryData virtual = fixture()
+                .withScheduler(0, 0)
+                .withExecution(Execution.VIRTUAL_THREADS, 32)
+                .build();
+        String result = (String) m.invoke(processor,virtual);
+        assert(result.contains("Executors.newVirtualThreadPerTaskExecutor()"));
+        assert(result.contains("new Semaphore(32)"));
+    }
+
+    @Test
+    void testGetBlocking() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getBlocking", Execution.class, boolean.class);
+        m.setAccessible(true);
+        assert(((String) m.invoke(processor,Execution.VIRTUAL_THREADS,false)).contains("permits.acquire()"));
+        assert(!((String) m.invoke(processor,Execution.BOUNDED_ELASTIC,false)).contains("permits"));
+        String metered = (String) m.invoke(processor,Execution.BOUNDED_ELASTIC,true);
+        assert(metered.contains("meters.repository.recordCallable(call)"));
+        assert(metered.contains("private <T> Mono<T> offload(Callable<T> call)"));
+    }
+
+    @Test
+    void testGetAll() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getAll", RepositoryData.class);
+        m.setAccessible(true);
+        String result = (String) m.invoke(processor,repositoryData);
+        assert(result.contains("return getAllRows(request, filters)\n           .onErrorResume(RejectedExecutionException.class, this::rejected);"));
+        assert(result.contains("if (ndjson(request)) {"));
+        Method negotiation = SpREADProcessor.class.getDeclaredMethod("getNegotiation");
+        negotiation.setAccessible(true);
+        assert(((String) negotiation.invoke(processor)).contains("!type.isWildcardSubtype() && MediaType.APPLICATION_NDJSON.isCompatibleWith(type)"));
+    }
+
+    @Test
+    void testGetMetrics() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getMetrics", RepositoryData.class);
+        m.setAccessible(true);
+        assert(((String) m.invoke(processor,repositoryData)).isEmpty());
+        String result = (String) m.invoke(processor,fixture().withMetrics(true).build());
+        assert(result.contains("new Metrics.Meters(meterRegistry, \"TestEntity\", \"/test\", route)"));
+        assert(result.contains("Timer.builder(\"spread.requests\")"));
+        assert(result.contains("return handler;"));
+    }
+
+    @Test
+    void testGetPageConstants() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getPageConstants", RepositoryData.class);
+        m.setAccessible(true);
+        String result = (String) m.invoke(processor,repositoryData);
+        assert(result.contains("MAX_PAGE_SIZE = 50;"));
+        assert(result.contains("DEFAULT_PAGE_SIZE = 20;"));
+        assert(result.contains("Set.of(\"id\", \"testString\")"));
+    }
+
+    @Test
+    void testGetSerializerMembers() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getSerializerMembers", RepositoryData.class);
+        m.setAccessible(true);
+        String result = (String) m.invoke(processor,repositoryData);
+        assert(result.contains("static final Gson GSON = new Gson();"));
+        assert(result.contains("ENTITY_ADAPTER = GSON.getAdapter(TestEntity.class);"));
+        assert(result.contains("class DataBufferWriter extends Writer"));
+    }
+
+    @Test
+    void testGetCacheMembers() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getCacheMembers", RepositoryData.class);
+        m.setAccessible(true);
+        assert(((String) m.invoke(processor,repositoryData)).isEmpty());
+        RepositoryData cached = fixture()
+                .withSerializer(Serializer.JACKSON)
+                .withCache(128, 5)
+                .build();
+        String result = (String) m.invoke(processor,cached);
+        assert(result.contains("CACHE_SIZE = 128;"));
+        assert(result.contains("CACHE_TTL_NANOS = 5000000000L;"));
+        assert(result.contains("new LinkedHashMap<>(16, 0.75f, true)"));
+
+        Method toBytes = SpREADProcessor.class.getDeclaredMethod("getToBytes", RepositoryData.class);
+        toBytes.setAccessible(true);
+        assert(((String) toBytes.invoke(processor,cached)).contains("objectMapper.writeValueAsBytes(value)"));
+    }
+
+    @Test
+    void testGetETag() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getETag", RepositoryData.class);
+        m.setAccessible(true);
+        String hashed = (String) m.invoke(processor,repositoryData);
+        assert(!hashed.contains("etag(TestEntity value)"));
+        assert(hashed.contains("new CRC32C()"));
+        RepositoryData versioned = fixture()
+                .withVersionField("version")
+                .withFields(ID, VERSION)
+                .build();
+        String result = (String) m.invoke(processor,versioned);
+        assert(result.contains("return \"W/\\\"\" + value.getVersion() + \"\\\"\";"));
+    }
+
+    @Test
+    void testGetAllVersioned() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getAll", RepositoryData.class);
+        m.setAccessible(true);
+        String result = (String) m.invoke(processor,fixture()
+                .withVersionField("version")
+                .withFields(ID, VERSION)
+                .build());
+        assert(result.contains("query.multiselect(root.get(\"id\"), root.get(\"version\"))"));
+        assert(result.contains(".orderBy(cb.asc(root.get(\"id\")));"));
+        assert(result.contains("crc.update(Arrays.toString(it.next()).getBytes(StandardCharsets.UTF_8));"));
+        assert(result.contains("transaction.begin();\n           try {\n               etag.set(collectionETag(em, filters));"));
+        assert(result.contains(".onClose(transaction::rollback);"));
+        assert(result.contains(".body(tagged(rows, etag, (all) -> "));
+        assert(!result.contains("cb.greatest"));
+    }
+
+    @Test
+    void testGetCompression() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getCompression", RepositoryData.class);
+        m.setAccessible(true);
+        assert(((String) m.invoke(processor,repositoryData)).isEmpty());
+        RepositoryData compressed = fixture().withCompressionThreshold(1024).build();
+        String result = (String) m.invoke(processor,compressed);
+        assert(result.contains("COMPRESSION_THRESHOLD = 1024;"));
+        assert(result.contains("class CompressingHttpResponse extends ServerHttpResponseDecorator"));
+    }
+
+    @Test
+    void testGetDelete() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getDelete", RepositoryData.class);
+        m.setAccessible(true);
+        String result = (String) m.invoke(processor,repositoryData);
+        assert(result.contains("cb.createCriteriaDelete(TestEntity.class)"));
+        assert(result.contains("delete.where(cb.equal(root.get(\"id\"), id));"));
+        assert(!result.contains("em.remove"));
+        String cascading = (String) m.invoke(processor,fixture().withBulkDelete(false).build());
+        assert(cascading.contains("TestEntity entity = em.find(TestEntity.class, id);"));
+        assert(cascading.contains("em.remove(entity);"));
+    }
+
+    @Test
+    void testGetCoalescing() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getCoalescing", RepositoryData.class);
+        m.setAccessible(true);
+        assert(((String) m.invoke(processor,repositoryData)).isEmpty());
+        RepositoryData coalesced = fixture().withCoalesce(true).build();
+        String result = (String) m.invoke(processor,coalesced);
+        assert(result.contains("private record Loaded(byte[] body, String etag){}"));
+        assert(result.contains("pending = inFlight.putIfAbsent(id, started);"));
+        assert(result.contains("blocking(load).contextWrite(context).subscribe("));
+        assert(result.contains("return Mono.fromFuture(pending, true);"));
+        Method one = SpREADProcessor.class.getDeclaredMethod("getOneById", RepositoryData.class);
+        one.setAccessible(true);
+        assert(((String) one.invoke(processor,coalesced)).contains("Mono<Loaded> entry = coalesced(id, () -> {"));
+    }
+
+    @Test
+    void testGetChangeFeed() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getChangeFeed", RepositoryData.class);
+        m.setAccessible(true);
+        assert(((String) m.invoke(processor,repositoryData)).isEmpty());
+        RepositoryData feed = fixture().withChanges(64, Overflow.DROP).build();
+        String result = (String) m.invoke(processor,feed);
+        assert(result.contains("private static final int CHANGES_BUFFER = 64;"));
+        assert(result.contains("Sinks.many().multicast().directBestEffort()"));
+        assert(result.contains("publish(\"SAVED\", entityManagerFactory.getPersistenceUnitUtil().getIdentifier(saved));"));
+        Method changes = SpREADProcessor.class.getDeclaredMethod("getChanges", RepositoryData.class);
+        changes.setAccessible(true);
+        assert(((String) changes.invoke(processor,feed)).contains("BufferOverflowStrategy.DROP_LATEST"));
+        assert(((String) changes.invoke(processor,feed)).contains("if (ndjson(request)) {"));
+        assert(((String) changes.invoke(processor,feed)).contains(".startWith(comment)"));
+        assert(((String) changes.invoke(processor,feed)).contains("Flux.interval(CHANGES_HEARTBEAT).onBackpressureDrop()"));
+        Method delete = SpREADProcessor.class.getDeclaredMethod("getDeleteById", RepositoryData.class);
+        delete.setAccessible(true);
+        assert(((String) delete.invoke(processor,feed)).contains("publish(\"DELETED\", id);"));
+        Method routes = SpREADProcessor.class.getDeclaredMethod("getRoutes", RepositoryData.class);
+        routes.setAccessible(true);
+        assert(((List<?>) routes.invoke(processor,feed)).stream().map((route) -> ((Route) route).handler()).toList().contains("changes"));
+        assert(((List<?>) routes.invoke(processor,feed)).stream().anyMatch((route) -> ((Route) route).predicate().equals("GET(subPath(\"changes\"))")));
+    }
+
+    @Test
+    void testGetLimiter() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getLimiter", RepositoryData.class);
+        m.setAccessible(true);
+        assert(((String) m.invoke(processor,repositoryData)).isEmpty());
+        RepositoryData limited = fixture()
+                .withChanges(16, Overflow.LATEST)
+                .withLimit(8, Limit.ADAPTIVE, 32, 250)
+                .build();
+        String result = (String) m.invoke(processor,limited);
+        assert(result.contains("private static final int CONCURRENCY_LIMIT = 8;"));
+        assert(result.contains("private static final int LIMIT_QUEUE_SIZE = 32;"));
+        assert(result.contains("Duration.ofMillis(250)"));
+        assert(result.contains("new Limiter(CONCURRENCY_LIMIT, LIMIT_QUEUE_SIZE, true)"));
+        assert(result.contains("sink.error(new Rejected(HttpStatus.TOO_MANY_REQUESTS));"));
+        Method isLimited = SpREADProcessor.class.getDeclaredMethod("isLimited", RepositoryData.class, Route.class);
+        isLimited.setAccessible(true);
+        Method routes = SpREADProcessor.class.getDeclaredMethod("getRoutes", RepositoryData.class);
+        routes.setAccessible(true);
+        for (Object route : (List<?>) routes.invoke(processor,limited)) {
+            assert((boolean) isLimited.invoke(processor, limited, route) != ((Route) route).handler().equals("changes"));
+            assert(!(boolean) isLimited.invoke(processor, repositoryData, route));
+        }
+    }
+
+    @Test
+    void testGetPatch() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getPatch", RepositoryData.class);
+        m.setAccessible(true);
+        String result = (String) m.invoke(processor,repositoryData);
+        assert(!result.contains("ObjectMapper"));
+        assert(result.contains("JsonElement tree = JsonParser.parseString(body);"));
+        assert(result.contains("case \"testString\" -> changes.put(\"testString\", gsonValue(value, String.class));"));
+        assert(result.contains("CriteriaUpdate<TestEntity> update = cb.createCriteriaUpdate(TestEntity.class);"));
+        assert(result.contains("return em.createQuery(update).executeUpdate() > 0 ? HttpStatus.OK : HttpStatus.NOT_FOUND;"));
+        assert(!result.contains("IF_MATCH"));
+        String versioned = (String) m.invoke(processor,fixture()
+                .withSerializer(Serializer.JACKSON)
+                .withPatchable("testInt")
+                .withVersionField("version")
+                .withFields(ID, VERSION, TEST_INT)
+                .build());
+        assert(!versioned.contains("ObjectMapper objectMapper;"));
+        assert(versioned.contains("Long matched = match == null || match.equals(\"*\") ? null : versionTag(match);"));
+        assert(versioned.contains("update.set(root.<Long>get(\"version\"), cb.sum(root.<Long>get(\"version\"), 1L));"));
+        assert(versioned.contains("if (value.isNull()) {"));
+        assert(versioned.contains("version = objectMapper.treeToValue(value, Long.class);"));
+        String generated = (String) m.invoke(processor,fixture()
+                .withSerializer(Serializer.GENERATED)
+                .withPatchable("testInt", "tags")
+                .withFields(ID, TEST_INT, new FieldData("tags", "java.util.List<java.lang.String>", false, "getTags", "setTags"))
+                .build());
+        assert(!generated.contains("ObjectMapper"));
+        assert(generated.contains("for (Map.Entry<String, Object> field : TestEntitySpREADCodec.readFields(body).entrySet()) {"));
+        assert(generated.contains("changes.put(\"testInt\", (Integer) value);"));
+        assert(generated.contains("DataBufferUtils.release(body);"));
+        assert(generated.contains("to change: testInt; fields with generic types cannot be patched: tags\";"));
+    }
+
+    @Test
+    void testGetRoutes() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getRoutes", RepositoryData.class);
+        m.setAccessible(true);
+        List<?> result = (List<?>) m.invoke(processor,repositoryData);
+        Route first = (Route) result.get(0);
+        assert(first.registration(true, false, false).equals(".route(GET(this.path).and(listQuery()), handler::getAll)"));
+        assert(first.registration(false, true, false).equals(".andRoute(GET(this.path).and(listQuery()), handler.metered(\"getAll\", handler::getAll))"));
+        assert(first.registration(false, true, true).equals(".andRoute(GET(this.path).and(listQuery()), handler.metered(\"getAll\", handler.limited(\"getAll\", handler::getAll)))"));
+        assert(first.body().imports().contains("com.ddmac.test.TestEntity"));
+        assert(result.stream().map((route) -> ((Route) route).handler()).toList().contains("deleteById"));
+        assert(result.stream().anyMatch((route) -> ((Route) route).predicate().equals("PUT(subPath(\"batch\"))")));
+    }
+
+    @Test
+    void testGetRouter() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getRouter", RepositoryData.class);
+        m.setAccessible(true);
+        String result = (String) m.invoke(processor,repositoryData);
+        assert(result.contains("private String path =\"/test\";"));
+        assert(result.contains("public TestEntitySpREADRouterImpl(TestEntitySpREADHandlerImpl handler){"));
+        assert(result.contains("public String path(){"));
+        assert(result.contains("public RouterFunction<ServerResponse> routes(){\n       return RouterFunctions\n           .route(GET(this.path).and(listQuery()), handler::getAll)"));
     }
 
     @Test
     void testGetGSONSerializerImports() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        StringBuilder sb = new StringBuilder();
-        Method m = SpREADProcessor.class.getDeclaredMethod(
-                "addSerializerImports",
-                StringBuilder.class,
-                Serializer.class
-        );
+        Method m = SpREADProcessor.class.getDeclaredMethod("getSerializerImports", Serializer.class);
         m.setAccessible(true);
-        m.invoke(processor,sb,Serializer.GSON);
-        assert(sb.toString().contains("com.google.gson.Gson"));
+        List<?> result = (List<?>) m.invoke(processor,Serializer.GSON);
+        assert(result.contains("com.google.gson.Gson"));
     }
 
 
     @Test
     void testGetKotlinSerializerImports() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        StringBuilder sb = new StringBuilder();
-        Method m = SpREADProcessor.class.getDeclaredMethod(
-                "addSerializerImports",
-                StringBuilder.class,
-                Serializer.class
-        );
+        Method m = SpREADProcessor.class.getDeclaredMethod("getSerializerImports", Serializer.class);
         m.setAccessible(true);
-        m.invoke(processor,sb,Serializer.KOTLIN);
-        assert(sb.toString().contains("kotlinx.serialization"));
+        List<?> result = (List<?>) m.invoke(processor,Serializer.KOTLIN);
+        assert(result.equals(List.of("kotlinx.serialization.json.Json")));
     }
 
     @Test
     void testGetJacksonSerializerImports() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        StringBuilder sb = new StringBuilder();
-        Method m = SpREADProcessor.class.getDeclaredMethod(
-                "addSerializerImports",
-                StringBuilder.class,
-                Serializer.class
-        );
+        Method m = SpREADProcessor.class.getDeclaredMethod("getSerializerImports", Serializer.class);
         m.setAccessible(true);
-        m.invoke(processor,sb,Serializer.JACKSON);
-        assert(sb.toString().isEmpty());
+        List<?> result = (List<?>) m.invoke(processor,Serializer.JACKSON);
+        assert(result.contains("com.fasterxml.jackson.databind.ObjectMapper"));
     }
 
     @Test
@@ -73,7 +516,7 @@ public class SpREADProcessorUnitTest {
         Method m = SpREADProcessor.class.getDeclaredMethod("getSerializerStatement", Serializer.class);
         m.setAccessible(true);
         String result = (String) m.invoke(processor,Serializer.GSON);
-        assert(result.contains("Gson().toJson"));
+        assert(result.contains("BodyInserters.fromDataBuffers(json(request, %s))"));
     }
 
     @Test
@@ -84,6 +527,28 @@ public class SpREADProcessorUnitTest {
         assert(result.contains("Json.encodeToString"));
     }
 
+    @Test
+    void testGetStreamingSerializerStatement() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getStreamingSerializerStatement", Serializer.class, boolean.class);
+        m.setAccessible(true);
+        String jackson = (String) m.invoke(processor,Serializer.JACKSON,false);
+        String gsonArray = (String) m.invoke(processor,Serializer.GSON,false);
+        String gsonNdjson = (String) m.invoke(processor,Serializer.GSON,true);
+        assert(String.format(jackson,"rows","TestEntity").contains("fromPublisher(rows, TestEntity.class)"));
+        String kotlinNdjson = (String) m.invoke(processor,Serializer.KOTLIN,true);
+        assert(gsonArray.contains("wrap(ARRAY_OPEN)"));
+        assert(gsonNdjson.contains("ENTITY_ADAPTER, row, \"\", \"\\n\""));
+        assert(kotlinNdjson.contains("+ \"\\n\""));
+    }
+
+    @Test
+    void testGetGeneratedSerializerStatement() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method m = SpREADProcessor.class.getDeclaredMethod("getSerializerStatement", Serializer.class);
+        m.setAccessible(true);
+        String result = (String) m.invoke(processor,Serializer.GENERATED);
+        assert(result.contains("BodyInserters.fromDataBuffers(json(request, %s))"));
+    }
+
     @Test
     void testGetJacksonSerializerStatement() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
         Method m = SpREADProcessor.class.getDeclaredMethod("getSerializerStatement", Serializer.class);
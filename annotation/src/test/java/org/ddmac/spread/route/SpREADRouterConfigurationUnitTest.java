@@ -0,0 +1,43 @@
+package org.ddmac.spread.route;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public class SpREADRouterConfigurationUnitTest {
+
+    @Test
+    void testKey() {
+        assert(SpREADRouterConfiguration.key("/test").equals("/test"));
+        assert(SpREADRouterConfiguration.key("/trailing/").equals("/trailing"));
+        assert(SpREADRouterConfiguration.key("/").equals("/"));
+        assert(SpREADRouterConfiguration.key("").equals("/"));
+    }
+
+    @Test
+    void testDuplicatePath() {
+        try {
+            new SpREADRouterConfiguration().spreadRouter(List.of(routes("/test"), routes("/test/")));
+            assert(false);
+        } catch (IllegalStateException e) {
+            assert(e.getMessage().contains("/test/"));
+        }
+    }
+
+    private SpREADRoutes routes(String path) {
+        return new SpREADRoutes() {
+            @Override
+            public String path() {
+                return path;
+            }
+
+            @Override
+            public RouterFunction<ServerResponse> routes() {
+                return (request) -> Mono.empty();
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package org.ddmac.spread.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Set;
+
+public class SourceFileUnitTest {
+
+    @Test
+    void testImportsAreResolvedFromFragments() {
+        SourceFile file = new SourceFile("com.ddmac.test.spread", "TestHandler", "public class TestHandler",
+                "org.springframework.stereotype.Component")
+                .add(Fragment.of("   Mono<String> a;\n", "reactor.core.publisher.Mono", "java.util.List"))
+                .add(Fragment.of("   Mono<String> b;\n", "reactor.core.publisher.Mono", "java.lang.String"))
+                .add(Fragment.of("", "java.util.zip.CRC32C"))
+                .add(Fragment.of("   TestCodec c;\n", "com.ddmac.test.spread.TestCodec"));
+        assert(file.imports().equals(Set.of(
+                "org.springframework.stereotype.Component",
+                "reactor.core.publisher.Mono",
+                "java.util.List"
+        )));
+    }
+
+    @Test
+    void testWriteTo() throws IOException {
+        StringWriter out = new StringWriter();
+        new SourceFile("com.ddmac.test.spread", "TestRouter", "public class TestRouter")
+                .addStaticImport("org.springframework.web.reactive.function.server.RequestPredicates.*")
+                .add(Fragment.of("   List<String> a;\n\n", "java.util.List"))
+                .add(Fragment.of("   Mono<String> b;\n\n", "reactor.core.publisher.Mono"))
+                .writeTo(out);
+        assert(out.toString().equals("""
+                package com.ddmac.test.spread;
+
+                import reactor.core.publisher.Mono;
+
+                import java.util.List;
+
+                import static org.springframework.web.reactive.function.server.RequestPredicates.*;
+
+                public class TestRouter {
+
+                   List<String> a;
+
+                   Mono<String> b;
+
+                }"""));
+    }
+
+    @Test
+    void testConflictingSimpleNames() {
+        SourceFile file = new SourceFile("com.ddmac.test.spread", "TestHandler", "public class TestHandler")
+                .add(Fragment.of("   List<String> a;\n", List.of("java.util.List")))
+                .add(Fragment.of("   List b;\n", List.of("java.awt.List")));
+        try {
+            file.imports();
+            assert(false);
+        } catch (IllegalStateException e) {
+            assert(e.getMessage().contains("java.awt.List"));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+plugins {
+    id("java")
+    id("io.spring.dependency-management") version "1.1.6"
+}
+
+group = "org.example"
+version = "unspecified"
+
+repositories {
+    mavenCentral()
+}
+
+dependencyManagement {
+    imports {
+        mavenBom("org.springframework.boot:spring-boot-dependencies:3.3.5")
+    }
+}
+
+dependencies {
+    implementation("com.google.code.gson:gson:2.11.0")
+    implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+    implementation("org.springframework.boot:spring-boot-starter-webflux")
+    implementation("org.springframework:spring-test")
+    implementation("org.openjdk.jmh:jmh-core:1.37")
+    annotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+    implementation(project(":annotation"))
+    annotationProcessor(project(":annotation"))
+}
+
+tasks.register<JavaExec>("jmh") {
+    description = "Runs the JMH benchmarks of the generated handlers. Pass JMH options with -Pjmh=\"...\"."
+    group = "verification"
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val results = layout.buildDirectory.file("reports/jmh/results.json").get().asFile
+    args(((project.findProperty("jmh") as String?) ?: "").split(" ").filter { it.isNotBlank() })
+    args("-rf", "json", "-rff", results.path)
+    doFirst {
+        results.parentFile.mkdirs()
+    }
+}
@@ -0,0 +1,6 @@
+package org.ddmac.spreadbench;
+
+import jakarta.persistence.Entity;
+
+@Entity
+public class GeneratedEntity extends NarrowColumns {}
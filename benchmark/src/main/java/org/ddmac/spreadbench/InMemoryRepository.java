@@ -0,0 +1,89 @@
+package org.ddmac.spreadbench;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * Stand-in for a Spring Data repository that keeps its rows in a sorted map, so the benchmarks measure
+ * the generated router, handler and serializer rather than a database.
+ * Only the calls the benchmarked routes make are supported; anything else fails loudly.
+ *
+ * @param <T> Entity type of the repository.
+ */
+final class InMemoryRepository<T> implements InvocationHandler {
+
+    private final ConcurrentSkipListMap<Long, T> rows = new ConcurrentSkipListMap<>();
+    private final Function<T, Long> id;
+
+    private InMemoryRepository(Function<T, Long> id) {
+        this.id = id;
+    }
+
+    /**
+     * @param repository The @SpREAD annotated repository interface to stand in for.
+     * @param id Reads the id of an entity.
+     * @param rows Entities the repository starts with.
+     * @return Proxy implementing the repository interface over an in-memory map.
+     */
+    static <R, T> R of(Class<R> repository, Function<T, Long> id, List<T> rows) {
+        InMemoryRepository<T> handler = new InMemoryRepository<>(id);
+        rows.forEach(handler::save);
+        return repository.cast(Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository}, handler));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "findById" -> Optional.ofNullable(rows.get((Long) args[0]));
+            case "findAll" -> args != null && args[0] instanceof Pageable pageable ? page(pageable) : List.copyOf(rows.values());
+            case "save" -> save((T) args[0]);
+            case "saveAll" -> {
+                List<T> saved = new ArrayList<>();
+                ((Iterable<T>) args[0]).forEach((entity) -> saved.add(save(entity)));
+                yield saved;
+            }
+            case "count" -> (long) rows.size();
+            case "deleteById" -> {
+                rows.remove((Long) args[0]);
+                yield null;
+            }
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "InMemoryRepository" + rows.keySet();
+            default -> throw new UnsupportedOperationException(method.getName() + " is not supported by the in-memory repository");
+        };
+    }
+
+    /**
+     * @param entity Entity to store, replacing the row with the same id.
+     * @return The stored entity.
+     */
+    private T save(T entity) {
+        rows.put(id.apply(entity), entity);
+        return entity;
+    }
+
+    /**
+     * Pages through the rows in id order. The sort of the request is ignored.
+     *
+     * @param pageable Page requested by the handler.
+     * @return The requested page.
+     */
+    private PageImpl<T> page(Pageable pageable) {
+        List<T> content = rows.values().stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+        return new PageImpl<>(content, pageable, rows.size());
+    }
+}
@@ -0,0 +1,8 @@
+package org.ddmac.spreadbench;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Serializer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/jackson", serializer = Serializer.JACKSON, maxPageSize = RouteBenchmark.ROWS)
+public interface JacksonJpaInterface extends JpaRepository<JacksonEntity,Long> {}
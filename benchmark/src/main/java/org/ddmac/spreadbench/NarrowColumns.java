@@ -0,0 +1,60 @@
+package org.ddmac.spreadbench;
+
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+
+/**
+ * Columns of the narrow benchmark entities, the same as the functional tests' TestEntity.
+ */
+@MappedSuperclass
+public abstract class NarrowColumns {
+    @Id
+    Long id;
+    String testString;
+    int testInt;
+    boolean testBool;
+
+    /**
+     * Sets every column from the id, so rows differ from each other the way real rows do.
+     *
+     * @param id Id of the row.
+     */
+    void fill(long id) {
+        this.id = id;
+        this.testString = "row" + id;
+        this.testInt = (int) id;
+        this.testBool = id % 2 == 0;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTestString() {
+        return testString;
+    }
+
+    public void setTestString(String testString) {
+        this.testString = testString;
+    }
+
+    public int getTestInt() {
+        return testInt;
+    }
+
+    public void setTestInt(int testInt) {
+        this.testInt = testInt;
+    }
+
+    public boolean isTestBool() {
+        return testBool;
+    }
+
+    public void setTestBool(boolean testBool) {
+        this.testBool = testBool;
+    }
+}
@@ -0,0 +1,159 @@
+package org.ddmac.spreadbench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * End-to-end cost of the generated routes: request matching, the generated handler, the blocking offload
+ * and the entity serializer, for a narrow and a 50-column entity under every serializer.
+ * The repositories are in-memory stand-ins, so the numbers exclude the database.
+ * Run with {@code gradle :benchmark:jmh}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteBenchmark {
+
+    static final int ROWS = 1000;
+
+    @Param({"/gson", "/jackson", "/generated", "/wide/gson", "/wide/jackson", "/wide/generated"})
+    public String path;
+
+    private AnnotationConfigApplicationContext context;
+    private HttpHandler httpHandler;
+    private String oneUri;
+    private String pageUri;
+    private String putBody;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void start() {
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(GsonJpaInterface.class,
+                () -> InMemoryRepository.of(GsonJpaInterface.class, GsonEntity::getId, rows(GsonEntity::new, GsonEntity::fill)));
+        context.registerBean(JacksonJpaInterface.class,
+                () -> InMemoryRepository.of(JacksonJpaInterface.class, JacksonEntity::getId, rows(JacksonEntity::new, JacksonEntity::fill)));
+        context.registerBean(GeneratedJpaInterface.class,
+                () -> InMemoryRepository.of(GeneratedJpaInterface.class, GeneratedEntity::getId, rows(GeneratedEntity::new, GeneratedEntity::fill)));
+        context.registerBean(WideGsonJpaInterface.class,
+                () -> InMemoryRepository.of(WideGsonJpaInterface.class, WideGsonEntity::getId, rows(WideGsonEntity::new, WideGsonEntity::fill)));
+        context.registerBean(WideJacksonJpaInterface.class,
+                () -> InMemoryRepository.of(WideJacksonJpaInterface.class, WideJacksonEntity::getId, rows(WideJacksonEntity::new, WideJacksonEntity::fill)));
+        context.registerBean(WideGeneratedJpaInterface.class,
+                () -> InMemoryRepository.of(WideGeneratedJpaInterface.class, WideGeneratedEntity::getId, rows(WideGeneratedEntity::new, WideGeneratedEntity::fill)));
+        context.registerBean(EntityManagerFactory.class, () -> unsupported(EntityManagerFactory.class));
+        context.registerBean(PlatformTransactionManager.class, () -> unsupported(PlatformTransactionManager.class));
+        context.registerBean(ObjectMapper.class, () -> new ObjectMapper());
+        context.scan(RouteBenchmark.class.getPackageName() + ".spread");
+        context.refresh();
+
+        httpHandler = RouterFunctions.toHttpHandler(context.getBeansOfType(RouterFunction.class).values().stream()
+                .map((router) -> (RouterFunction<ServerResponse>) router)
+                .reduce(RouterFunction::and)
+                .orElseThrow());
+        oneUri = path + "?id=" + ROWS / 2;
+        pageUri = path + "?page=0&size=" + ROWS;
+        // the entity read back is the body every put sends, so each serializer reads what it writes
+        putBody = getOneById();
+        if (!exchange(MockServerHttpRequest.get(pageUri).build()).startsWith("[")) {
+            throw new IllegalStateException(pageUri + " did not answer a list");
+        }
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public String getOneById() {
+        return exchange(MockServerHttpRequest.get(oneUri).build());
+    }
+
+    @Benchmark
+    public String getPage() {
+        return exchange(MockServerHttpRequest.get(pageUri).build());
+    }
+
+    @Benchmark
+    public String put() {
+        return exchange(MockServerHttpRequest.put(path).contentType(MediaType.APPLICATION_JSON).body(putBody));
+    }
+
+    /**
+     * Sends a request through the router and reads the whole response body.
+     *
+     * @param request Request to send.
+     * @return Body of the response.
+     * @throws IllegalStateException When the route does not answer 200, so a broken route is not measured as a fast one.
+     */
+    private String exchange(MockServerHttpRequest request) {
+        MockServerHttpResponse response = new MockServerHttpResponse();
+        httpHandler.handle(request, response).block();
+        if (response.getStatusCode() != HttpStatus.OK) {
+            throw new IllegalStateException(request.getURI() + " answered " + response.getStatusCode());
+        }
+        return response.getBodyAsString().block();
+    }
+
+    /**
+     * @param entity Creates an empty entity.
+     * @param fill Fills every column of an entity from its id.
+     * @return ROWS entities with ids 1 to ROWS.
+     */
+    private static <T> List<T> rows(Supplier<T> entity, ObjLongConsumer<T> fill) {
+        List<T> rows = new ArrayList<>(ROWS);
+        for (long id = 1; id <= ROWS; id++) {
+            T row = entity.get();
+            fill.accept(row, id);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * @param type Interface the handlers autowire but the benchmarked routes never call.
+     * @return Proxy failing every call, so a route reaching past the repository is noticed.
+     */
+    private static <T> T unsupported(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> switch (method.getName()) {
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "unsupported " + type.getSimpleName();
+            case "close" -> null;
+            default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not available in the benchmarks");
+        }));
+    }
+}
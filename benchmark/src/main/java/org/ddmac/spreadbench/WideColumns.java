@@ -0,0 +1,521 @@
+package org.ddmac.spreadbench;
+
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+
+/**
+ * Columns of the wide benchmark entities: an id and 49 basic columns of every common type,
+ * so per-field encoding cost dominates.
+ */
+@MappedSuperclass
+public abstract class WideColumns {
+    @Id
+    Long id;
+    String text01;
+    int count02;
+    long total03;
+    double ratio04;
+    boolean flag05;
+    String text06;
+    int count07;
+    long total08;
+    double ratio09;
+    boolean flag10;
+    String text11;
+    int count12;
+    long total13;
+    double ratio14;
+    boolean flag15;
+    String text16;
+    int count17;
+    long total18;
+    double ratio19;
+    boolean flag20;
+    String text21;
+    int count22;
+    long total23;
+    double ratio24;
+    boolean flag25;
+    String text26;
+    int count27;
+    long total28;
+    double ratio29;
+    boolean flag30;
+    String text31;
+    int count32;
+    long total33;
+    double ratio34;
+    boolean flag35;
+    String text36;
+    int count37;
+    long total38;
+    double ratio39;
+    boolean flag40;
+    String text41;
+    int count42;
+    long total43;
+    double ratio44;
+    boolean flag45;
+    String text46;
+    int count47;
+    long total48;
+    double ratio49;
+
+    /**
+     * Sets every column from the id, so rows differ from each other the way real rows do.
+     *
+     * @param id Id of the row.
+     */
+    void fill(long id) {
+        this.id = id;
+        this.text01 = "text-" + id;
+        this.count02 = (int) id * 2;
+        this.total03 = id * 3000;
+        this.ratio04 = id / 4.0;
+        this.flag05 = id % 7 == 0;
+        this.text06 = "text-" + id;
+        this.count07 = (int) id * 7;
+        this.total08 = id * 8000;
+        this.ratio09 = id / 9.0;
+        this.flag10 = id % 5 == 0;
+        this.text11 = "text-" + id;
+        this.count12 = (int) id * 12;
+        this.total13 = id * 13000;
+        this.ratio14 = id / 14.0;
+        this.flag15 = id % 3 == 0;
+        this.text16 = "text-" + id;
+        this.count17 = (int) id * 17;
+        this.total18 = id * 18000;
+        this.ratio19 = id / 19.0;
+        this.flag20 = id % 8 == 0;
+        this.text21 = "text-" + id;
+        this.count22 = (int) id * 22;
+        this.total23 = id * 23000;
+        this.ratio24 = id / 24.0;
+        this.flag25 = id % 6 == 0;
+        this.text26 = "text-" + id;
+        this.count27 = (int) id * 27;
+        this.total28 = id * 28000;
+        this.ratio29 = id / 29.0;
+        this.flag30 = id % 4 == 0;
+        this.text31 = "text-" + id;
+        this.count32 = (int) id * 32;
+        this.total33 = id * 33000;
+        this.ratio34 = id / 34.0;
+        this.flag35 = id % 2 == 0;
+        this.text36 = "text-" + id;
+        this.count37 = (int) id * 37;
+        this.total38 = id * 38000;
+        this.ratio39 = id / 39.0;
+        this.flag40 = id % 7 == 0;
+        this.text41 = "text-" + id;
+        this.count42 = (int) id * 42;
+        this.total43 = id * 43000;
+        this.ratio44 = id / 44.0;
+        this.flag45 = id % 5 == 0;
+        this.text46 = "text-" + id;
+        this.count47 = (int) id * 47;
+        this.total48 = id * 48000;
+        this.ratio49 = id / 49.0;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getText01() {
+        return text01;
+    }
+
+    public void setText01(String text01) {
+        this.text01 = text01;
+    }
+
+    public int getCount02() {
+        return count02;
+    }
+
+    public void setCount02(int count02) {
+        this.count02 = count02;
+    }
+
+    public long getTotal03() {
+        return total03;
+    }
+
+    public void setTotal03(long total03) {
+        this.total03 = total03;
+    }
+
+    public double getRatio04() {
+        return ratio04;
+    }
+
+    public void setRatio04(double ratio04) {
+        this.ratio04 = ratio04;
+    }
+
+    public boolean isFlag05() {
+        return flag05;
+    }
+
+    public void setFlag05(boolean flag05) {
+        this.flag05 = flag05;
+    }
+
+    public String getText06() {
+        return text06;
+    }
+
+    public void setText06(String text06) {
+        this.text06 = text06;
+    }
+
+    public int getCount07() {
+        return count07;
+    }
+
+    public void setCount07(int count07) {
+        this.count07 = count07;
+    }
+
+    public long getTotal08() {
+        return total08;
+    }
+
+    public void setTotal08(long total08) {
+        this.total08 = total08;
+    }
+
+    public double getRatio09() {
+        return ratio09;
+    }
+
+    public void setRatio09(double ratio09) {
+        this.ratio09 = ratio09;
+    }
+
+    public boolean isFlag10() {
+        return flag10;
+    }
+
+    public void setFlag10(boolean flag10) {
+        this.flag10 = flag10;
+    }
+
+    public String getText11() {
+        return text11;
+    }
+
+    public void setText11(String text11) {
+        this.text11 = text11;
+    }
+
+    public int getCount12() {
+        return count12;
+    }
+
+    public void setCount12(int count12) {
+        this.count12 = count12;
+    }
+
+    public long getTotal13() {
+        return total13;
+    }
+
+    public void setTotal13(long total13) {
+        this.total13 = total13;
+    }
+
+    public double getRatio14() {
+        return ratio14;
+    }
+
+    public void setRatio14(double ratio14) {
+        this.ratio14 = ratio14;
+    }
+
+    public boolean isFlag15() {
+        return flag15;
+    }
+
+    public void setFlag15(boolean flag15) {
+        this.flag15 = flag15;
+    }
+
+    public String getText16() {
+        return text16;
+    }
+
+    public void setText16(String text16) {
+        this.text16 = text16;
+    }
+
+    public int getCount17() {
+        return count17;
+    }
+
+    public void setCount17(int count17) {
+        this.count17 = count17;
+    }
+
+    public long getTotal18() {
+        return total18;
+    }
+
+    public void setTotal18(long total18) {
+        this.total18 = total18;
+    }
+
+    public double getRatio19() {
+        return ratio19;
+    }
+
+    public void setRatio19(double ratio19) {
+        this.ratio19 = ratio19;
+    }
+
+    public boolean isFlag20() {
+        return flag20;
+    }
+
+    public void setFlag20(boolean flag20) {
+        this.flag20 = flag20;
+    }
+
+    public String getText21() {
+        return text21;
+    }
+
+    public void setText21(String text21) {
+        this.text21 = text21;
+    }
+
+    public int getCount22() {
+        return count22;
+    }
+
+    public void setCount22(int count22) {
+        this.count22 = count22;
+    }
+
+    public long getTotal23() {
+        return total23;
+    }
+
+    public void setTotal23(long total23) {
+        this.total23 = total23;
+    }
+
+    public double getRatio24() {
+        return ratio24;
+    }
+
+    public void setRatio24(double ratio24) {
+        this.ratio24 = ratio24;
+    }
+
+    public boolean isFlag25() {
+        return flag25;
+    }
+
+    public void setFlag25(boolean flag25) {
+        this.flag25 = flag25;
+    }
+
+    public String getText26() {
+        return text26;
+    }
+
+    public void setText26(String text26) {
+        this.text26 = text26;
+    }
+
+    public int getCount27() {
+        return count27;
+    }
+
+    public void setCount27(int count27) {
+        this.count27 = count27;
+    }
+
+    public long getTotal28() {
+        return total28;
+    }
+
+    public void setTotal28(long total28) {
+        this.total28 = total28;
+    }
+
+    public double getRatio29() {
+        return ratio29;
+    }
+
+    public void setRatio29(double ratio29) {
+        this.ratio29 = ratio29;
+    }
+
+    public boolean isFlag30() {
+        return flag30;
+    }
+
+    public void setFlag30(boolean flag30) {
+        this.flag30 = flag30;
+    }
+
+    public String getText31() {
+        return text31;
+    }
+
+    public void setText31(String text31) {
+        this.text31 = text31;
+    }
+
+    public int getCount32() {
+        return count32;
+    }
+
+    public void setCount32(int count32) {
+        this.count32 = count32;
+    }
+
+    public long getTotal33() {
+        return total33;
+    }
+
+    public void setTotal33(long total33) {
+        this.total33 = total33;
+    }
+
+    public double getRatio34() {
+        return ratio34;
+    }
+
+    public void setRatio34(double ratio34) {
+        this.ratio34 = ratio34;
+    }
+
+    public boolean isFlag35() {
+        return flag35;
+    }
+
+    public void setFlag35(boolean flag35) {
+        this.flag35 = flag35;
+    }
+
+    public String getText36() {
+        return text36;
+    }
+
+    public void setText36(String text36) {
+        this.text36 = text36;
+    }
+
+    public int getCount37() {
+        return count37;
+    }
+
+    public void setCount37(int count37) {
+        this.count37 = count37;
+    }
+
+    public long getTotal38() {
+        return total38;
+    }
+
+    public void setTotal38(long total38) {
+        this.total38 = total38;
+    }
+
+    public double getRatio39() {
+        return ratio39;
+    }
+
+    public void setRatio39(double ratio39) {
+        this.ratio39 = ratio39;
+    }
+
+    public boolean isFlag40() {
+        return flag40;
+    }
+
+    public void setFlag40(boolean flag40) {
+        this.flag40 = flag40;
+    }
+
+    public String getText41() {
+        return text41;
+    }
+
+    public void setText41(String text41) {
+        this.text41 = text41;
+    }
+
+    public int getCount42() {
+        return count42;
+    }
+
+    public void setCount42(int count42) {
+        this.count42 = count42;
+    }
+
+    public long getTotal43() {
+        return total43;
+    }
+
+    public void setTotal43(long total43) {
+        this.total43 = total43;
+    }
+
+    public double getRatio44() {
+        return ratio44;
+    }
+
+    public void setRatio44(double ratio44) {
+        this.ratio44 = ratio44;
+    }
+
+    public boolean isFlag45() {
+        return flag45;
+    }
+
+    public void setFlag45(boolean flag45) {
+        this.flag45 = flag45;
+    }
+
+    public String getText46() {
+        return text46;
+    }
+
+    public void setText46(String text46) {
+        this.text46 = text46;
+    }
+
+    public int getCount47() {
+        return count47;
+    }
+
+    public void setCount47(int count47) {
+        this.count47 = count47;
+    }
+
+    public long getTotal48() {
+        return total48;
+    }
+
+    public void setTotal48(long total48) {
+        this.total48 = total48;
+    }
+
+    public double getRatio49() {
+        return ratio49;
+    }
+
+    public void setRatio49(double ratio49) {
+        this.ratio49 = ratio49;
+    }
+}
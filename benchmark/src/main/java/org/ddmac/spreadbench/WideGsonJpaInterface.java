@@ -0,0 +1,8 @@
+package org.ddmac.spreadbench;
+
+import org.ddmac.spread.SpREAD;
+import org.ddmac.spread.enums.Serializer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@SpREAD(path = "/wide/gson", serializer = Serializer.GSON, maxPageSize = RouteBenchmark.ROWS)
+public interface WideGsonJpaInterface extends JpaRepository<WideGsonEntity,Long> {}
@@ -1,3 +1,4 @@
 rootProject.name = "SpREAD"
 include(":annotation")
 include("annotation-test")
+include("benchmark")